@@ -0,0 +1,67 @@
+package com.spendwise.benchmark;
+
+import com.spendwise.service.GoalSimulationKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one goal simulation at the default trajectory count, single
+ * threaded versus on all cores. The deadline is effectively unbounded so every
+ * trajectory is simulated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoalSimulationBenchmark {
+
+    @Param({ "10000" })
+    private int trajectories;
+
+    @Param({ "36" })
+    private int months;
+
+    @Param({ "1", "0" })
+    private int parallelism;
+
+    private double[] monthlyNets;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        monthlyNets = new double[24];
+        for (int i = 0; i < monthlyNets.length; i++) {
+            monthlyNets[i] = 150 + (i % 5) * 40 - (i % 7 == 0 ? 300 : 0);
+        }
+        // 0 means one worker per available processor
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public GoalSimulationKernel.Result simulate() {
+        return GoalSimulationKernel.simulate(monthlyNets, 1_000, 8_000, months, trajectories, 42L, pool,
+                System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+    }
+
+}
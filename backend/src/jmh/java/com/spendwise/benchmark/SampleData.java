@@ -0,0 +1,53 @@
+package com.spendwise.benchmark;
+
+import com.spendwise.entity.Expense;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic expense lists shaped like production data: a handful of
+ * categories with skewed frequency, amounts from a few rupees to a few
+ * thousand, dates spread over the last twelve months.
+ */
+public final class SampleData {
+
+    public static final String[] CATEGORIES = {
+            "Food", "Transport", "Shopping", "Bills", "Entertainment", "Health", "Education", "Other" };
+
+    private SampleData() {
+    }
+
+    /**
+     * Build a list of persisted-looking expenses.
+     *
+     * @param count number of expenses
+     * @param seed  random seed
+     * @return expenses with ids and audit timestamps set
+     */
+    public static List<Expense> expenses(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Squaring favours the first categories, as food and transport dominate real data
+            double skew = random.nextDouble();
+            Expense expense = Expense.builder()
+                    .amount(Math.round((20 + random.nextDouble() * random.nextDouble() * 4_000) * 100) / 100.0)
+                    .category(CATEGORIES[(int) (skew * skew * CATEGORIES.length)])
+                    .description("Expense " + i)
+                    .date(today.minusDays(random.nextInt(365)))
+                    .build();
+            expense.setId((long) i + 1);
+            LocalDateTime created = expense.getDate().atTime(12, 0);
+            expense.setCreatedAt(created);
+            expense.setUpdatedAt(created);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.spendwise.service;
+
+import com.spendwise.benchmark.SampleData;
+import com.spendwise.entity.Expense;
+import com.spendwise.repository.CategoryTotal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard-style aggregation: the former in-memory stream pipeline over all of
+ * a user's expenses, a single-pass loop over the same list, and the current
+ * fold of per-category database totals, plus the health score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardAggregationBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int expenses;
+
+    private List<Expense> all;
+    private List<CategoryTotal> totals;
+    private double[] spent;
+    private double budget;
+
+    @Setup
+    public void setUp() {
+        all = SampleData.expenses(expenses, 42L);
+        LocalDate now = LocalDate.now();
+        totals = all.stream()
+                .filter(e -> e.getDate().getMonthValue() == now.getMonthValue() && e.getDate().getYear() == now.getYear())
+                .collect(Collectors.groupingBy(Expense::getCategory, Collectors.summingDouble(Expense::getAmount)))
+                .entrySet().stream()
+                .map(entry -> (CategoryTotal) new Total(entry.getKey(), entry.getValue()))
+                .toList();
+
+        // Spending levels around the budget so every score band is exercised
+        SplittableRandom random = new SplittableRandom(7L);
+        budget = 10_000;
+        spent = new double[1024];
+        for (int i = 0; i < spent.length; i++) {
+            spent[i] = random.nextDouble() * 1.5 * budget;
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double> streamGroupingBy() {
+        LocalDate now = LocalDate.now();
+        int month = now.getMonthValue();
+        int year = now.getYear();
+        return all.stream()
+                .filter(e -> e.getDate().getMonthValue() == month && e.getDate().getYear() == year)
+                .collect(Collectors.groupingBy(Expense::getCategory, Collectors.summingDouble(Expense::getAmount)));
+    }
+
+    @Benchmark
+    public Map<String, Double> loopMerge() {
+        LocalDate now = LocalDate.now();
+        int month = now.getMonthValue();
+        int year = now.getYear();
+        Map<String, Double> breakdown = new HashMap<>();
+        for (Expense e : all) {
+            LocalDate date = e.getDate();
+            if (date.getMonthValue() == month && date.getYear() == year) {
+                breakdown.merge(e.getCategory(), e.getAmount(), Double::sum);
+            }
+        }
+        return breakdown;
+    }
+
+    @Benchmark
+    public Integer foldCategoryTotals() {
+        Map<String, Double> breakdown = new HashMap<>();
+        totals.forEach(total -> breakdown.put(total.getCategory(), total.getTotal()));
+        double total = breakdown.values().stream().mapToDouble(Double::doubleValue).sum();
+        return HealthScore.calculate(total, budget);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int healthScore() {
+        int sum = 0;
+        for (double value : spent) {
+            sum += HealthScore.calculate(value, budget);
+        }
+        return sum;
+    }
+
+    private record Total(String category, Double total) implements CategoryTotal {
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public Double getTotal() {
+            return total;
+        }
+    }
+
+}
@@ -0,0 +1,456 @@
+package com.spendwise.loadtest;
+
+import com.spendwise.entity.RecurringExpense;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a PostgreSQL database, whose schema the application has already
+ * created, with realistic synthetic users and their data:
+ * <ul>
+ * <li>expenses with heavy-tailed per-user volume, category-skewed log-normal
+ * amounts, festive-season and weekend peaks, from each user's sign-up on,</li>
+ * <li>monthly budgets (some with category budgets) whose spent totals and
+ * alert thresholds match the generated expenses,</li>
+ * <li>subscriptions and savings goals with monthly contribution ledgers.</li>
+ * </ul>
+ * Users are named {@code loadtest-1..N} with password {@code loadtest}, as
+ * expected by {@link LoadTest}. Users are generated in independent chunks on
+ * several connections with PostgreSQL COPY; a seed makes runs reproducible.
+ * <pre>
+ * --jdbc-url jdbc:postgresql://localhost:5432/spendwise --db-user postgres --db-password postgres
+ * --users 1000 --expenses-per-user 500 --months 24 --threads 4 --chunk-users 200 --seed 42 --first-user 1
+ * </pre>
+ * 100k users with 500 expenses each gives 50M expenses.
+ */
+public final class DataGenerator {
+
+    public static final String USERNAME_PREFIX = "loadtest-";
+    public static final String PASSWORD = "loadtest";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int[] ALERT_THRESHOLDS = { 50, 80, 100, 120 };
+
+    /**
+     * Category, share of expenses, median amount in rupees, sample descriptions
+     */
+    private static final Category[] CATEGORIES = {
+            new Category("Food", 0.30, 250, "Groceries", "Restaurant", "Coffee", "Food delivery", "Snacks"),
+            new Category("Transport", 0.18, 150, "Cab ride", "Fuel", "Metro card", "Auto rickshaw", "Parking"),
+            new Category("Shopping", 0.14, 1200, "Clothes", "Electronics", "Home supplies", "Online order"),
+            new Category("Bills", 0.10, 1800, "Electricity", "Mobile recharge", "Internet", "Water", "Gas"),
+            new Category("Entertainment", 0.10, 600, "Movie", "Concert", "Games", "Weekend outing"),
+            new Category("Health", 0.07, 800, "Pharmacy", "Doctor visit", "Lab tests", "Gym day pass"),
+            new Category("Education", 0.04, 3000, "Books", "Online course", "Tuition", "Exam fee"),
+            new Category("Other", 0.07, 400, "Gift", "Donation", "Repairs", "Miscellaneous"),
+    };
+
+    private static final Subscription[] SUBSCRIPTIONS = {
+            new Subscription("Netflix", "Entertainment", 649, RecurringExpense.Frequency.MONTHLY),
+            new Subscription("Spotify", "Entertainment", 119, RecurringExpense.Frequency.MONTHLY),
+            new Subscription("Gym membership", "Health", 1500, RecurringExpense.Frequency.MONTHLY),
+            new Subscription("Rent", "Bills", 15000, RecurringExpense.Frequency.MONTHLY),
+            new Subscription("Broadband", "Bills", 799, RecurringExpense.Frequency.MONTHLY),
+            new Subscription("Health insurance", "Health", 18000, RecurringExpense.Frequency.YEARLY),
+            new Subscription("Newspaper", "Other", 60, RecurringExpense.Frequency.WEEKLY),
+            new Subscription("Cloud storage", "Other", 1300, RecurringExpense.Frequency.YEARLY),
+    };
+
+    private static final String[] GOALS = {
+            "Emergency fund", "New phone", "Vacation", "Car", "Laptop", "Wedding", "House deposit" };
+
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int expensesPerUser;
+    private final int months;
+    private final int chunkUsers;
+    private final long seed;
+    private final int firstUser;
+    private final LocalDate today = LocalDate.now();
+    private final String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+    private final AtomicLong usersDone = new AtomicLong();
+    private final AtomicLong expensesDone = new AtomicLong();
+
+    private DataGenerator(Args args) {
+        this.jdbcUrl = args.get("jdbc-url", "jdbc:postgresql://localhost:5432/spendwise");
+        this.dbUser = args.get("db-user", "postgres");
+        this.dbPassword = args.get("db-password", "postgres");
+        this.users = args.getInt("users", 1000);
+        this.expensesPerUser = args.getInt("expenses-per-user", 500);
+        this.months = args.getInt("months", 24);
+        this.chunkUsers = args.getInt("chunk-users", 200);
+        this.seed = args.getLong("seed", 42);
+        this.firstUser = args.getInt("first-user", 1);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        new DataGenerator(args).run(args.getInt("threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    private void run(int threads) throws Exception {
+        try (Connection connection = connect();
+                PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM users WHERE username = ?")) {
+            exists.setString(1, USERNAME_PREFIX + firstUser);
+            try (ResultSet rs = exists.executeQuery()) {
+                if (rs.next()) {
+                    throw new IllegalStateException(USERNAME_PREFIX + firstUser
+                            + " already exists; pass --first-user to append more users");
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int offset = 0; offset < users; offset += chunkUsers) {
+            int first = firstUser + offset;
+            int count = Math.min(chunkUsers, users - offset);
+            chunks.add(pool.submit(() -> {
+                generateChunk(first, count);
+                report(start);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        report(start);
+    }
+
+    private void report(long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%d/%d users, %d expenses, %.0f expenses/s%n",
+                usersDone.get(), users, expensesDone.get(), expensesDone.get() / seconds);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+    }
+
+    /**
+     * Generate users {@code first .. first + count - 1} and all their data,
+     * then load each table with one COPY, parents first.
+     */
+    private void generateChunk(int first, int count) throws SQLException {
+        // Seeded per chunk, so results do not depend on thread scheduling
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + first);
+        Tables tables = new Tables();
+        List<GoalPlan> goals = new ArrayList<>();
+
+        try (Connection connection = connect()) {
+            List<Long> userIds = reserveIds(connection, "users", count);
+            for (int i = 0; i < count; i++) {
+                generateUser(random, userIds.get(i), first + i, tables, goals);
+            }
+
+            List<Long> goalIds = reserveIds(connection, "savings_goals", goals.size());
+            for (int i = 0; i < goals.size(); i++) {
+                goals.get(i).write(goalIds.get(i), tables);
+            }
+
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy(copy, "users (id, created_at, updated_at, data_version, email, enabled, password, username)",
+                    tables.users);
+            copy(copy, "user_roles (user_id, role)", tables.roles);
+            copy(copy, "expenses (created_at, updated_at, amount, category, date, description, user_id)",
+                    tables.expenses);
+            copy(copy, "budgets (created_at, updated_at, alerted_threshold, carry_in, budget_month, monthly_limit, "
+                    + "rollover_enabled, spent_amount, version, budget_year, user_id)", tables.budgets);
+            copy(copy, "category_budgets (created_at, updated_at, alerted_threshold, category, budget_month, "
+                    + "monthly_limit, spent_amount, budget_year, user_id)", tables.categoryBudgets);
+            copy(copy, "recurring_expenses (created_at, updated_at, active, amount, category, description, "
+                    + "frequency, next_due_date, start_date, user_id)", tables.recurring);
+            copy(copy, "savings_goals (id, created_at, updated_at, contributed_amount, current_amount, deadline, "
+                    + "icon, name, target_amount, version, user_id)", tables.goals);
+            copy(copy, "goal_contributions (created_at, updated_at, amount, note, opening_balance, goal_id)",
+                    tables.contributions);
+        }
+        usersDone.addAndGet(count);
+        expensesDone.addAndGet(tables.expenseCount);
+    }
+
+    private void generateUser(SplittableRandom random, long userId, int number, Tables tables,
+            List<GoalPlan> goals) {
+        // Earlier sign-ups have more history; activity and spending level are heavy-tailed
+        LocalDate signUp = today.minusDays(random.nextInt(months * 30));
+        double activity = logNormal(random, 0.8);
+        double spendLevel = logNormal(random, 0.5);
+        String created = timestamp(signUp.atTime(9, 0));
+
+        tables.users.append(userId).append(',').append(created).append(',').append(created).append(",0,")
+                .append(USERNAME_PREFIX).append(number).append("@loadtest.local,true,")
+                .append(passwordHash).append(',').append(USERNAME_PREFIX).append(number).append('\n');
+        tables.roles.append(userId).append(",USER\n");
+
+        // Expenses, tracking month and category totals for consistent budgets
+        Map<YearMonth, Double> monthTotals = new HashMap<>();
+        Map<YearMonth, Map<String, Double>> categoryTotals = new HashMap<>();
+        int activeDays = Math.max(1, (int) (today.toEpochDay() - signUp.toEpochDay()));
+        // Sign-ups are uniform over the window, so the average user is active for half of it
+        int expenseCount = (int) Math.round(expensesPerUser * activity * activeDays / (months * 15.0));
+        for (int i = 0; i < expenseCount; i++) {
+            Category category = pickCategory(random);
+            double amount = round2(Math.max(1, Math.min(500_000,
+                    category.median() * spendLevel * Math.exp(random.nextGaussian() * 0.9))));
+            LocalDate date = pickDate(random, signUp, activeDays);
+            String at = timestamp(date.atTime(random.nextInt(7, 23), random.nextInt(60)));
+            tables.expenses.append(at).append(',').append(at).append(',').append(amount).append(',')
+                    .append(category.name()).append(',').append(date).append(',')
+                    .append(category.descriptions()[random.nextInt(category.descriptions().length)]).append(',')
+                    .append(userId).append('\n');
+            YearMonth month = YearMonth.from(date);
+            monthTotals.merge(month, amount, Double::sum);
+            categoryTotals.computeIfAbsent(month, k -> new HashMap<>()).merge(category.name(), amount, Double::sum);
+        }
+        tables.expenseCount += expenseCount;
+
+        // Most users budget every month since sign-up, some also per category for recent months
+        if (random.nextDouble() < 0.6) {
+            boolean categoryBudgets = random.nextDouble() < 0.25;
+            for (YearMonth month = YearMonth.from(signUp); !month.isAfter(YearMonth.from(today));
+                    month = month.plusMonths(1)) {
+                double spent = round2(monthTotals.getOrDefault(month, 0.0));
+                double limit = roundTo(Math.max(1000, spent * (0.8 + random.nextDouble() * 0.5)), 100);
+                tables.budgets.append(created).append(',').append(created).append(',')
+                        .append(alertedThreshold(spent, limit)).append(",0,").append(month.getMonthValue())
+                        .append(',').append(limit).append(",false,").append(spent).append(",0,")
+                        .append(month.getYear()).append(',').append(userId).append('\n');
+
+                if (categoryBudgets && month.isAfter(YearMonth.from(today).minusMonths(3))) {
+                    for (String category : new String[] { "Food", "Shopping" }) {
+                        double categorySpent = round2(categoryTotals.getOrDefault(month, Map.of())
+                                .getOrDefault(category, 0.0));
+                        double categoryLimit = roundTo(Math.max(500, categorySpent * 1.1), 100);
+                        tables.categoryBudgets.append(created).append(',').append(created).append(',')
+                                .append(alertedThreshold(categorySpent, categoryLimit)).append(',').append(category)
+                                .append(',').append(month.getMonthValue()).append(',').append(categoryLimit)
+                                .append(',').append(categorySpent).append(',').append(month.getYear()).append(',')
+                                .append(userId).append('\n');
+                    }
+                }
+            }
+        }
+
+        // Subscriptions: most users have a few, anchored after sign-up
+        int subscriptions = (int) Math.min(SUBSCRIPTIONS.length, Math.floor(logNormal(random, 0.7) * 2));
+        for (int i = 0; i < subscriptions; i++) {
+            Subscription subscription = SUBSCRIPTIONS[random.nextInt(SUBSCRIPTIONS.length)];
+            LocalDate startDate = signUp.plusDays(random.nextInt(Math.min(activeDays, 60)));
+            LocalDate nextDue = subscription.frequency().firstOnOrAfter(today, startDate);
+            tables.recurring.append(created).append(',').append(created).append(',')
+                    .append(random.nextDouble() < 0.9).append(',').append(subscription.amount()).append(',')
+                    .append(subscription.category()).append(',').append(subscription.name()).append(',')
+                    .append(subscription.frequency().name()).append(',').append(nextDue).append(',')
+                    .append(startDate).append(',').append(userId).append('\n');
+        }
+
+        // Savings goals with an opening balance and monthly contributions
+        int goalCount = random.nextDouble() < 0.4 ? 1 + random.nextInt(3) : 0;
+        for (int i = 0; i < goalCount; i++) {
+            LocalDate goalCreated = signUp.plusDays(random.nextInt(activeDays));
+            double target = roundTo(20_000 * logNormal(random, 1.0) * spendLevel, 1000);
+            double opening = random.nextDouble() < 0.5 ? roundTo(target * random.nextDouble() * 0.2, 100) : 0;
+            double monthly = roundTo(target / (6 + random.nextInt(30)), 10);
+            GoalPlan goal = new GoalPlan(userId, GOALS[random.nextInt(GOALS.length)], target, opening,
+                    today.plusMonths(3 + random.nextInt(34)), goalCreated.atTime(10, 0));
+            for (LocalDate at = goalCreated.plusMonths(1); at.isBefore(today); at = at.plusMonths(1)) {
+                // Contributions are irregular: skipped months and varying amounts
+                if (random.nextDouble() < 0.75) {
+                    goal.contributions.add(new double[] { at.toEpochDay(),
+                            roundTo(monthly * (0.5 + random.nextDouble()), 10) });
+                }
+            }
+            goals.add(goal);
+        }
+    }
+
+    private static int alertedThreshold(double spent, double limit) {
+        int reached = 0;
+        for (int threshold : ALERT_THRESHOLDS) {
+            if (spent / limit * 100.0 >= threshold) {
+                reached = threshold;
+            }
+        }
+        return reached;
+    }
+
+    private static Category pickCategory(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (Category category : CATEGORIES) {
+            r -= category.share();
+            if (r < 0) {
+                return category;
+            }
+        }
+        return CATEGORIES[CATEGORIES.length - 1];
+    }
+
+    /**
+     * Date between sign-up and today, weighted by season and weekday
+     * through rejection sampling.
+     */
+    private LocalDate pickDate(SplittableRandom random, LocalDate signUp, int activeDays) {
+        while (true) {
+            LocalDate date = signUp.plusDays(1 + random.nextInt(activeDays));
+            double weight = switch (date.getMonth()) {
+                case OCTOBER, NOVEMBER -> 1.35;
+                case DECEMBER -> 1.25;
+                case JANUARY -> 0.85;
+                default -> 1.0;
+            };
+            DayOfWeek day = date.getDayOfWeek();
+            weight *= day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY ? 1.3 : day == DayOfWeek.SUNDAY ? 1.15 : 1.0;
+            if (random.nextDouble() * 1.35 * 1.3 < weight) {
+                return date;
+            }
+        }
+    }
+
+    /**
+     * Log-normal sample with mean 1.
+     */
+    private static double logNormal(SplittableRandom random, double sigma) {
+        return Math.exp(random.nextGaussian() * sigma - sigma * sigma / 2);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static double roundTo(double value, double step) {
+        return Math.round(value / step) * step;
+    }
+
+    private static String timestamp(LocalDateTime at) {
+        return at.format(TIMESTAMP);
+    }
+
+    private static List<Long> reserveIds(Connection connection, String table, int count) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        if (count == 0) {
+            return ids;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)")) {
+            statement.setString(1, table);
+            statement.setInt(2, count);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void copy(CopyManager copy, String target, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            copy.copyIn("COPY " + target + " FROM STDIN WITH (FORMAT csv)", new StringReader(rows.toString()));
+        } catch (java.io.IOException e) {
+            throw new SQLException("COPY into " + target + " failed", e);
+        }
+    }
+
+    private record Category(String name, double share, double median, String... descriptions) {
+    }
+
+    private record Subscription(String name, String category, double amount, RecurringExpense.Frequency frequency) {
+    }
+
+    /**
+     * CSV rows per table for one chunk.
+     */
+    private static final class Tables {
+        final StringBuilder users = new StringBuilder();
+        final StringBuilder roles = new StringBuilder();
+        final StringBuilder expenses = new StringBuilder();
+        final StringBuilder budgets = new StringBuilder();
+        final StringBuilder categoryBudgets = new StringBuilder();
+        final StringBuilder recurring = new StringBuilder();
+        final StringBuilder goals = new StringBuilder();
+        final StringBuilder contributions = new StringBuilder();
+        long expenseCount;
+    }
+
+    /**
+     * A goal whose id is only known once the chunk's goals are counted.
+     */
+    private static final class GoalPlan {
+        final long userId;
+        final String name;
+        final double target;
+        final double opening;
+        final LocalDate deadline;
+        final LocalDateTime createdAt;
+        final List<double[]> contributions = new ArrayList<>();
+
+        GoalPlan(long userId, String name, double target, double opening, LocalDate deadline,
+                LocalDateTime createdAt) {
+            this.userId = userId;
+            this.name = name;
+            this.target = target;
+            this.opening = opening;
+            this.deadline = deadline;
+            this.createdAt = createdAt;
+        }
+
+        void write(long goalId, Tables tables) {
+            String created = timestamp(createdAt);
+            if (opening > 0) {
+                tables.contributions.append(created).append(',').append(created).append(',').append(opening)
+                        .append(",Opening balance,true,").append(goalId).append('\n');
+            }
+            double contributed = 0;
+            for (double[] contribution : contributions) {
+                String at = timestamp(LocalDate.ofEpochDay((long) contribution[0]).atTime(10, 0));
+                tables.contributions.append(at).append(',').append(at).append(',').append(contribution[1])
+                        .append(",,false,").append(goalId).append('\n');
+                contributed += contribution[1];
+            }
+            tables.goals.append(goalId).append(',').append(created).append(',').append(created).append(',')
+                    .append(round2(contributed)).append(',').append(round2(opening + contributed)).append(',')
+                    .append(deadline).append(",,").append(name).append(',').append(target).append(",0,")
+                    .append(userId).append('\n');
+        }
+    }
+
+}
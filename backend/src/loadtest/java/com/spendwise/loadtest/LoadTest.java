@@ -0,0 +1,316 @@
+package com.spendwise.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test against a running application. Worker threads act as randomly
+ * chosen {@link DataGenerator} users, logging in once per user, and issue a
+ * weighted mix of read and write requests for a fixed duration. Per-endpoint
+ * throughput, client errors (such as 404 for users without a budget or 429
+ * once the AI quota is spent), server errors and latency percentiles are
+ * printed at the end; requests during the warm-up are not counted.
+ * <p>
+ * With {@code --rate} the test is open-loop: requests follow a fixed send
+ * schedule shared out over the workers, and latency is measured from each
+ * request's scheduled send time. A stalled server then shows up in the
+ * percentiles with every request that should have been sent meanwhile,
+ * instead of being hidden by workers that stopped sending (coordinated
+ * omission). Without it, each worker sends its next request when the last
+ * one completes, plus {@code --think-ms}; that closed loop finds the maximum
+ * throughput, but its latencies leave out stalls and understate the tail.
+ * <pre>
+ * --base-url http://localhost:8080 --threads 32 --duration-s 60 --warmup-s 10
+ * --users 1000 --first-user 1 --rate 0 --think-ms 0
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long MAX_LATENCY_NANOS = Duration.ofMinutes(2).toNanos();
+    private static final String[] CATEGORIES = {
+            "Food", "Transport", "Shopping", "Bills", "Entertainment", "Health", "Education", "Other" };
+
+    /**
+     * Traffic mix: endpoint and relative weight
+     */
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+
+    static {
+        MIX.put("GET /api/dashboard", 30);
+        MIX.put("GET /api/expenses", 15);
+        MIX.put("POST /api/expenses", 20);
+        MIX.put("GET /api/analytics", 10);
+        MIX.put("GET /api/budgets/current", 10);
+        MIX.put("GET /api/recurring-expenses/timeline", 5);
+        MIX.put("GET /api/goals", 5);
+        MIX.put("POST /api/ai/analyze", 3);
+        MIX.put("POST /api/ai/chat", 2);
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+    private final String baseUrl;
+    private final int users;
+    private final int firstUser;
+    private final long thinkMs;
+    private final double rate;
+    private final int totalWeight = MIX.values().stream().mapToInt(Integer::intValue).sum();
+
+    private LoadTest(Args args) {
+        this.baseUrl = args.get("base-url", "http://localhost:8080");
+        this.users = args.getInt("users", 1000);
+        this.firstUser = args.getInt("first-user", 1);
+        this.thinkMs = args.getLong("think-ms", 0);
+        this.rate = args.getDouble("rate", 0);
+        if (rate > 0 && thinkMs > 0) {
+            throw new IllegalArgumentException("--think-ms applies to the closed loop only, not with --rate");
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        new LoadTest(args).run(args.getInt("threads", 32), args.getLong("duration-s", 60),
+                args.getLong("warmup-s", 10));
+    }
+
+    private void run(int threads, long durationSeconds, long warmupSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        System.out.printf("%d threads against %s: %ds warm-up, %ds measured, %s%n",
+                threads, baseUrl, warmupSeconds, durationSeconds,
+                rate > 0 ? String.format(Locale.ROOT, "%.1f req/s scheduled", rate) : "closed loop");
+
+        // Open loop: each worker sends every intervalNanos, offset so sends interleave
+        long intervalNanos = rate > 0 ? (long) (threads * 1_000_000_000L / rate) : 0;
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(measureFrom, end, start + intervalNanos * i / threads, intervalNanos);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-" + i);
+            thread.start();
+            running.add(thread);
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+
+        // Each worker kept its own histograms; merge them for the report
+        Map<String, Stats> merged = new LinkedHashMap<>();
+        for (Worker worker : workers) {
+            worker.stats.forEach((endpoint, stats) ->
+                    merged.computeIfAbsent(endpoint, k -> new Stats()).add(stats));
+        }
+        report(merged, durationSeconds);
+    }
+
+    private static void report(Map<String, Stats> results, long durationSeconds) {
+        System.out.printf("%n%-38s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "4xx", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Stats total = new Stats();
+        results.forEach((endpoint, stats) -> {
+            print(endpoint, stats, durationSeconds);
+            total.add(stats);
+        });
+        print("total", total, durationSeconds);
+    }
+
+    private static void print(String endpoint, Stats stats, long durationSeconds) {
+        Histogram h = stats.latency;
+        System.out.printf(Locale.ROOT, "%-38s %9d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, h.getTotalCount(), stats.clientErrors, stats.errors,
+                h.getTotalCount() / (double) durationSeconds,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                millis(h.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private String pickEndpoint(ThreadLocalRandom random) {
+        int r = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+    }
+
+    private static String body(ThreadLocalRandom random, String endpoint) {
+        return switch (endpoint) {
+            case "POST /api/expenses" -> String.format(Locale.ROOT,
+                    "{\"amount\":%.2f,\"category\":\"%s\",\"date\":\"%s\",\"description\":\"Load test\"}",
+                    Math.exp(4 + random.nextGaussian()), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    LocalDate.now().minusDays(random.nextInt(30)));
+            case "POST /api/ai/chat" ->
+                    "{\"messages\":[{\"role\":\"user\",\"content\":\"Where did most of my money go this month?\"}]}";
+            default -> "";
+        };
+    }
+
+    /**
+     * Latency and errors of one endpoint. Errors are 5xx responses and
+     * failed connections.
+     */
+    private static final class Stats {
+        final Histogram latency = new Histogram(MAX_LATENCY_NANOS, 3);
+        long clientErrors;
+        long errors;
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            clientErrors += other.clientErrors;
+            errors += other.errors;
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private final Map<String, Stats> stats = new LinkedHashMap<>();
+        private final long measureFrom;
+        private final long end;
+        private final long intervalNanos;
+        private long scheduled;
+
+        /**
+         * @param measureFrom   first send time that is recorded
+         * @param end           time after which nothing is sent
+         * @param firstSend     scheduled time of the first send, open loop only
+         * @param intervalNanos time between scheduled sends, 0 for a closed loop
+         */
+        private Worker(long measureFrom, long end, long firstSend, long intervalNanos) {
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.scheduled = firstSend;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (true) {
+                long sendAt;
+                try {
+                    sendAt = nextSend();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (sendAt >= end) {
+                    return;
+                }
+                int user = firstUser + random.nextInt(users);
+                String token = tokens.get(user);
+                String endpoint = "POST /api/auth/login";
+                HttpRequest.Builder request;
+                if (token == null) {
+                    request = request("/api/auth/login").POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + DataGenerator.USERNAME_PREFIX + user + "\",\"password\":\""
+                                    + DataGenerator.PASSWORD + "\"}"));
+                } else {
+                    endpoint = pickEndpoint(random);
+                    String method = endpoint.substring(0, endpoint.indexOf(' '));
+                    request = request(endpoint.substring(method.length() + 1))
+                            .header("Authorization", "Bearer " + token)
+                            .method(method, method.equals("GET")
+                                    ? HttpRequest.BodyPublishers.noBody()
+                                    : HttpRequest.BodyPublishers.ofString(body(random, endpoint)));
+                }
+
+                int status;
+                String response = null;
+                try {
+                    HttpResponse<String> result = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                    status = result.statusCode();
+                    response = result.body();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // From the scheduled send in the open loop, so time spent behind schedule counts
+                long elapsed = System.nanoTime() - sendAt;
+
+                if (token == null && status == 200) {
+                    tokens.put(user, token(response));
+                }
+                if (sendAt >= measureFrom) {
+                    Stats endpointStats = stats.computeIfAbsent(endpoint, k -> new Stats());
+                    endpointStats.latency.recordValue(Math.min(elapsed, MAX_LATENCY_NANOS));
+                    if (status >= 400 && status < 500) {
+                        endpointStats.clientErrors++;
+                    } else if (status < 200 || status >= 500) {
+                        endpointStats.errors++;
+                    }
+                }
+                if (intervalNanos == 0 && thinkMs > 0) {
+                    try {
+                        Thread.sleep(thinkMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Wait for the next scheduled send in the open loop; a worker behind
+         * schedule sends at once. The closed loop sends now.
+         *
+         * @return time the request counts as sent
+         */
+        private long nextSend() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return System.nanoTime();
+            }
+            long sendAt = scheduled;
+            scheduled += intervalNanos;
+            long wait = sendAt - System.nanoTime();
+            if (wait > 0 && sendAt < end) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            return sendAt;
+        }
+
+        private String token(String response) {
+            try {
+                JsonNode json = MAPPER.readTree(response);
+                return json.path("token").asText();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unexpected login response: " + response, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.spendwise.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the OpenAI chat completions API with production-like latency.
+ * Analysis requests get a well-formed analysis; chat requests get one tool
+ * call on the first round and a plain answer afterwards, so the tool loop is
+ * exercised. A configurable share of requests fails to exercise fallbacks.
+ * <p>
+ * Point the application at it with {@code --openai.base-url=http://localhost:18999}.
+ * <pre>
+ * --port 18999 --latency-ms 400 --jitter-ms 200 --error-rate 0.0
+ * </pre>
+ */
+public final class StubOpenAIServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+
+    private StubOpenAIServer(long latencyMs, long jitterMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+    }
+
+    public static void main(String[] argv) throws IOException {
+        Args args = new Args(argv);
+        int port = args.getInt("port", 18999);
+        StubOpenAIServer stub = new StubOpenAIServer(args.getLong("latency-ms", 400),
+                args.getLong("jitter-ms", 200), args.getDouble("error-rate", 0.0));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.createContext("/v1/chat/completions", stub::handle);
+        // Requests sleep for their latency, so every in-flight call needs a thread
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.out.printf("Stub OpenAI server listening on http://localhost:%d%n", port);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0));
+
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                send(exchange, 500, Map.of("error", Map.of("message", "stub failure", "type", "server_error")));
+                return;
+            }
+            Map<String, Object> response = Map.of(
+                    "choices", List.of(Map.of("index", 0, "message", message(request))),
+                    "usage", Map.of("prompt_tokens", 350, "completion_tokens", 120));
+            send(exchange, 200, response);
+        }
+    }
+
+    private Map<String, Object> message(JsonNode request) throws IOException {
+        if (!request.has("tools")) {
+            String analysis = MAPPER.writeValueAsString(Map.of(
+                    "summary", "Spending is steady with food as the largest category.",
+                    "overspendingCategories", List.of("Food"),
+                    "recommendations", List.of("Cook at home twice more a week", "Review subscriptions"),
+                    "nextMonthPrediction", "Similar to this month"));
+            return Map.of("role", "assistant", "content", analysis);
+        }
+
+        JsonNode messages = request.path("messages");
+        boolean firstRound = messages.get(messages.size() - 1).path("role").asText().equals("user");
+        if (firstRound && "auto".equals(request.path("tool_choice").asText())) {
+            YearMonth month = YearMonth.from(LocalDate.now());
+            String arguments = MAPPER.writeValueAsString(Map.of(
+                    "start_date", month.atDay(1).toString(), "end_date", month.atEndOfMonth().toString()));
+            return Map.of("role", "assistant", "tool_calls", List.of(Map.of(
+                    "id", "call_1", "type", "function",
+                    "function", Map.of("name", "get_category_totals", "arguments", arguments))));
+        }
+        return Map.of("role", "assistant", "content", "Here is a summary of your spending this month.");
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
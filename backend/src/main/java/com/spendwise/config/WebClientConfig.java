@@ -1,5 +1,7 @@
 package com.spendwise.config;
 
+import com.spendwise.instrumentation.UpstreamTimingFilter;
+import com.spendwise.resilience.UpstreamCircuitBreaker;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,17 +20,43 @@ public class WebClientConfig {
     @Value("${openai.api.key}")
     private String openaiApiKey;
 
+    /**
+     * OpenAI API root, overridable to point at a stub server for load tests
+     */
+    @Value("${openai.base-url:https://api.openai.com}")
+    private String openaiBaseUrl;
+
+    @Value("${openai.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${openai.circuit.open-seconds:30}")
+    private long circuitOpenSeconds;
+
+    /**
+     * Circuit breaker for OpenAI calls, also reported by the health endpoint.
+     *
+     * @return OpenAI circuit breaker
+     */
+    @Bean
+    public UpstreamCircuitBreaker openAICircuitBreaker() {
+        return new UpstreamCircuitBreaker("openai", circuitFailureThreshold, Duration.ofSeconds(circuitOpenSeconds));
+    }
+
     /**
      * Configure WebClient for OpenAI API calls.
      *
+     * @param openAICircuitBreaker circuit breaker failing calls fast while OpenAI is down
      * @return configured WebClient
      */
     @Bean
-    public WebClient openAIWebClient() {
+    public WebClient openAIWebClient(UpstreamCircuitBreaker openAICircuitBreaker) {
         return WebClient.builder()
-                .baseUrl("https://api.openai.com")
+                .baseUrl(openaiBaseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + openaiApiKey)
+                // Outermost, so calls refused by the open circuit are not timed as upstream calls
+                .filter(openAICircuitBreaker)
+                .filter(new UpstreamTimingFilter())
                 .build();
     }
 
@@ -1,11 +1,15 @@
 package com.spendwise.controller;
 
 import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.dto.AIUsageResponseDTO;
 import com.spendwise.service.AIService;
+import com.spendwise.service.AIUsageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -17,15 +21,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class AIController {
 
     private final AIService aiService;
+    private final AIUsageService aiUsageService;
 
     /**
      * Analyze user's monthly expenses using AI.
      *
+     * @param fast when true, answer from the local insight engine without calling OpenAI
      * @return AI-generated financial analysis and recommendations
      */
     @PostMapping("/analyze")
-    public ResponseEntity<AIAnalysisResponseDTO> analyzeExpenses() {
-        AIAnalysisResponseDTO analysis = aiService.analyzeExpenses();
+    public ResponseEntity<AIAnalysisResponseDTO> analyzeExpenses(
+            @RequestParam(defaultValue = "false") boolean fast) {
+        AIAnalysisResponseDTO analysis = aiService.analyzeExpenses(fast);
         return ResponseEntity.ok(analysis);
     }
 
@@ -35,4 +42,14 @@ public class AIController {
         return ResponseEntity.ok(aiService.getChatResponse(request));
     }
 
+    /**
+     * Get the logged-in user's AI token usage and quota for today.
+     *
+     * @return token usage per endpoint and remaining quota
+     */
+    @GetMapping("/usage")
+    public ResponseEntity<AIUsageResponseDTO> getUsage() {
+        return ResponseEntity.ok(aiUsageService.getCurrentUsage());
+    }
+
 }
@@ -0,0 +1,92 @@
+package com.spendwise.controller;
+
+import com.spendwise.dto.FlightRecordingDTO;
+import com.spendwise.dto.ShardDTO;
+import com.spendwise.dto.ShardMoveDTO;
+import com.spendwise.service.FlightRecordingService;
+import com.spendwise.service.ShardMoveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Operational endpoints restricted to {@code Role.ADMIN}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final FlightRecordingService flightRecordingService;
+    private final ShardMoveService shardMoveService;
+
+    @GetMapping("/recordings")
+    public ResponseEntity<List<FlightRecordingDTO>> getRecordings() {
+        return ResponseEntity.ok(flightRecordingService.getRecordings());
+    }
+
+    /**
+     * Start a time-boxed flight recording.
+     *
+     * @param durationSeconds how long to record
+     * @param settings        JFR settings: default (about 1% overhead) or profile (more detail)
+     * @return the started recording
+     */
+    @PostMapping("/recordings")
+    public ResponseEntity<FlightRecordingDTO> startRecording(
+            @RequestParam(defaultValue = "60") long durationSeconds,
+            @RequestParam(defaultValue = "default") String settings) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(flightRecordingService.startRecording(durationSeconds, settings));
+    }
+
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<FlightRecordingDTO> stopRecording(@PathVariable Long id) {
+        return ResponseEntity.ok(flightRecordingService.stopRecording(id));
+    }
+
+    /**
+     * Download a recording as a .jfr file, for JDK Mission Control or the
+     * {@code jfr} tool. Running recordings are dumped as recorded so far.
+     *
+     * @param id recording id
+     * @return the recording file
+     */
+    @GetMapping("/recordings/{id}/file")
+    public ResponseEntity<InputStreamResource> downloadRecording(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"spendwise-" + id + ".jfr\"")
+                .body(new InputStreamResource(flightRecordingService.openRecording(id)));
+    }
+
+    @DeleteMapping("/recordings/{id}")
+    public ResponseEntity<Void> deleteRecording(@PathVariable Long id) {
+        flightRecordingService.deleteRecording(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/shards")
+    public ResponseEntity<List<ShardDTO>> getShards() {
+        return ResponseEntity.ok(shardMoveService.getShards());
+    }
+
+    /**
+     * Move a user and all their data to another shard. The user's requests
+     * are held, not failed, while the move runs.
+     *
+     * @param username user to move
+     * @param shard    destination shard
+     * @return what was moved
+     */
+    @PostMapping("/shards/users/{username}/move")
+    public ResponseEntity<ShardMoveDTO> moveUser(@PathVariable String username, @RequestParam int shard) {
+        return ResponseEntity.ok(shardMoveService.moveUser(username, shard));
+    }
+}
@@ -2,13 +2,18 @@ package com.spendwise.controller;
 
 import com.spendwise.dto.BudgetRequestDTO;
 import com.spendwise.dto.BudgetResponseDTO;
+import com.spendwise.exception.BadRequestException;
 import com.spendwise.service.BudgetService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.util.List;
+
 /**
  * REST controller for budget management endpoints.
  * Handles monthly budget creation, updates, and analytics.
@@ -23,7 +28,8 @@ public class BudgetController {
     /**
      * Create or update a monthly budget.
      * If budget exists for the specified month/year, updates the limit.
-     * Otherwise, creates a new budget.
+     * Otherwise, creates a new budget. A category in the request targets
+     * that category's budget instead of the overall one.
      *
      * @param requestDTO budget request data
      * @return budget response with analytics
@@ -53,7 +59,8 @@ public class BudgetController {
     }
 
     /**
-     * Get budget for a specific month and year with analytics.
+     * Get budget for a specific month and year with analytics,
+     * including all category budgets of the month.
      *
      * @param month the month (1-12)
      * @param year  the year
@@ -67,18 +74,43 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get budgets for a whole year or an arbitrary month range, oldest first.
+     * Either {@code year} or both {@code from} and {@code to} (yyyy-MM) must be given.
+     *
+     * @param year calendar year to return
+     * @param from first month of the range (inclusive)
+     * @param to   last month of the range (inclusive)
+     * @return one budget response per month that has a budget
+     */
+    @GetMapping
+    public ResponseEntity<List<BudgetResponseDTO>> getBudgetsInRange(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        if (year != null) {
+            from = BudgetService.requestedMonth(year, 1);
+            to = BudgetService.requestedMonth(year, 12);
+        } else if (from == null || to == null) {
+            throw new BadRequestException("Provide either year or both from and to");
+        }
+        return ResponseEntity.ok(budgetService.getBudgetsInRange(from, to));
+    }
+
     /**
      * Delete budget for a specific month and year.
      *
-     * @param month the month (1-12)
-     * @param year  the year
+     * @param month    the month (1-12)
+     * @param year     the year
+     * @param category category budget to delete, omit for the overall budget
      * @return 204 No Content
      */
     @DeleteMapping("/{month}/{year}")
     public ResponseEntity<Void> deleteBudget(
             @PathVariable Integer month,
-            @PathVariable Integer year) {
-        budgetService.deleteBudget(month, year);
+            @PathVariable Integer year,
+            @RequestParam(required = false) String category) {
+        budgetService.deleteBudget(month, year, category);
         return ResponseEntity.noContent().build();
     }
 
@@ -20,7 +20,8 @@ public class DashboardController {
 
     /**
      * Get complete dashboard data for current month.
-     * Includes spending analytics, category breakdown, and financial health score.
+     * Includes spending analytics, category breakdown, financial health score,
+     * and the spending forecast.
      *
      * @return dashboard response with all analytics
      */
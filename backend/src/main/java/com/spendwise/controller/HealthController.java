@@ -1,12 +1,13 @@
 package com.spendwise.controller;
 
+import com.spendwise.service.HealthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -14,20 +15,24 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/public")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final HealthService healthService;
+
     /**
-     * Health check endpoint.
+     * Readiness check: 503 while the instance is shedding load, so load
+     * balancers route traffic elsewhere until it recovers.
      *
-     * @return health status
+     * @return health status with concurrency, database pool and upstream details
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
-        response.put("application", "SpendWise");
-        response.put("timestamp", LocalDateTime.now());
-        return ResponseEntity.ok(response);
+        Map<String, Object> response = healthService.getHealth();
+        HttpStatus status = HealthService.OUT_OF_SERVICE.equals(response.get("status"))
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
     }
 
 }
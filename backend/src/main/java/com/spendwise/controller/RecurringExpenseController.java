@@ -1,6 +1,8 @@
 package com.spendwise.controller;
 
+import com.spendwise.dto.UpcomingChargeDTO;
 import com.spendwise.entity.RecurringExpense;
+import com.spendwise.exception.BadRequestException;
 import com.spendwise.service.RecurringExpenseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,19 @@ public class RecurringExpenseController {
         return ResponseEntity.ok(service.getAllRecurringExpenses());
     }
 
+    @GetMapping("/timeline")
+    public ResponseEntity<List<UpcomingChargeDTO>> getTimeline(
+            @RequestParam(defaultValue = "90") int days,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (days < 1 || days > 366) {
+            throw new BadRequestException("days must be between 1 and 366");
+        }
+        if (limit < 1 || limit > 1000) {
+            throw new BadRequestException("limit must be between 1 and 1000");
+        }
+        return ResponseEntity.ok(service.getTimeline(days, limit));
+    }
+
     @PostMapping
     public ResponseEntity<RecurringExpense> add(@RequestBody RecurringExpense expense) {
         return ResponseEntity.ok(service.addRecurringExpense(expense));
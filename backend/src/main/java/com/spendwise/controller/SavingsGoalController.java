@@ -1,6 +1,9 @@
 package com.spendwise.controller;
 
+import com.spendwise.dto.GoalContributionDTO;
+import com.spendwise.dto.GoalSimulationDTO;
 import com.spendwise.dto.SavingsGoalDTO;
+import com.spendwise.service.GoalSimulationService;
 import com.spendwise.service.SavingsGoalService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +18,7 @@ import java.util.List;
 public class SavingsGoalController {
 
     private final SavingsGoalService savingsGoalService;
+    private final GoalSimulationService goalSimulationService;
 
     @PostMapping
     public ResponseEntity<SavingsGoalDTO> createGoal(@Valid @RequestBody SavingsGoalDTO dto) {
@@ -31,6 +35,23 @@ public class SavingsGoalController {
         return ResponseEntity.ok(savingsGoalService.updateGoal(id, dto));
     }
 
+    @PostMapping("/{id}/contributions")
+    public ResponseEntity<SavingsGoalDTO> addContribution(@PathVariable Long id,
+            @Valid @RequestBody GoalContributionDTO dto) {
+        return ResponseEntity.ok(savingsGoalService.addContribution(id, dto));
+    }
+
+    @GetMapping("/{id}/contributions")
+    public ResponseEntity<List<GoalContributionDTO>> getContributions(@PathVariable Long id) {
+        return ResponseEntity.ok(savingsGoalService.getContributions(id));
+    }
+
+    @GetMapping("/{id}/simulation")
+    public ResponseEntity<GoalSimulationDTO> simulate(@PathVariable Long id,
+            @RequestParam(required = false) Integer trajectories) {
+        return ResponseEntity.ok(goalSimulationService.simulate(id, trajectories));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteGoal(@PathVariable Long id) {
         savingsGoalService.deleteGoal(id);
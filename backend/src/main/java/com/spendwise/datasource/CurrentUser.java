@@ -0,0 +1,28 @@
+package com.spendwise.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Username of the authenticated user on the current thread, the key for
+ * read-your-writes stickiness and shard routing.
+ */
+final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * @return username, or null if the thread is not authenticated
+     */
+    static String name() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+}
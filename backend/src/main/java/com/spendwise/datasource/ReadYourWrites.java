@@ -0,0 +1,86 @@
+package com.spendwise.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently, from the INSERT, UPDATE and DELETE
+ * statements run on the primary for an authenticated request, so their
+ * reads stay on the primary until replicas have caught up with their own
+ * changes. Other users' reads are unaffected.
+ * <p>
+ * Writes are remembered by the instance that ran them only, so with more
+ * than one instance the load balancer must keep each user on the same one
+ * (sticky sessions) for the window, or their reads may hit a stale replica.
+ */
+public class ReadYourWrites implements QueryExecutionListener {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    /**
+     * @param window how long after a write the user's reads go to the primary
+     */
+    public ReadYourWrites(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String user = CurrentUser.name();
+        if (user == null || !execInfo.isSuccess()) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            QueryType type = QueryUtils.getQueryType(queryInfo.getQuery());
+            if (type == QueryType.INSERT || type == QueryType.UPDATE || type == QueryType.DELETE) {
+                recordWrite(user);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether the current user wrote within the window.
+     *
+     * @return true if reads must see the primary
+     */
+    public boolean isCurrentUserSticky() {
+        String user = CurrentUser.name();
+        if (user == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt >= windowNanos) {
+            lastWriteNanos.remove(user, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private void recordWrite(String user) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(user, now);
+        if (lastWriteNanos.size() > PURGE_THRESHOLD) {
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+}
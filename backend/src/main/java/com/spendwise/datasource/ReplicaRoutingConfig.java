@@ -0,0 +1,114 @@
+package com.spendwise.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, active when {@code datasource.replicas.urls} lists at
+ * least one replica. Replaces the auto-configured DataSource with one that
+ * serves {@code @Transactional(readOnly = true)} work from the replicas.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank() and '${sharding.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    /**
+     * Primary and replica pools. The primary takes {@code spring.datasource.*}
+     * as usual; replicas take {@code datasource.replicas.hikari.*}.
+     *
+     * @param properties    primary DataSource settings
+     * @param environment   source of the pool settings
+     * @param meterRegistry registry for pool and lag metrics
+     * @return the pools, closed on shutdown
+     */
+    @Bean
+    public ReplicaSet replicaSet(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            // Fail over to the primary quickly rather than queue for a struggling replica
+            replica.setConnectionTimeout(2000);
+            replica.setInitializationFailTimeout(-1);
+            binder.bind("datasource.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaSet(primary, replicas, maxLagMs, meterRegistry);
+    }
+
+    /**
+     * The application DataSource. The lazy proxy defers fetching a physical
+     * connection to the first statement, when the transaction's read-only
+     * flag is known and the route can be chosen.
+     *
+     * @param replicaSet    primary and replica pools
+     * @param meterRegistry registry for the read route counter
+     * @return routing DataSource
+     */
+    @Bean
+    public DataSource dataSource(ReplicaSet replicaSet, MeterRegistry meterRegistry) {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMillis(readYourWritesMs));
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(replicaSet, readYourWrites, meterRegistry));
+    }
+
+    /**
+     * Have Hibernate take a connection per transaction instead of holding one
+     * for the whole session: with open-in-view a request's session spans
+     * several transactions, and each must be routed on its own.
+     *
+     * @return Hibernate connection handling customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+}
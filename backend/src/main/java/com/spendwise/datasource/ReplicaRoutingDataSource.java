@@ -0,0 +1,85 @@
+package com.spendwise.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything
+ * else to the primary. Must sit behind a {@code LazyConnectionDataSourceProxy}
+ * so the connection is fetched at the first statement, once the transaction
+ * and its read-only flag are set up. Reads go to the primary instead while
+ * the user's own writes may not have replicated yet, when no replica is
+ * within the lag limit, or when the chosen replica fails to give a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final ReplicaSet replicaSet;
+    private final ReadYourWrites readYourWrites;
+    private final DataSource primary;
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(ReplicaSet replicaSet, ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry) {
+        this.replicaSet = replicaSet;
+        this.readYourWrites = readYourWrites;
+        // Writes are watched on the primary only; they cannot happen elsewhere
+        this.primary = ProxyDataSourceBuilder.create(replicaSet.getPrimary())
+                .listener(readYourWrites)
+                .build();
+        this.replicaReads = meterRegistry.counter("spendwise.datasource.reads", "route", "replica");
+        this.stickyReads = meterRegistry.counter("spendwise.datasource.reads", "route", "sticky");
+        this.fallbackReads = meterRegistry.counter("spendwise.datasource.reads", "route", "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (readYourWrites.isCurrentUserSticky()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        ReplicaSet.Replica replica = replicaSet.selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markUnavailable(e);
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Connections use the configured pool credentials");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return replicaSet.getPrimary().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || replicaSet.getPrimary().isWrapperFor(iface);
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.spendwise.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The primary connection pool and its read replica pools. Replication lag
+ * of every replica is polled on a schedule; replicas that lag more than the
+ * limit or cannot be reached are skipped until they recover, and reads are
+ * spread round-robin over the rest.
+ */
+@Slf4j
+public class ReplicaSet {
+
+    /**
+     * Lag of a replica that cannot tell how far behind it is
+     */
+    public static final long UNKNOWN_LAG = Long.MAX_VALUE;
+
+    /**
+     * Milliseconds since the last replayed transaction, 0 when the replica is
+     * not in recovery or is streaming and has replayed everything it received,
+     * or null if it never replayed a transaction. A replica whose WAL receiver
+     * is not streaming has replayed all it received but may be arbitrarily
+     * stale, so it is measured by its last replay too. Roles without
+     * pg_read_all_stats cannot see the receiver's status and take a running
+     * receiver as streaming.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                    AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming')
+                    THEN 0
+                ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+            END""";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary       primary pool, for all writes
+     * @param replicaPools  replica pools, for read-only transactions
+     * @param maxLagMs      replication lag beyond which a replica is skipped
+     * @param meterRegistry registry for the per-replica lag gauge
+     */
+    public ReplicaSet(HikariDataSource primary, List<HikariDataSource> replicaPools, long maxLagMs,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            Gauge.builder("spendwise.datasource.replica.lag", replica,
+                    r -> r.available && r.lagMs != UNKNOWN_LAG ? r.lagMs : -1)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Next replica in rotation among those available within the lag limit.
+     *
+     * @return replica, or null if none can serve reads
+     */
+    public Replica selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available && replica.lagMs <= maxLagMs) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public List<Replica> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    /**
+     * Poll every replica's replication lag.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-ms:1000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(1);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    long lagMs = rs.getLong(1);
+                    replica.lagMs = rs.wasNull() ? UNKNOWN_LAG : lagMs;
+                }
+                if (!replica.available) {
+                    log.info("Replica {} is available, lag {} ms", replica.name, replica.lagMs);
+                }
+                replica.available = true;
+            } catch (SQLException e) {
+                replica.markUnavailable(e);
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    /**
+     * One replica pool and its last observed state.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean available;
+        private volatile long lagMs;
+
+        private Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return pool;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        /**
+         * @return last observed lag, or {@link #UNKNOWN_LAG}
+         */
+        public long getLagMs() {
+            return lagMs;
+        }
+
+        /**
+         * Take the replica out of rotation until the next successful lag check.
+         *
+         * @param cause why it failed
+         */
+        void markUnavailable(SQLException cause) {
+            if (available) {
+                log.warn("Replica {} is unavailable: {}", name, cause.getMessage());
+            }
+            available = false;
+        }
+    }
+
+}
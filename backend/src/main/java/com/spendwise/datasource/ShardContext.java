@@ -0,0 +1,73 @@
+package com.spendwise.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard explicitly chosen for the current thread, taking precedence over the
+ * authenticated user's shard. Bound by work that has no principal or acts
+ * before authentication: background jobs iterating the shards, registration
+ * and login. Bindings nest; the previous shard is restored afterwards.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return shard bound to the current thread, or null if none
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a shard to the current thread until {@link #unbind()}, for work
+     * that throws checked exceptions. Does not nest.
+     *
+     * @param shard shard index
+     */
+    public static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run work against the given shard.
+     *
+     * @param shard shard index
+     * @param work  work to run
+     */
+    public static void run(int shard, Runnable work) {
+        call(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run work against the given shard.
+     *
+     * @param shard shard index
+     * @param work  work to run
+     * @return result of the work
+     */
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,393 @@
+package com.spendwise.datasource;
+
+import com.spendwise.entity.User;
+import com.spendwise.resilience.RequestDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Which shard each user lives on, kept in the {@code user_shards} table of
+ * shard 0 and cached briefly per instance. Usernames and emails are unique
+ * across shards through this table. While a user is being moved, lookups of
+ * that user wait for the move to finish, bounded by the request deadline.
+ * <p>
+ * Without sharding there is a single shard 0: lookups answer 0 and
+ * registrations are not recorded, so callers need not check.
+ */
+@Slf4j
+@Component
+public class ShardDirectory {
+
+    private static final long MOVE_POLL_MS = 50;
+
+    private static final String SELECT_PLACEMENT = "SELECT user_id, username, shard, moving FROM user_shards ";
+
+    private final ShardSet shardSet;
+    private final JdbcTemplate jdbcTemplate;
+    private final long cacheMs;
+    private final Map<String, Cached> byUsername = new ConcurrentHashMap<>();
+    private final Map<Long, Cached> byUserId = new ConcurrentHashMap<>();
+
+    /**
+     * @param shardSet shard pools, absent without sharding
+     * @param cacheMs  how long placements are cached, and so how long other
+     *                 instances may take to notice a move
+     */
+    public ShardDirectory(ObjectProvider<ShardSet> shardSet,
+            @Value("${sharding.directory-cache-ms:2000}") long cacheMs) {
+        this.shardSet = shardSet.getIfAvailable();
+        this.jdbcTemplate = this.shardSet != null ? new JdbcTemplate(this.shardSet.getDirectory()) : null;
+        this.cacheMs = cacheMs;
+    }
+
+    public boolean isEnabled() {
+        return shardSet != null;
+    }
+
+    public int getShardCount() {
+        return shardSet != null ? shardSet.size() : 1;
+    }
+
+    public long getCacheMs() {
+        return cacheMs;
+    }
+
+    /**
+     * Run work once per shard with the shard bound, for background jobs
+     * that process all users. A failure on one shard is logged and does not
+     * stop the others.
+     *
+     * @param work work to run
+     */
+    public void forEachShard(Runnable work) {
+        if (shardSet == null) {
+            work.run();
+            return;
+        }
+        for (int shard = 0; shard < shardSet.size(); shard++) {
+            try {
+                ShardContext.run(shard, work);
+            } catch (RuntimeException e) {
+                log.error("Failed on shard {}", shard, e);
+            }
+        }
+    }
+
+    /**
+     * Run work on the shard of the given user, for code that reads the user
+     * before they are authenticated.
+     *
+     * @param username username
+     * @param work     work to run
+     * @return result of the work
+     */
+    public <T> T callAsUser(String username, Supplier<T> work) {
+        if (shardSet == null) {
+            return work.get();
+        }
+        return ShardContext.call(shardOf(username), work);
+    }
+
+    /**
+     * Shard of a user, waiting while the user is being moved. Unknown users
+     * belong to shard 0.
+     *
+     * @param username username
+     * @return shard index
+     */
+    public int shardOf(String username) {
+        if (shardSet == null) {
+            return 0;
+        }
+        Cached cached = byUsername.get(username);
+        Placement placement = cached != null && !cached.isExpired() ? cached.placement : load(username);
+        while (placement != null && placement.moving()) {
+            RequestDeadline.check();
+            try {
+                Thread.sleep(MOVE_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for user " + username + " to move", e);
+            }
+            placement = load(username);
+        }
+        return placement != null ? placement.shard() : 0;
+    }
+
+    /**
+     * Shard of a user by ID, for work keyed by user ID outside a request.
+     * Does not wait for moves; writes racing a move are rejected by the
+     * move's row locks or foreign keys instead.
+     *
+     * @param userId user ID
+     * @return shard index
+     */
+    public int shardOfUserId(Long userId) {
+        if (shardSet == null) {
+            return 0;
+        }
+        Cached cached = byUserId.get(userId);
+        if (cached != null && !cached.isExpired()) {
+            return cached.placement.shard();
+        }
+        List<Placement> found = jdbcTemplate.query(SELECT_PLACEMENT + "WHERE user_id = ?", this::mapPlacement, userId);
+        if (found.isEmpty()) {
+            return 0;
+        }
+        cache(found.get(0));
+        return found.get(0).shard();
+    }
+
+    /**
+     * Current placement of a user, bypassing the cache.
+     *
+     * @param username username
+     * @return placement, or empty if the user is unknown
+     */
+    public Optional<Placement> find(String username) {
+        if (shardSet == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(load(username));
+    }
+
+    /**
+     * Shard for a new user: the one with the fewest users, so added shards
+     * fill up first.
+     *
+     * @return shard index
+     */
+    public int placeNewUser() {
+        if (shardSet == null) {
+            return 0;
+        }
+        Map<Integer, Long> counts = countUsersByShard();
+        int best = 0;
+        for (int shard = 1; shard < shardSet.size(); shard++) {
+            if (counts.get(shard) < counts.get(best)) {
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return shardSet != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_shards WHERE username = ?)", Boolean.class, username));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return shardSet != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_shards WHERE email = ?)", Boolean.class, email));
+    }
+
+    /**
+     * Record a newly saved user. The entry is removed again if the
+     * surrounding transaction on the user's shard rolls back.
+     *
+     * @param user  saved user
+     * @param shard shard the user was saved on
+     */
+    public void register(User user, int shard) {
+        if (shardSet == null) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO user_shards (user_id, username, email, shard) VALUES (?, ?, ?, ?)",
+                user.getId(), user.getUsername(), user.getEmail(), shard);
+        onRollback(() -> jdbcTemplate.update("DELETE FROM user_shards WHERE user_id = ?", user.getId()));
+    }
+
+    /**
+     * Record a changed username or email, restored if the surrounding
+     * transaction rolls back.
+     *
+     * @param userId      user ID
+     * @param oldUsername username before the change
+     * @param oldEmail    email before the change
+     * @param username    new username
+     * @param email       new email
+     */
+    public void rename(Long userId, String oldUsername, String oldEmail, String username, String email) {
+        if (shardSet == null) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE user_shards SET username = ?, email = ? WHERE user_id = ?",
+                username, email, userId);
+        evict(userId, oldUsername);
+        onRollback(() -> {
+            jdbcTemplate.update("UPDATE user_shards SET username = ?, email = ? WHERE user_id = ?",
+                    oldUsername, oldEmail, userId);
+            evict(userId, username);
+        });
+    }
+
+    /**
+     * @return number of users on every shard, including empty ones
+     */
+    public Map<Integer, Long> countUsersByShard() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            counts.put(shard, 0L);
+        }
+        if (shardSet != null) {
+            jdbcTemplate.query("SELECT shard, COUNT(*) FROM user_shards GROUP BY shard",
+                    rs -> {
+                        counts.put(rs.getInt(1), rs.getLong(2));
+                    });
+        }
+        return counts;
+    }
+
+    /**
+     * Flag a user as being moved, so lookups wait from now on, or from
+     * when their cached placement expires on other instances.
+     *
+     * @param userId user ID
+     * @return false if a move of the user is already in progress
+     */
+    public boolean startMove(Long userId) {
+        boolean started = jdbcTemplate.update(
+                "UPDATE user_shards SET moving = TRUE WHERE user_id = ? AND NOT moving", userId) == 1;
+        evict(userId, null);
+        return started;
+    }
+
+    /**
+     * End a move, pointing the user at the shard now holding their data.
+     *
+     * @param userId user ID
+     * @param shard  shard index
+     */
+    public void finishMove(Long userId, int shard) {
+        jdbcTemplate.update("UPDATE user_shards SET shard = ?, moving = FALSE WHERE user_id = ?", shard, userId);
+        evict(userId, null);
+    }
+
+    /**
+     * Create the directory table if missing.
+     */
+    void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS user_shards (
+                    user_id BIGINT PRIMARY KEY,
+                    username VARCHAR(50) NOT NULL UNIQUE,
+                    email VARCHAR(100) NOT NULL UNIQUE,
+                    shard INTEGER NOT NULL,
+                    moving BOOLEAN NOT NULL DEFAULT FALSE
+                )""");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_shards_shard ON user_shards (shard)");
+    }
+
+    /**
+     * Add users found on the given shard that the directory does not list
+     * yet, e.g. from before sharding was enabled. Users already listed keep
+     * their entry.
+     *
+     * @param shard     shard index
+     * @param shardPool the shard's pool
+     * @return number of users added
+     */
+    int backfill(int shard, DataSource shardPool) {
+        List<Object[]> batch = new ArrayList<>();
+        int[] added = new int[1];
+        new JdbcTemplate(shardPool).query("SELECT id, username, email FROM users", rs -> {
+            batch.add(new Object[] { rs.getLong(1), rs.getString(2), rs.getString(3), shard });
+            if (batch.size() == 1000) {
+                added[0] += insertMissing(batch);
+            }
+        });
+        added[0] += insertMissing(batch);
+        return added[0];
+    }
+
+    private int insertMissing(List<Object[]> batch) {
+        int added = 0;
+        if (!batch.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate("INSERT INTO user_shards (user_id, username, email, shard) "
+                    + "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING", batch)) {
+                added += count;
+            }
+            batch.clear();
+        }
+        return added;
+    }
+
+    private Placement load(String username) {
+        List<Placement> found = jdbcTemplate.query(SELECT_PLACEMENT + "WHERE username = ?", this::mapPlacement, username);
+        if (found.isEmpty()) {
+            // Not cached, so a user registered on another instance is found right away
+            return null;
+        }
+        cache(found.get(0));
+        return found.get(0);
+    }
+
+    private Placement mapPlacement(ResultSet rs, int rowNum) throws SQLException {
+        return new Placement(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getBoolean(4));
+    }
+
+    private void cache(Placement placement) {
+        Cached cached = new Cached(placement, System.nanoTime() + cacheMs * 1_000_000L);
+        byUsername.put(placement.username(), cached);
+        byUserId.put(placement.userId(), cached);
+    }
+
+    private void evict(Long userId, String username) {
+        Cached cached = byUserId.remove(userId);
+        if (cached != null) {
+            byUsername.remove(cached.placement.username());
+        }
+        if (username != null) {
+            byUsername.remove(username);
+        }
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Where a user's data lives.
+     *
+     * @param userId   user ID
+     * @param username username
+     * @param shard    shard index
+     * @param moving   whether a move to another shard is in progress
+     */
+    public record Placement(long userId, String username, int shard, boolean moving) {
+    }
+
+    private record Cached(Placement placement, long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+
+}
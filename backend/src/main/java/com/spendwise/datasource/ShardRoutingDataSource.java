@@ -0,0 +1,41 @@
+package com.spendwise.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Picks the shard for each connection: the shard bound in
+ * {@link ShardContext} if any, else the authenticated user's shard from the
+ * {@link ShardDirectory}, else shard 0. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy}, so that a shard bound inside a
+ * transactional method still applies to that transaction's connection.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardDirectory shardDirectory;
+
+    public ShardRoutingDataSource(ShardSet shardSet, ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardSet.size(); shard++) {
+            targets.put(shard, shardSet.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shardSet.getDirectory());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard != null) {
+            return shard;
+        }
+        String username = CurrentUser.name();
+        return username != null ? shardDirectory.shardOf(username) : null;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.spendwise.datasource;
+
+import com.spendwise.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares every shard before the application takes traffic:
+ * <ul>
+ * <li>applies {@code spring.jpa.hibernate.ddl-auto} to shards 1 and up, as
+ * the application's EntityManagerFactory did to shard 0,</li>
+ * <li>switches every id sequence to steps of {@code sharding.max-shards},
+ * shard N issuing IDs equal to N modulo the step and above any ID on any
+ * shard, so IDs are unique across shards and survive moves,</li>
+ * <li>creates the shard directory and lists users it does not know yet.</li>
+ * </ul>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    /**
+     * Tables with a generated id column, its sequence and the sequence's step
+     */
+    private static final String ID_SEQUENCES = """
+            SELECT c.table_name, c.sequence_name, s.increment_by
+            FROM (SELECT table_name, pg_get_serial_sequence(quote_ident(table_name), 'id') AS sequence_name
+                  FROM information_schema.columns
+                  WHERE table_schema = current_schema() AND column_name = 'id') c
+            JOIN pg_sequences s ON quote_ident(s.schemaname) || '.' || quote_ident(s.sequencename) = c.sequence_name""";
+
+    private final ShardSet shardSet;
+    private final ShardDirectory shardDirectory;
+    private final EntityManagerFactoryBuilder entityManagerFactoryBuilder;
+    private final JpaProperties jpaProperties;
+    private final HibernateProperties hibernateProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int shard = 1; shard < shardSet.size(); shard++) {
+            updateSchema(shard);
+        }
+        alignIdSequences();
+        shardDirectory.createTable();
+        for (int shard = 0; shard < shardSet.size(); shard++) {
+            int added = shardDirectory.backfill(shard, shardSet.get(shard));
+            if (added > 0) {
+                log.info("Added {} users of shard {} to the shard directory", added, shard);
+            }
+        }
+        log.info("Sharding across {} databases", shardSet.size());
+    }
+
+    private void updateSchema(int shard) {
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings());
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactoryBuilder
+                .dataSource(shardSet.get(shard))
+                .packages(User.class)
+                .persistenceUnit("shard-" + shard)
+                .properties(properties)
+                .build();
+        factory.afterPropertiesSet();
+        factory.destroy();
+    }
+
+    private void alignIdSequences() {
+        int stride = shardSet.getIdStride();
+        List<List<IdSequence>> sequences = new ArrayList<>();
+        Map<String, Long> maxIds = new HashMap<>();
+        for (int shard = 0; shard < shardSet.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardSet.get(shard));
+            List<IdSequence> shardSequences = jdbcTemplate.query(ID_SEQUENCES,
+                    (rs, rowNum) -> new IdSequence(rs.getString(1), rs.getString(2), rs.getLong(3)));
+            for (IdSequence sequence : shardSequences) {
+                Long maxId = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(id), 0) FROM " + sequence.table(), Long.class);
+                maxIds.merge(sequence.table(), maxId, Math::max);
+            }
+            sequences.add(shardSequences);
+        }
+
+        for (int shard = 0; shard < shardSet.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardSet.get(shard));
+            List<String> aligned = new ArrayList<>();
+            for (IdSequence sequence : sequences.get(shard)) {
+                if (sequence.increment() == stride) {
+                    continue;
+                }
+                long next = maxIds.get(sequence.table()) + 1;
+                long start = next + Math.floorMod(shard - next, stride);
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence.name() + " INCREMENT BY " + stride
+                        + " RESTART WITH " + start);
+                aligned.add(sequence.table());
+            }
+            if (!aligned.isEmpty()) {
+                log.info("Shard {} issues IDs equal to {} modulo {} for {}", shard, shard, stride, aligned);
+            }
+        }
+    }
+
+    private record IdSequence(String table, String name, long increment) {
+    }
+
+}
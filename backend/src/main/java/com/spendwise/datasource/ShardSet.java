@@ -0,0 +1,64 @@
+package com.spendwise.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * Connection pools of all shards, indexed by shard number. Shard 0 is the
+ * {@code spring.datasource} database, which also holds the shard directory.
+ */
+public class ShardSet {
+
+    private final List<HikariDataSource> shards;
+
+    /**
+     * IDs are generated in steps of this size, each shard taking its own
+     * residue, so rows keep their IDs when moved between shards
+     */
+    private final int idStride;
+
+    public ShardSet(List<HikariDataSource> shards, int idStride) {
+        if (shards.size() > idStride) {
+            throw new IllegalArgumentException(
+                    "Configured " + shards.size() + " shards, but sharding.max-shards is " + idStride);
+        }
+        this.shards = List.copyOf(shards);
+        this.idStride = idStride;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public int getIdStride() {
+        return idStride;
+    }
+
+    /**
+     * @param shard shard index
+     * @return the shard's pool
+     */
+    public HikariDataSource get(int shard) {
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + shard + "; shards are 0 to " + (shards.size() - 1));
+        }
+        return shards.get(shard);
+    }
+
+    public List<HikariDataSource> getAll() {
+        return shards;
+    }
+
+    /**
+     * @return pool of the database holding the shard directory
+     */
+    public HikariDataSource getDirectory() {
+        return shards.get(0);
+    }
+
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.spendwise.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User sharding, active when {@code sharding.urls} lists at least one shard
+ * besides {@code spring.datasource}, which is shard 0. Every shard holds the
+ * full schema; each user's rows live on one shard, found through the
+ * {@link ShardDirectory}. Cannot be combined with read replicas.
+ */
+@Configuration
+@ConditionalOnExpression("!'${sharding.urls:}'.isBlank()")
+public class ShardingConfig {
+
+    @Value("${sharding.urls}")
+    private List<String> shardUrls;
+
+    @Value("${sharding.username:${spring.datasource.username}}")
+    private String shardUsername;
+
+    @Value("${sharding.password:${spring.datasource.password}}")
+    private String shardPassword;
+
+    @Value("${sharding.max-shards:64}")
+    private int maxShards;
+
+    @Value("${datasource.replicas.urls:}")
+    private String replicaUrls;
+
+    /**
+     * Pools of all shards, configured by {@code spring.datasource.hikari.*}.
+     *
+     * @param properties    shard 0 settings
+     * @param environment   source of the pool settings
+     * @param meterRegistry registry for pool metrics
+     * @return the pools, closed on shutdown
+     */
+    @Bean
+    public ShardSet shardSet(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        if (!replicaUrls.isBlank()) {
+            throw new IllegalStateException("datasource.replicas.urls cannot be combined with sharding.urls");
+        }
+        Binder binder = Binder.get(environment);
+
+        List<HikariDataSource> shards = new ArrayList<>();
+        HikariDataSource first = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shards.add(first);
+        for (String url : shardUrls) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setJdbcUrl(url.trim());
+            shard.setUsername(shardUsername);
+            shard.setPassword(shardPassword);
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shards.add(shard);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            HikariDataSource shard = shards.get(i);
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("shard-" + i);
+            shard.setMetricRegistry(meterRegistry);
+        }
+        return new ShardSet(shards, maxShards);
+    }
+
+    /**
+     * The application DataSource, routing each connection to a shard.
+     *
+     * @param shardSet       shard pools
+     * @param shardDirectory user placements
+     * @return routing DataSource
+     */
+    @Bean
+    public DataSource dataSource(ShardSet shardSet, ShardDirectory shardDirectory) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardSet, shardDirectory));
+    }
+
+    /**
+     * Have Hibernate take a connection per transaction instead of holding one
+     * for the whole open-in-view session, so a shard bound part-way through a
+     * request, as registration does, applies to the transactions that follow.
+     *
+     * @return Hibernate connection handling customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandling() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardSet shardSet, ShardDirectory shardDirectory,
+            EntityManagerFactoryBuilder entityManagerFactoryBuilder, JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties) {
+        return new ShardSchemaInitializer(shardSet, shardDirectory, entityManagerFactoryBuilder,
+                jpaProperties, hibernateProperties);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO for a user's AI token usage for the current day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIUsageResponseDTO {
+
+    /**
+     * Day the usage applies to
+     */
+    private LocalDate date;
+
+    /**
+     * Prompt tokens consumed today
+     */
+    private Long promptTokens;
+
+    /**
+     * Completion tokens consumed today
+     */
+    private Long completionTokens;
+
+    /**
+     * Prompt plus completion tokens consumed today
+     */
+    private Long totalTokens;
+
+    /**
+     * Daily token quota (null if unlimited)
+     */
+    private Long dailyQuota;
+
+    /**
+     * Tokens left before the quota is reached (null if unlimited)
+     */
+    private Long remainingTokens;
+
+    /**
+     * Total tokens per AI endpoint
+     */
+    private Map<String, Long> tokensByEndpoint;
+
+}
@@ -35,4 +35,16 @@ public class BudgetRequestDTO {
     @Min(value = 2000, message = "Year must be 2000 or later")
     private Integer year;
 
+    /**
+     * Expense category for a category budget, omit for the overall monthly budget
+     */
+    @Size(max = 50, message = "Category must not exceed 50 characters")
+    private String category;
+
+    /**
+     * Carry the previous month's closing balance into this month (overall budgets only),
+     * omit to keep the current setting
+     */
+    private Boolean rollover;
+
 }
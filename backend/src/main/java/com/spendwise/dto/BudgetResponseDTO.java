@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for budget responses with analytics.
@@ -22,6 +23,11 @@ public class BudgetResponseDTO {
      */
     private Long id;
 
+    /**
+     * Expense category (null for the overall monthly budget)
+     */
+    private String category;
+
     /**
      * Monthly budget limit
      */
@@ -37,6 +43,22 @@ public class BudgetResponseDTO {
      */
     private Integer year;
 
+    /**
+     * Whether the previous month's closing balance rolls into this month
+     */
+    private Boolean rolloverEnabled;
+
+    /**
+     * Amount carried in from the previous month, negative for carried overspend
+     */
+    private Double carryIn;
+
+    /**
+     * Amount available this month
+     * Calculated as: monthlyLimit + carryIn
+     */
+    private Double availableAmount;
+
     /**
      * Total amount spent in this month
      * Calculated from expense records
@@ -45,19 +67,19 @@ public class BudgetResponseDTO {
 
     /**
      * Remaining budget amount
-     * Calculated as: monthlyLimit - totalSpent
+     * Calculated as: availableAmount - totalSpent
      */
     private Double remainingAmount;
 
     /**
      * Budget usage percentage
-     * Calculated as: (totalSpent / monthlyLimit) * 100
+     * Calculated as: (totalSpent / availableAmount) * 100
      */
     private Double usagePercentage;
 
     /**
      * Whether the budget has been exceeded
-     * True if totalSpent > monthlyLimit
+     * True if totalSpent > availableAmount
      */
     private Boolean exceeded;
 
@@ -71,4 +93,9 @@ public class BudgetResponseDTO {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * Category budgets of the same month (only on the overall month view)
+     */
+    private List<BudgetResponseDTO> categoryBudgets;
+
 }
@@ -0,0 +1,47 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the spending forecast of one category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryForecastDTO {
+
+    /**
+     * Expense category
+     */
+    private String category;
+
+    /**
+     * Amount spent in this category so far this month
+     */
+    private Double spentSoFar;
+
+    /**
+     * Projected total for the current month
+     */
+    private Double projectedMonthEnd;
+
+    /**
+     * Projected total for next month
+     */
+    private Double projectedNextMonth;
+
+    /**
+     * Recurring charges of this category still due this month
+     */
+    private Double upcomingRecurring;
+
+    /**
+     * Seasonal multiplier applied to next month (1.0 when there is no seasonal history)
+     */
+    private Double seasonalFactor;
+
+}
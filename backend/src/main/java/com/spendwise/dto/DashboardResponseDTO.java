@@ -28,7 +28,8 @@ public class DashboardResponseDTO {
     private Map<String, Double> categoryBreakdown;
 
     /**
-     * Monthly budget limit (null if not set)
+     * Amount available this month: the budget limit plus any carry-in
+     * (null if not set)
      */
     private Double monthlyBudget;
 
@@ -44,4 +45,9 @@ public class DashboardResponseDTO {
      */
     private Integer financialHealthScore;
 
+    /**
+     * Month-end and next-month spending forecast
+     */
+    private SpendingForecastDTO forecast;
+
 }
@@ -0,0 +1,50 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO describing a Java Flight Recorder recording.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightRecordingDTO {
+
+    /**
+     * Recording id, used to stop, download and delete it
+     */
+    private Long id;
+
+    /**
+     * "continuous" for the always-on recording, otherwise "spendwise-" and
+     * the JFR settings it was started with (default or profile)
+     */
+    private String name;
+
+    /**
+     * NEW, DELAYED, RUNNING, STOPPED or CLOSED
+     */
+    private String state;
+
+    /**
+     * When recording started
+     */
+    private Instant startTime;
+
+    /**
+     * When recording stopped, or is due to stop for time-boxed recordings
+     */
+    private Instant stopTime;
+
+    /**
+     * Bytes recorded so far
+     */
+    private Long size;
+
+}
@@ -0,0 +1,26 @@
+package com.spendwise.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalContributionDTO {
+    private Long id;
+
+    @NotNull(message = "Amount is required")
+    private Double amount;
+
+    @Size(max = 255, message = "Note must not exceed 255 characters")
+    private String note;
+
+    private LocalDateTime createdAt;
+}
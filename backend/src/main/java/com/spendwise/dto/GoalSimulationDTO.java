@@ -0,0 +1,70 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the Monte Carlo feasibility estimate of a savings goal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalSimulationDTO {
+
+    /**
+     * Goal ID
+     */
+    private Long goalId;
+
+    /**
+     * Amount saved today
+     */
+    private Double currentAmount;
+
+    /**
+     * Goal target amount
+     */
+    private Double targetAmount;
+
+    /**
+     * Goal deadline
+     */
+    private LocalDate deadline;
+
+    /**
+     * Months simulated until the deadline
+     */
+    private Integer months;
+
+    /**
+     * Completed months of contribution history the simulation resampled
+     */
+    private Integer historyMonths;
+
+    /**
+     * Number of simulated trajectories
+     */
+    private Integer trajectories;
+
+    /**
+     * Whether the latency budget cut the run short of the requested trajectories
+     */
+    private Boolean truncated;
+
+    /**
+     * Share of trajectories that reach the target by the deadline (0-1)
+     */
+    private Double probability;
+
+    /**
+     * Balance percentiles at the end of each simulated month
+     */
+    private List<SimulationBandDTO> bands;
+
+}
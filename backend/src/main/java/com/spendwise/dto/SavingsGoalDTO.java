@@ -24,4 +24,19 @@ public class SavingsGoalDTO {
 
     private LocalDate deadline;
     private String icon;
+
+    /**
+     * Version the client last saw; a stale version rejects the update with 409
+     */
+    private Long version;
+
+    /**
+     * Date the target is reached at the current contribution velocity (read-only)
+     */
+    private LocalDate projectedCompletionDate;
+
+    /**
+     * Whether the projected completion is on or before the deadline (read-only, null without either)
+     */
+    private Boolean onTrack;
 }
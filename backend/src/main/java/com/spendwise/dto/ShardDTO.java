@@ -0,0 +1,27 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing one database shard.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardDTO {
+
+    /**
+     * Shard index; 0 is the spring.datasource database
+     */
+    private Integer shard;
+
+    /**
+     * Number of users living on the shard
+     */
+    private Long users;
+
+}
@@ -0,0 +1,38 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO describing a completed move of a user to another shard.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardMoveDTO {
+
+    private String username;
+
+    private Long userId;
+
+    private Integer fromShard;
+
+    private Integer toShard;
+
+    /**
+     * Rows copied per table
+     */
+    private Map<String, Integer> rows;
+
+    /**
+     * Time the user's requests waited or could have waited, including the
+     * pause for other instances to notice the move
+     */
+    private Long durationMs;
+
+}
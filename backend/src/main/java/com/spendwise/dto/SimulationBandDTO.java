@@ -0,0 +1,39 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * DTO for the simulated balance distribution at the end of one month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationBandDTO {
+
+    /**
+     * Month the balances refer to
+     */
+    private YearMonth month;
+
+    /**
+     * Balance exceeded by 90% of trajectories
+     */
+    private Double p10;
+
+    /**
+     * Median balance
+     */
+    private Double p50;
+
+    /**
+     * Balance exceeded by only 10% of trajectories
+     */
+    private Double p90;
+
+}
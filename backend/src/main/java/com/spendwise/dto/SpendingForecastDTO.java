@@ -0,0 +1,71 @@
+package com.spendwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the month-end and next-month spending forecast.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpendingForecastDTO {
+
+    /**
+     * Date the forecast was computed for
+     */
+    private LocalDate asOf;
+
+    /**
+     * Amount spent so far this month
+     */
+    private Double spentSoFar;
+
+    /**
+     * Projected total for the current month
+     * Calculated as: spentSoFar + projected variable spending + upcoming recurring charges
+     */
+    private Double projectedMonthEnd;
+
+    /**
+     * Projected total for next month
+     */
+    private Double projectedNextMonth;
+
+    /**
+     * Recurring charges still due this month
+     */
+    private Double upcomingRecurring;
+
+    /**
+     * Recurring charges due next month
+     */
+    private Double nextMonthRecurring;
+
+    /**
+     * Amount available in this month's budget (null if no budget)
+     */
+    private Double budgetAvailable;
+
+    /**
+     * Whether the projected month-end total exceeds the budget (null if no budget)
+     */
+    private Boolean projectedOverBudget;
+
+    /**
+     * Number of completed months of history the forecast is based on
+     */
+    private Integer historyMonths;
+
+    /**
+     * Per-category forecasts, highest projected month-end first
+     */
+    private List<CategoryForecastDTO> categories;
+
+}
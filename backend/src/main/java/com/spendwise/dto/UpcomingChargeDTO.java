@@ -0,0 +1,50 @@
+package com.spendwise.dto;
+
+import com.spendwise.entity.RecurringExpense;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for one upcoming occurrence of a recurring expense.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpcomingChargeDTO {
+
+    /**
+     * ID of the recurring expense this occurrence belongs to
+     */
+    private Long recurringExpenseId;
+
+    /**
+     * Description of the recurring expense
+     */
+    private String description;
+
+    /**
+     * Expense category
+     */
+    private String category;
+
+    /**
+     * Amount charged on this occurrence
+     */
+    private Double amount;
+
+    /**
+     * Schedule of the recurring expense
+     */
+    private RecurringExpense.Frequency frequency;
+
+    /**
+     * Date this occurrence is due
+     */
+    private LocalDate dueDate;
+
+}
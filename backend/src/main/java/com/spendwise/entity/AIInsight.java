@@ -0,0 +1,70 @@
+package com.spendwise.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stored AI analysis for a user's month.
+ * Stamped with the user's data version at computation time so it is only
+ * served while the underlying expenses, budgets and subscriptions are unchanged.
+ */
+@Entity
+@Table(name = "ai_insights", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIInsight extends BaseEntity {
+
+    /**
+     * User the analysis belongs to
+     */
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * Month (1-12) the analysis covers
+     */
+    @Column(name = "insight_month", nullable = false)
+    private Integer month;
+
+    /**
+     * Year the analysis covers
+     */
+    @Column(name = "insight_year", nullable = false)
+    private Integer year;
+
+    /**
+     * User's data version the analysis was computed from
+     */
+    @Column(name = "data_version", nullable = false)
+    private Long dataVersion;
+
+    /**
+     * When the analysis was computed
+     */
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> overspendingCategories;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> recommendations;
+
+    @Column(columnDefinition = "TEXT")
+    private String nextMonthPrediction;
+
+}
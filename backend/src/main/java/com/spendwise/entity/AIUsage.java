@@ -0,0 +1,60 @@
+package com.spendwise.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Daily OpenAI token usage for a user on a single AI endpoint.
+ * Rows are accumulated in memory and merged in batches by AIUsageService.
+ */
+@Entity
+@Table(name = "ai_usage", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "endpoint", "usage_date" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIUsage extends BaseEntity {
+
+    /**
+     * User who consumed the tokens
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * AI endpoint that issued the completion (e.g. analyze, chat)
+     */
+    @Column(nullable = false, length = 30)
+    private String endpoint;
+
+    /**
+     * Day the usage was recorded on
+     */
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    /**
+     * Prompt tokens reported by OpenAI
+     */
+    @Column(name = "prompt_tokens", nullable = false)
+    private Long promptTokens;
+
+    /**
+     * Completion tokens reported by OpenAI
+     */
+    @Column(name = "completion_tokens", nullable = false)
+    private Long completionTokens;
+
+    /**
+     * Number of completions issued
+     */
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+}
@@ -17,7 +17,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Budget extends BaseEntity {
+public class Budget extends BaseEntity implements SpendingLimit {
 
     /**
      * Monthly budget limit amount
@@ -52,4 +52,46 @@ public class Budget extends BaseEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * Running total spent in this month
+     * Maintained incrementally on expense create, update and delete;
+     * null until first initialized for budgets created before tracking existed
+     */
+    @Column(name = "spent_amount")
+    private Double spentAmount;
+
+    /**
+     * Highest alert threshold (percent of limit) already notified this month
+     */
+    @Column(name = "alerted_threshold", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer alertedThreshold = 0;
+
+    /**
+     * Whether this month starts with the previous month's closing balance
+     */
+    @Column(name = "rollover_enabled", nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean rolloverEnabled = false;
+
+    /**
+     * Amount carried in from the previous month, negative for carried overspend
+     * Stored and maintained incrementally by the rollover service
+     */
+    @Column(name = "carry_in", nullable = false, columnDefinition = "double precision default 0")
+    @Builder.Default
+    private Double carryIn = 0.0;
+
+    /**
+     * Optimistic lock version, incremented on every update
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @Override
+    public double getAvailableAmount() {
+        return monthlyLimit + carryIn;
+    }
+
 }
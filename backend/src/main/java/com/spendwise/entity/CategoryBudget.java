@@ -0,0 +1,75 @@
+package com.spendwise.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/**
+ * CategoryBudget entity representing a monthly limit for a single expense category.
+ * Category budgets exist alongside the overall {@link Budget} of the month.
+ */
+@Entity
+@Table(name = "category_budgets", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "budget_month", "budget_year", "category" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryBudget extends BaseEntity implements SpendingLimit {
+
+    /**
+     * Expense category the limit applies to
+     */
+    @NotBlank(message = "Category is required")
+    @Size(max = 50, message = "Category must not exceed 50 characters")
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    /**
+     * Monthly limit amount for the category
+     */
+    @NotNull(message = "Monthly limit is required")
+    @Positive(message = "Monthly limit must be positive")
+    @Column(nullable = false)
+    private Double monthlyLimit;
+
+    /**
+     * Month (1-12)
+     */
+    @NotNull(message = "Month is required")
+    @Min(value = 1, message = "Month must be between 1 and 12")
+    @Max(value = 12, message = "Month must be between 1 and 12")
+    @Column(name = "budget_month", nullable = false)
+    private Integer month;
+
+    /**
+     * Year
+     */
+    @NotNull(message = "Year is required")
+    @Min(value = 2000, message = "Year must be 2000 or later")
+    @Column(name = "budget_year", nullable = false)
+    private Integer year;
+
+    /**
+     * User who owns this budget
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * Running total spent in this category and month
+     */
+    @Column(name = "spent_amount")
+    private Double spentAmount;
+
+    /**
+     * Highest alert threshold (percent of limit) already notified this month
+     */
+    @Column(name = "alerted_threshold", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer alertedThreshold = 0;
+
+}
@@ -11,7 +11,9 @@ import java.time.LocalDate;
  * Each expense is linked to a specific user and tracks spending details.
  */
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_user_date", columnList = "user_id, date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,54 @@
+package com.spendwise.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+/**
+ * Ledger entry of money added to or withdrawn from a savings goal.
+ * A goal created with a balance gets an opening entry for it, after which
+ * every change is recorded. Goals that predate the ledger have no entries
+ * for the balance they already held, so their entries only cover later changes.
+ */
+@Entity
+@Table(name = "goal_contributions", indexes = {
+        @Index(name = "idx_goal_contributions_goal_created", columnList = "goal_id, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalContribution extends BaseEntity {
+
+    /**
+     * Goal the money was moved into or out of
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "goal_id", nullable = false)
+    private SavingsGoal goal;
+
+    /**
+     * Amount added, negative for a withdrawal
+     */
+    @NotNull(message = "Amount is required")
+    @Column(nullable = false)
+    private Double amount;
+
+    /**
+     * Optional note, e.g. "Opening balance" or "Bonus"
+     */
+    @Size(max = 255, message = "Note must not exceed 255 characters")
+    @Column(length = 255)
+    private String note;
+
+    /**
+     * Whether this entry is the amount the goal was created with rather than a
+     * contribution over time
+     */
+    @Column(name = "opening_balance", nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean openingBalance = false;
+
+}
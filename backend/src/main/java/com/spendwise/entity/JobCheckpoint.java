@@ -0,0 +1,47 @@
+package com.spendwise.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Progress marker of a chunked batch job.
+ * Lets an interrupted run resume after the last completed chunk.
+ */
+@Entity
+@Table(name = "job_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "job_name" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobCheckpoint extends BaseEntity {
+
+    /**
+     * Unique name of the job
+     */
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    /**
+     * Day of the run the checkpoint belongs to
+     */
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    /**
+     * Highest ID processed so far in this run
+     */
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId;
+
+    /**
+     * Whether the run finished
+     */
+    @Column(nullable = false)
+    private Boolean completed;
+
+}
@@ -7,9 +7,13 @@ import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "recurring_expenses")
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_active_next_due", columnList = "active, next_due_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -49,6 +53,54 @@ public class RecurringExpense extends BaseEntity {
     private Boolean active = true;
 
     public enum Frequency {
-        WEEKLY, MONTHLY, YEARLY
+        WEEKLY(52.0 / 12), MONTHLY(1.0), YEARLY(1.0 / 12);
+
+        private final double occurrencesPerMonth;
+
+        Frequency(double occurrencesPerMonth) {
+            this.occurrencesPerMonth = occurrencesPerMonth;
+        }
+
+        /**
+         * Average number of charges per month, used to normalize amounts.
+         */
+        public double getOccurrencesPerMonth() {
+            return occurrencesPerMonth;
+        }
+
+        /**
+         * Due date following {@code due}. Monthly and yearly schedules keep the
+         * day of month of {@code anchor}, clamped to the end of shorter months.
+         */
+        public LocalDate next(LocalDate due, LocalDate anchor) {
+            YearMonth month = switch (this) {
+                case WEEKLY -> null;
+                case MONTHLY -> YearMonth.from(due).plusMonths(1);
+                case YEARLY -> YearMonth.of(due.getYear() + 1, anchor.getMonth());
+            };
+            if (month == null) {
+                return due.plusWeeks(1);
+            }
+            return month.atDay(Math.min(anchor.getDayOfMonth(), month.lengthOfMonth()));
+        }
+
+        /**
+         * First due date of the schedule starting at {@code anchor} that falls on or
+         * after {@code date}, computed directly rather than by stepping from the anchor.
+         */
+        public LocalDate firstOnOrAfter(LocalDate date, LocalDate anchor) {
+            if (!date.isAfter(anchor)) {
+                return anchor;
+            }
+            if (this == WEEKLY) {
+                long weeks = (ChronoUnit.DAYS.between(anchor, date) + 6) / 7;
+                return anchor.plusWeeks(weeks);
+            }
+            YearMonth month = this == MONTHLY
+                    ? YearMonth.from(date)
+                    : YearMonth.of(date.getYear(), anchor.getMonth());
+            LocalDate candidate = month.atDay(Math.min(anchor.getDayOfMonth(), month.lengthOfMonth()));
+            return candidate.isBefore(date) ? next(candidate, anchor) : candidate;
+        }
     }
 }
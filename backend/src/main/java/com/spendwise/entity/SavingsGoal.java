@@ -34,6 +34,21 @@ public class SavingsGoal extends BaseEntity {
 
     private String icon;
 
+    /**
+     * Sum of contributions made after the goal was created, excluding the
+     * opening balance; drives the contribution velocity
+     */
+    @Column(name = "contributed_amount", nullable = false, columnDefinition = "double precision default 0")
+    @Builder.Default
+    private Double contributedAmount = 0.0;
+
+    /**
+     * Optimistic lock version, also bumped by atomic contribution updates
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -0,0 +1,58 @@
+package com.spendwise.entity;
+
+/**
+ * Common view of monthly budgets whose spent total is maintained incrementally.
+ * Implemented by the overall {@link Budget} and by {@link CategoryBudget}.
+ */
+public interface SpendingLimit {
+
+    Long getId();
+
+    Double getMonthlyLimit();
+
+    Double getSpentAmount();
+
+    void setSpentAmount(Double spentAmount);
+
+    Integer getAlertedThreshold();
+
+    void setAlertedThreshold(Integer alertedThreshold);
+
+    /**
+     * What may be spent this month: the limit, plus any carry-in for budgets
+     * that roll over. Usage, alerts and remaining amounts are all measured
+     * against this.
+     *
+     * @return available amount, negative when more overspend was carried in than the limit
+     */
+    default double getAvailableAmount() {
+        return getMonthlyLimit();
+    }
+
+    /**
+     * Spent amount as a percentage of the available amount.
+     *
+     * @param spent amount spent
+     * @return usage percentage
+     */
+    default double usagePercentage(double spent) {
+        return usagePercentage(spent, getAvailableAmount());
+    }
+
+    /**
+     * Spent amount as a percentage of an available amount. With nothing
+     * available, any spending counts as 100%, i.e. exceeded, rather than
+     * dividing by zero.
+     *
+     * @param spent     amount spent
+     * @param available amount available
+     * @return usage percentage
+     */
+    static double usagePercentage(double spent, double available) {
+        if (available > 0) {
+            return spent / available * 100.0;
+        }
+        return spent > 0 ? 100.0 : 0.0;
+    }
+
+}
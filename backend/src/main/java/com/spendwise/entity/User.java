@@ -68,4 +68,13 @@ public class User extends BaseEntity {
     @Builder.Default
     private Boolean enabled = true;
 
+    /**
+     * Version of the user's financial data.
+     * Incremented on every expense, budget or subscription change so derived
+     * results (e.g. precomputed AI insights) can detect staleness.
+     */
+    @Column(name = "data_version", nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long dataVersion = 0L;
+
 }
@@ -0,0 +1,18 @@
+package com.spendwise.exception;
+
+/**
+ * Exception thrown when a request is invalid in a way the client can correct.
+ * Its message is returned to the client.
+ */
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new BadRequestException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.spendwise.exception;
+
+/**
+ * Exception thrown when a request's deadline passes before its work is done.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new DeadlineExceededException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+}
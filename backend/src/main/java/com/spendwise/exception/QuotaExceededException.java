@@ -0,0 +1,17 @@
+package com.spendwise.exception;
+
+/**
+ * Exception thrown when a user has exhausted a usage quota.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new QuotaExceededException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+
+}
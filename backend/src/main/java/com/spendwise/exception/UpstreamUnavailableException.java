@@ -0,0 +1,18 @@
+package com.spendwise.exception;
+
+/**
+ * Exception thrown when an upstream service is not called because its
+ * circuit breaker is open.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new UpstreamUnavailableException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+}
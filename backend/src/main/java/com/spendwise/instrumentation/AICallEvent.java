@@ -0,0 +1,35 @@
+package com.spendwise.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one OpenAI chat completion call, its latency being the
+ * event duration.
+ */
+@Name("spendwise.AICall")
+@Label("AI Call")
+@Category("SpendWise")
+@Description("OpenAI chat completion request")
+@StackTrace(false)
+public class AICallEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Prompt Tokens")
+    public long promptTokens;
+
+    @Label("Completion Tokens")
+    public long completionTokens;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+}
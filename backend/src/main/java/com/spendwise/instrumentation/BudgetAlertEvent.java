@@ -0,0 +1,35 @@
+package com.spendwise.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a budget crossing an alert threshold.
+ */
+@Name("spendwise.BudgetAlert")
+@Label("Budget Alert")
+@Category("SpendWise")
+@Description("Budget threshold crossed and alert email queued")
+@StackTrace(false)
+public class BudgetAlertEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Budget")
+    public String budget;
+
+    @Label("Threshold Percent")
+    public int threshold;
+
+    @Label("Spent Amount")
+    public double spentAmount;
+
+    @Label("Available Amount")
+    @Description("Monthly limit plus carry-in")
+    public double availableAmount;
+
+}
@@ -0,0 +1,68 @@
+package com.spendwise.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one dashboard computation, with the statements and rows it
+ * took as counted in {@link RequestMetrics}.
+ */
+@Name("spendwise.DashboardComputed")
+@Label("Dashboard Computed")
+@Category("SpendWise")
+@Description("Dashboard aggregates and forecast computed for a user")
+@StackTrace(false)
+public class DashboardComputedEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Categories")
+    public int categories;
+
+    @Label("SQL Statements")
+    public int sqlCount;
+
+    @Label("Rows Read")
+    public long rowCount;
+
+    private transient RequestMetrics metrics;
+    private transient int sqlBefore;
+    private transient long rowsBefore;
+
+    /**
+     * Start timing and note the request's statement and row counts so far.
+     */
+    public void start() {
+        begin();
+        metrics = RequestMetrics.current();
+        if (metrics != null) {
+            sqlBefore = metrics.getSqlCount();
+            rowsBefore = metrics.getRowCount();
+        }
+    }
+
+    /**
+     * Stop timing and commit with the work done since {@link #start()}.
+     *
+     * @param userId     user the dashboard was computed for
+     * @param categories categories with spending this month
+     */
+    public void finish(long userId, int categories) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.userId = userId;
+        this.categories = categories;
+        if (metrics != null) {
+            sqlCount = metrics.getSqlCount() - sqlBefore;
+            rowCount = metrics.getRowCount() - rowsBefore;
+        }
+        commit();
+    }
+
+}
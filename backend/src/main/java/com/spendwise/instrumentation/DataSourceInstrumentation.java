@@ -0,0 +1,86 @@
+package com.spendwise.instrumentation;
+
+import com.spendwise.resilience.DeadlineQueryListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps the application DataSource so every executed statement, from JPA and
+ * JdbcTemplate alike, is counted and timed, and every result set row read is
+ * counted, against the current request's {@link RequestMetrics}. Statements
+ * outside a request pass straight through. The same proxy applies the
+ * request deadline as a statement timeout.
+ */
+@Component
+public class DataSourceInstrumentation implements BeanPostProcessor {
+
+    private static final String START_NANOS = "startNanos";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new DeadlineQueryListener())
+                    .listener(new RequestQueryListener())
+                    .proxyResultSet()
+                    .methodListener(new RowCountListener())
+                    .build();
+        }
+        return bean;
+    }
+
+    private static final class RequestQueryListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (RequestMetrics.current() != null) {
+                execInfo.addCustomValue(START_NANOS, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            RequestMetrics metrics = RequestMetrics.current();
+            Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+            if (metrics == null || startNanos == null) {
+                return;
+            }
+            String sql = queryInfoList.size() == 1
+                    ? queryInfoList.get(0).getQuery()
+                    : queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            metrics.recordQuery(sql, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static final class RowCountListener implements MethodExecutionListener {
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            RequestMetrics metrics = RequestMetrics.current();
+            if (metrics != null
+                    && executionContext.getTarget() instanceof ResultSet
+                    && Boolean.TRUE.equals(executionContext.getResult())
+                    && "next".equals(executionContext.getMethod().getName())) {
+                metrics.recordRow();
+            }
+        }
+    }
+
+}
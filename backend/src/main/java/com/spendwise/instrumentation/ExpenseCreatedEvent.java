@@ -0,0 +1,29 @@
+package com.spendwise.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for an expense written through the API, timed over the insert
+ * and the budget total update.
+ */
+@Name("spendwise.ExpenseCreated")
+@Label("Expense Created")
+@Category("SpendWise")
+@Description("Expense inserted and budget running totals updated")
+@StackTrace(false)
+public class ExpenseCreatedEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Category")
+    public String category;
+
+    @Label("Amount")
+    public double amount;
+
+}
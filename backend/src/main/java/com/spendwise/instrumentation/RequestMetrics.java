@@ -0,0 +1,116 @@
+package com.spendwise.instrumentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Work done on behalf of the current HTTP request: SQL statements, rows read
+ * and JDBC time, upstream HTTP calls and their time. Bound to the request
+ * thread by {@link RequestTimingFilter}, or by the query-count tests;
+ * recording is a no-op on threads without bound metrics, such as schedulers.
+ */
+public final class RequestMetrics {
+
+    /**
+     * Statements kept for the slow request log; later ones are only counted
+     */
+    static final int MAX_RECORDED_STATEMENTS = 200;
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final List<String> statements = new ArrayList<>();
+    private int sqlCount;
+    private long sqlNanos;
+    private long rowCount;
+    private int upstreamCount;
+    private volatile long upstreamNanos;
+
+    RequestMetrics() {
+    }
+
+    /**
+     * Metrics of the request bound to this thread.
+     *
+     * @return current metrics, null outside a request
+     */
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind fresh metrics to this thread.
+     *
+     * @return the bound metrics
+     */
+    static RequestMetrics bind() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Record one executed SQL statement.
+     *
+     * @param sql          statement text
+     * @param elapsedNanos execution time
+     */
+    public void recordQuery(String sql, long elapsedNanos) {
+        sqlCount++;
+        sqlNanos += elapsedNanos;
+        if (statements.size() < MAX_RECORDED_STATEMENTS) {
+            statements.add(sql);
+        }
+    }
+
+    /**
+     * Record one result set row read.
+     */
+    public void recordRow() {
+        rowCount++;
+    }
+
+    /**
+     * Record one completed upstream HTTP call. May be called from an I/O thread.
+     *
+     * @param elapsedNanos call duration
+     */
+    public synchronized void recordUpstream(long elapsedNanos) {
+        upstreamCount++;
+        upstreamNanos += elapsedNanos;
+    }
+
+    public int getSqlCount() {
+        return sqlCount;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public synchronized int getUpstreamCount() {
+        return upstreamCount;
+    }
+
+    public long getUpstreamNanos() {
+        return upstreamNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.spendwise.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Outermost filter that binds {@link RequestMetrics} to each request.
+ * Reports SQL count and time, upstream count and time and handler time as a
+ * {@code Server-Timing} header, written just before the response body, so any
+ * endpoint can be profiled from browser devtools. Each request is logged with
+ * the same figures as key=value fields at DEBUG; requests over the time or
+ * statement threshold are logged at WARN with every statement they ran.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    @Value("${request.timing.header-enabled:true}")
+    private boolean headerEnabled;
+
+    @Value("${request.timing.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Value("${request.timing.slow-query-count:50}")
+    private int slowQueryCount;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestMetrics metrics = RequestMetrics.bind();
+        TimingResponseWrapper wrapper = headerEnabled ? new TimingResponseWrapper(response, metrics) : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            if (wrapper != null) {
+                // Responses without a body never asked for the output stream
+                wrapper.writeServerTiming();
+            }
+            RequestMetrics.unbind();
+            log(request, response, metrics);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, RequestMetrics metrics) {
+        long totalMs = metrics.getElapsedNanos() / 1_000_000;
+        boolean slow = totalMs >= slowThresholdMs || metrics.getSqlCount() >= slowQueryCount;
+        if (!slow && !log.isDebugEnabled()) {
+            return;
+        }
+
+        String fields = String.format(Locale.ROOT,
+                "method=%s uri=%s status=%d totalMs=%d sqlCount=%d sqlRows=%d sqlMs=%.1f upstreamCount=%d upstreamMs=%.1f",
+                request.getMethod(), request.getRequestURI(), response.getStatus(), totalMs,
+                metrics.getSqlCount(), metrics.getRowCount(), millis(metrics.getSqlNanos()),
+                metrics.getUpstreamCount(), millis(metrics.getUpstreamNanos()));
+        if (!slow) {
+            log.debug("request {}", fields);
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("slow request ").append(fields);
+        int index = 0;
+        for (String sql : metrics.getStatements()) {
+            message.append("\n  [").append(++index).append("] ").append(sql);
+        }
+        if (metrics.getSqlCount() > index) {
+            message.append("\n  ... ").append(metrics.getSqlCount() - index).append(" more statements");
+        }
+        log.warn(message.toString());
+    }
+
+    private static String serverTiming(RequestMetrics metrics) {
+        return String.format(Locale.ROOT,
+                "db;dur=%.1f;desc=\"%d queries, %d rows\", upstream;dur=%.1f;desc=\"%d calls\", app;dur=%.1f",
+                millis(metrics.getSqlNanos()), metrics.getSqlCount(), metrics.getRowCount(),
+                millis(metrics.getUpstreamNanos()), metrics.getUpstreamCount(),
+                millis(metrics.getElapsedNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Sets the Server-Timing header at the last moment headers can still be
+     * changed: when the body is first written or the response is committed.
+     */
+    private static final class TimingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final RequestMetrics metrics;
+        private boolean written;
+
+        private TimingResponseWrapper(HttpServletResponse response, RequestMetrics metrics) {
+            super(response);
+            this.metrics = metrics;
+        }
+
+        private void writeServerTiming() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader("Server-Timing", serverTiming(metrics));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+
+}
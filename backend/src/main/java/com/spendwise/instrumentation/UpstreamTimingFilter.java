@@ -0,0 +1,42 @@
+package com.spendwise.instrumentation;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient filter that adds each upstream call, up to the end of its response
+ * body, to the {@link RequestMetrics} of the request that issued it.
+ * The metrics are captured on subscription, which happens on the request
+ * thread for blocking callers; completion is recorded on the I/O thread.
+ */
+public class UpstreamTimingFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            RequestMetrics metrics = RequestMetrics.current();
+            if (metrics == null) {
+                return next.exchange(request);
+            }
+            long startNanos = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Runnable record = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    metrics.recordUpstream(System.nanoTime() - startNanos);
+                }
+            };
+            return next.exchange(request)
+                    .doOnError(e -> record.run())
+                    .doOnCancel(record)
+                    .map(response -> response.mutate()
+                            .body(body -> body.doFinally(signal -> record.run()))
+                            .build());
+        });
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.AIInsight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for AIInsight entity operations.
+ */
+@Repository
+public interface AIInsightRepository extends JpaRepository<AIInsight, Long> {
+
+    /**
+     * Find the stored analysis of a user.
+     *
+     * @param userId the user's ID
+     * @return optional containing the analysis if present
+     */
+    Optional<AIInsight> findByUserId(Long userId);
+
+    /**
+     * Insert or replace the stored analysis of a user in a single statement,
+     * so concurrent computations for the same user never collide.
+     *
+     * @param userId                 the user's ID
+     * @param month                  the month (1-12) the analysis covers
+     * @param year                   the year the analysis covers
+     * @param dataVersion            the data version the analysis was computed from
+     * @param summary                the summary
+     * @param overspendingCategories the overspending categories as a JSON array
+     * @param recommendations        the recommendations as a JSON array
+     * @param nextMonthPrediction    the next month prediction
+     * @param now                    timestamp recorded as computation and update time
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO ai_insights (user_id, insight_month, insight_year, data_version, computed_at, summary,
+                                     overspending_categories, recommendations, next_month_prediction,
+                                     created_at, updated_at)
+            VALUES (:userId, :month, :year, :dataVersion, :now, :summary,
+                    CAST(:overspendingCategories AS jsonb), CAST(:recommendations AS jsonb),
+                    :nextMonthPrediction, :now, :now)
+            ON CONFLICT (user_id) DO UPDATE SET
+                insight_month = EXCLUDED.insight_month,
+                insight_year = EXCLUDED.insight_year,
+                data_version = EXCLUDED.data_version,
+                computed_at = EXCLUDED.computed_at,
+                summary = EXCLUDED.summary,
+                overspending_categories = EXCLUDED.overspending_categories,
+                recommendations = EXCLUDED.recommendations,
+                next_month_prediction = EXCLUDED.next_month_prediction,
+                updated_at = EXCLUDED.updated_at
+            """)
+    void upsert(@Param("userId") Long userId, @Param("month") Integer month, @Param("year") Integer year,
+            @Param("dataVersion") Long dataVersion, @Param("summary") String summary,
+            @Param("overspendingCategories") String overspendingCategories,
+            @Param("recommendations") String recommendations,
+            @Param("nextMonthPrediction") String nextMonthPrediction, @Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,17 @@
+package com.spendwise.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Token usage increment for one user, endpoint and day.
+ *
+ * @param userId           the user's ID
+ * @param endpoint         the AI endpoint
+ * @param usageDate        the day of usage
+ * @param promptTokens     prompt tokens to add
+ * @param completionTokens completion tokens to add
+ * @param requestCount     completions to add
+ */
+public record AIUsageDelta(Long userId, String endpoint, LocalDate usageDate,
+        long promptTokens, long completionTokens, long requestCount) {
+}
@@ -0,0 +1,37 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.AIUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for AIUsage entity operations.
+ */
+@Repository
+public interface AIUsageRepository extends JpaRepository<AIUsage, Long>, AIUsageRepositoryCustom {
+
+    /**
+     * Find all usage rows of a user for a given day.
+     *
+     * @param userId    the user's ID
+     * @param usageDate the day
+     * @return usage rows, one per endpoint
+     */
+    List<AIUsage> findByUserIdAndUsageDate(Long userId, LocalDate usageDate);
+
+    /**
+     * Total tokens (prompt + completion) a user consumed on a given day.
+     *
+     * @param userId    the user's ID
+     * @param usageDate the day
+     * @return total tokens, or 0 if no usage
+     */
+    @Query("SELECT COALESCE(SUM(u.promptTokens + u.completionTokens), 0) FROM AIUsage u WHERE u.user.id = :userId AND u.usageDate = :usageDate")
+    Long sumTokensByUserIdAndUsageDate(@Param("userId") Long userId, @Param("usageDate") LocalDate usageDate);
+
+}
@@ -0,0 +1,18 @@
+package com.spendwise.repository;
+
+import java.util.List;
+
+/**
+ * Custom batch operations for AIUsage that bypass the persistence context.
+ */
+public interface AIUsageRepositoryCustom {
+
+    /**
+     * Add the given deltas onto the stored daily counters in a single JDBC batch.
+     * Missing rows are inserted, existing rows are incremented atomically.
+     *
+     * @param deltas usage increments to merge
+     */
+    void mergeUsage(List<AIUsageDelta> deltas);
+
+}
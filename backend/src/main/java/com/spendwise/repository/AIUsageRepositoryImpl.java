@@ -0,0 +1,45 @@
+package com.spendwise.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link AIUsageRepositoryCustom}.
+ * Uses a PostgreSQL upsert so concurrent flushes from several nodes never
+ * lose increments.
+ */
+@RequiredArgsConstructor
+public class AIUsageRepositoryImpl implements AIUsageRepositoryCustom {
+
+    private static final String MERGE_SQL = """
+            INSERT INTO ai_usage (user_id, endpoint, usage_date, prompt_tokens, completion_tokens,
+                                  request_count, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, now(), now())
+            ON CONFLICT (user_id, endpoint, usage_date) DO UPDATE SET
+                prompt_tokens = ai_usage.prompt_tokens + EXCLUDED.prompt_tokens,
+                completion_tokens = ai_usage.completion_tokens + EXCLUDED.completion_tokens,
+                request_count = ai_usage.request_count + EXCLUDED.request_count,
+                updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void mergeUsage(List<AIUsageDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.userId());
+            ps.setString(2, delta.endpoint());
+            ps.setDate(3, Date.valueOf(delta.usageDate()));
+            ps.setLong(4, delta.promptTokens());
+            ps.setLong(5, delta.completionTokens());
+            ps.setLong(6, delta.requestCount());
+        });
+    }
+
+}
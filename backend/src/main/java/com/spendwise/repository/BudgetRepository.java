@@ -1,9 +1,16 @@
 package com.spendwise.repository;
 
 import com.spendwise.entity.Budget;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -23,6 +30,56 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
      */
     Optional<Budget> findByUserIdAndMonthAndYear(Long userId, Integer month, Integer year);
 
+    /**
+     * Find a user's budgets for a range of months, oldest first.
+     * Months are indexed as {@code year * 12 + month}.
+     *
+     * @param userId the user's ID
+     * @param from   index of the first month (inclusive)
+     * @param to     index of the last month (inclusive)
+     * @return budgets within the range
+     */
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.year * 12 + b.month BETWEEN :from AND :to "
+            + "ORDER BY b.year, b.month")
+    List<Budget> findInRange(@Param("userId") Long userId, @Param("from") Integer from, @Param("to") Integer to);
+
+    /**
+     * Insert a budget or, if the user already has one for the month, replace its limit.
+     * Runs as a single statement so concurrent requests for the same month cannot
+     * collide on the unique constraint. A new budget's running total is seeded from
+     * the month's expenses; an existing one keeps its total and alert state,
+     * which {@link com.spendwise.service.BudgetAlertThresholds#rearm} then adjusts
+     * to the new limit.
+     * A null {@code rollover} keeps the current rollover setting.
+     *
+     * @param userId       the user's ID
+     * @param month        the month (1-12)
+     * @param year         the year
+     * @param monthlyLimit the new limit
+     * @param rollover     whether to carry in the previous month's balance, or null
+     * @param start        first day of the month
+     * @param end          last day of the month
+     * @param now          timestamp recorded as creation and/or update time
+     * @return the inserted or updated budget
+     */
+    @Query(nativeQuery = true, value = """
+            INSERT INTO budgets (user_id, budget_month, budget_year, monthly_limit, spent_amount,
+                                 alerted_threshold, rollover_enabled, carry_in, version, created_at, updated_at)
+            VALUES (:userId, :month, :year, :monthlyLimit,
+                    (SELECT COALESCE(SUM(e.amount), 0) FROM expenses e
+                     WHERE e.user_id = :userId AND e.date BETWEEN :start AND :end),
+                    0, COALESCE(CAST(:rollover AS boolean), false), 0, 0, :now, :now)
+            ON CONFLICT (user_id, budget_month, budget_year) DO UPDATE SET
+                monthly_limit = EXCLUDED.monthly_limit,
+                rollover_enabled = COALESCE(CAST(:rollover AS boolean), budgets.rollover_enabled),
+                version = budgets.version + 1,
+                updated_at = EXCLUDED.updated_at
+            RETURNING *
+            """)
+    Budget upsert(@Param("userId") Long userId, @Param("month") Integer month, @Param("year") Integer year,
+            @Param("monthlyLimit") Double monthlyLimit, @Param("rollover") Boolean rollover,
+            @Param("start") LocalDate start, @Param("end") LocalDate end, @Param("now") LocalDateTime now);
+
     /**
      * Check if a budget exists for a specific user, month, and year.
      *
@@ -33,4 +90,18 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
      */
     boolean existsByUserIdAndMonthAndYear(Long userId, Integer month, Integer year);
 
+    /**
+     * Find and lock the budget for a specific user, month, and year.
+     * Serializes concurrent running-total updates of the same budget.
+     *
+     * @param userId the user's ID
+     * @param month  the month (1-12)
+     * @param year   the year
+     * @return optional containing the locked budget if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.month = :month AND b.year = :year")
+    Optional<Budget> findForUpdate(@Param("userId") Long userId, @Param("month") Integer month,
+            @Param("year") Integer year);
+
 }
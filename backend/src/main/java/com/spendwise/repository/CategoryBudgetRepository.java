@@ -0,0 +1,107 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.CategoryBudget;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for CategoryBudget entity operations.
+ */
+@Repository
+public interface CategoryBudgetRepository extends JpaRepository<CategoryBudget, Long> {
+
+    /**
+     * Find all category budgets of a user for a month.
+     *
+     * @param userId the user's ID
+     * @param month  the month (1-12)
+     * @param year   the year
+     * @return category budgets of the month
+     */
+    List<CategoryBudget> findByUserIdAndMonthAndYearOrderByCategory(Long userId, Integer month, Integer year);
+
+    /**
+     * Find a user's category budgets for a range of months, oldest first.
+     * Months are indexed as {@code year * 12 + month}.
+     *
+     * @param userId the user's ID
+     * @param from   index of the first month (inclusive)
+     * @param to     index of the last month (inclusive)
+     * @return category budgets within the range
+     */
+    @Query("SELECT b FROM CategoryBudget b WHERE b.user.id = :userId "
+            + "AND b.year * 12 + b.month BETWEEN :from AND :to ORDER BY b.year, b.month, b.category")
+    List<CategoryBudget> findInRange(@Param("userId") Long userId, @Param("from") Integer from,
+            @Param("to") Integer to);
+
+    /**
+     * Find the budget of one category for a month.
+     *
+     * @param userId   the user's ID
+     * @param month    the month (1-12)
+     * @param year     the year
+     * @param category the expense category
+     * @return optional containing the budget if found
+     */
+    Optional<CategoryBudget> findByUserIdAndMonthAndYearAndCategory(Long userId, Integer month, Integer year,
+            String category);
+
+    /**
+     * Insert a category budget or, if one exists for the month, replace its limit,
+     * in a single statement. A new budget's running total is seeded from the
+     * category's expenses of the month; an existing one keeps its total and
+     * alert state, which {@link com.spendwise.service.BudgetAlertThresholds#rearm}
+     * then adjusts to the new limit.
+     *
+     * @param userId       the user's ID
+     * @param month        the month (1-12)
+     * @param year         the year
+     * @param category     the expense category
+     * @param monthlyLimit the new limit
+     * @param start        first day of the month
+     * @param end          last day of the month
+     * @param now          timestamp recorded as creation and/or update time
+     * @return the inserted or updated category budget
+     */
+    @Query(nativeQuery = true, value = """
+            INSERT INTO category_budgets (user_id, budget_month, budget_year, category, monthly_limit,
+                                          spent_amount, alerted_threshold, created_at, updated_at)
+            VALUES (:userId, :month, :year, :category, :monthlyLimit,
+                    (SELECT COALESCE(SUM(e.amount), 0) FROM expenses e
+                     WHERE e.user_id = :userId AND e.category = :category AND e.date BETWEEN :start AND :end),
+                    0, :now, :now)
+            ON CONFLICT (user_id, budget_month, budget_year, category) DO UPDATE SET
+                monthly_limit = EXCLUDED.monthly_limit,
+                updated_at = EXCLUDED.updated_at
+            RETURNING *
+            """)
+    CategoryBudget upsert(@Param("userId") Long userId, @Param("month") Integer month,
+            @Param("year") Integer year, @Param("category") String category,
+            @Param("monthlyLimit") Double monthlyLimit, @Param("start") LocalDate start,
+            @Param("end") LocalDate end, @Param("now") LocalDateTime now);
+
+    /**
+     * Find and lock the budget of one category for a month.
+     *
+     * @param userId   the user's ID
+     * @param month    the month (1-12)
+     * @param year     the year
+     * @param category the expense category
+     * @return optional containing the locked budget if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM CategoryBudget b WHERE b.user.id = :userId AND b.month = :month AND b.year = :year "
+            + "AND b.category = :category")
+    Optional<CategoryBudget> findForUpdate(@Param("userId") Long userId, @Param("month") Integer month,
+            @Param("year") Integer year, @Param("category") String category);
+
+}
@@ -0,0 +1,16 @@
+package com.spendwise.repository;
+
+/**
+ * Projection of the amount a user spent in one category during one month.
+ */
+public interface CategoryMonthTotal {
+
+    String getCategory();
+
+    Integer getSpendYear();
+
+    Integer getSpendMonth();
+
+    Double getTotal();
+
+}
@@ -0,0 +1,12 @@
+package com.spendwise.repository;
+
+/**
+ * Projection of the amount a user spent in one category.
+ */
+public interface CategoryTotal {
+
+    String getCategory();
+
+    Double getTotal();
+
+}
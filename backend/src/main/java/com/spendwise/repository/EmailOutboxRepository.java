@@ -0,0 +1,39 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for EmailOutbox entity operations.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Claim a batch of messages that are due for delivery.
+     * Rows are locked with SKIP LOCKED so concurrent dispatchers on other
+     * instances claim disjoint batches.
+     *
+     * @param status   the status to claim (PENDING)
+     * @param now      current time
+     * @param pageable batch size
+     * @return claimed messages, oldest first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutbox m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<EmailOutbox> claimDue(@Param("status") EmailOutbox.Status status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+}
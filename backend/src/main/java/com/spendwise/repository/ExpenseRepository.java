@@ -1,11 +1,14 @@
 package com.spendwise.repository;
 
 import com.spendwise.entity.Expense;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +17,7 @@ import java.util.Optional;
  * Provides custom queries to ensure user data isolation.
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
 
     /**
      * Find all expenses belonging to a specific user.
@@ -65,4 +68,84 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     Double sumAmountByUserIdAndMonthAndYear(@Param("userId") Long userId, @Param("month") Integer month,
             @Param("year") Integer year);
 
+    /**
+     * Calculate total expenses of one category for a user in a specific month and year.
+     *
+     * @param userId   the user's ID
+     * @param category the expense category
+     * @param month    the month (1-12)
+     * @param year     the year
+     * @return total amount spent, or 0.0 if no expenses
+     */
+    @Query("SELECT COALESCE(SUM(e.amount), 0.0) FROM Expense e WHERE e.user.id = :userId AND e.category = :category AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
+    Double sumAmountByUserIdAndCategoryAndMonthAndYear(@Param("userId") Long userId,
+            @Param("category") String category, @Param("month") Integer month, @Param("year") Integer year);
+
+    /**
+     * Aggregate a user's spending per category and month within a date range.
+     * Served by the (user_id, date) index, no expense rows are materialized.
+     *
+     * @param userId the user's ID
+     * @param start  first day of the range (inclusive)
+     * @param end    last day of the range (inclusive)
+     * @return one total per category and month with spending
+     */
+    @Query("SELECT e.category AS category, YEAR(e.date) AS spendYear, MONTH(e.date) AS spendMonth, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :start AND :end "
+            + "GROUP BY e.category, YEAR(e.date), MONTH(e.date)")
+    List<CategoryMonthTotal> sumAmountByCategoryAndMonth(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Aggregate a user's spending per category within a date range.
+     *
+     * @param userId the user's ID
+     * @param start  first day of the range (inclusive)
+     * @param end    last day of the range (inclusive)
+     * @return one total per category with spending
+     */
+    @Query("SELECT e.category AS category, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :start AND :end "
+            + "GROUP BY e.category")
+    List<CategoryTotal> sumAmountByCategory(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Aggregate a user's spending per month within a date range.
+     *
+     * @param userId the user's ID
+     * @param start  first day of the range (inclusive)
+     * @param end    last day of the range (inclusive)
+     * @return one total per month with spending
+     */
+    @Query("SELECT YEAR(e.date) AS spendYear, MONTH(e.date) AS spendMonth, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :start AND :end "
+            + "GROUP BY YEAR(e.date), MONTH(e.date)")
+    List<MonthTotal> sumAmountByMonth(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Count a user's expenses within a date range.
+     *
+     * @param userId the user's ID
+     * @param start  first day of the range (inclusive)
+     * @param end    last day of the range (inclusive)
+     * @return number of expenses
+     */
+    long countByUserIdAndDateBetween(Long userId, LocalDate start, LocalDate end);
+
+    /**
+     * Find IDs of users who recorded or edited expenses since a point in time.
+     * Keyset-paginated on user ID so batch jobs can process and resume in chunks.
+     *
+     * @param since    activity cutoff
+     * @param afterId  only return user IDs greater than this
+     * @param pageable chunk size
+     * @return ascending user IDs
+     */
+    @Query("SELECT DISTINCT e.user.id FROM Expense e WHERE e.updatedAt >= :since AND e.user.id > :afterId "
+            + "ORDER BY e.user.id")
+    List<Long> findActiveUserIdsAfter(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+            Pageable pageable);
+
 }
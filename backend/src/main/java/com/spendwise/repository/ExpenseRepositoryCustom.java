@@ -0,0 +1,21 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.Expense;
+
+import java.util.List;
+
+/**
+ * Custom batch operations for Expense that bypass the persistence context.
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Insert the given expenses in a single JDBC batch.
+     * Identity inserts through JPA cannot be batched, so bulk producers use this instead.
+     * The given entities stay detached and do not receive their generated IDs.
+     *
+     * @param expenses new expenses with user, amount, category, description and date set
+     */
+    void insertAll(List<Expense> expenses);
+
+}
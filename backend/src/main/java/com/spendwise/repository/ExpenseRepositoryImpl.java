@@ -0,0 +1,42 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.Expense;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ExpenseRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO expenses (user_id, amount, category, description, date, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, expenses, expenses.size(), (ps, expense) -> {
+            ps.setLong(1, expense.getUser().getId());
+            ps.setDouble(2, expense.getAmount());
+            ps.setString(3, expense.getCategory());
+            ps.setString(4, expense.getDescription());
+            ps.setDate(5, Date.valueOf(expense.getDate()));
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+
+}
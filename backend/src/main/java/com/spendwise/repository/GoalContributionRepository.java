@@ -0,0 +1,30 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.GoalContribution;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GoalContributionRepository extends JpaRepository<GoalContribution, Long> {
+    List<GoalContribution> findByGoalIdOrderByCreatedAtDesc(Long goalId, Pageable pageable);
+
+    /**
+     * Sum of a goal's contributions per calendar month since the given time,
+     * excluding the opening balance.
+     */
+    @Query("SELECT YEAR(c.createdAt) AS spendYear, MONTH(c.createdAt) AS spendMonth, SUM(c.amount) AS total "
+            + "FROM GoalContribution c WHERE c.goal.id = :goalId AND c.openingBalance = false "
+            + "AND c.createdAt >= :since GROUP BY YEAR(c.createdAt), MONTH(c.createdAt)")
+    List<MonthTotal> sumAmountByMonth(@Param("goalId") Long goalId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM GoalContribution c WHERE c.goal.id = :goalId")
+    void deleteByGoalId(@Param("goalId") Long goalId);
+}
@@ -0,0 +1,23 @@
+package com.spendwise.repository;
+
+import com.spendwise.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for JobCheckpoint entity operations.
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+
+    /**
+     * Find the checkpoint of a job.
+     *
+     * @param jobName the job name
+     * @return optional containing the checkpoint if the job ran before
+     */
+    Optional<JobCheckpoint> findByJobName(String jobName);
+
+}
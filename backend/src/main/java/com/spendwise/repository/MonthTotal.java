@@ -0,0 +1,14 @@
+package com.spendwise.repository;
+
+/**
+ * Projection of the amount a user spent during one month.
+ */
+public interface MonthTotal {
+
+    Integer getSpendYear();
+
+    Integer getSpendMonth();
+
+    Double getTotal();
+
+}
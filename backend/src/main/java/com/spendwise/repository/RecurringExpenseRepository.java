@@ -1,9 +1,17 @@
 package com.spendwise.repository;
 
 import com.spendwise.entity.RecurringExpense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -11,4 +19,19 @@ public interface RecurringExpenseRepository extends JpaRepository<RecurringExpen
     List<RecurringExpense> findByUserId(Long userId);
 
     List<RecurringExpense> findByUserIdAndActiveTrue(Long userId);
+
+    /**
+     * Claim a chunk of active recurring expenses that are due.
+     * Served by the (active, next_due_date) index; rows are locked with
+     * SKIP LOCKED so materializers on other instances claim disjoint chunks.
+     *
+     * @param today    last due date to include
+     * @param pageable chunk size
+     * @return claimed recurring expenses, earliest due first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RecurringExpense r WHERE r.active = true AND r.nextDueDate <= :today "
+            + "ORDER BY r.nextDueDate")
+    List<RecurringExpense> claimDue(@Param("today") LocalDate today, Pageable pageable);
 }
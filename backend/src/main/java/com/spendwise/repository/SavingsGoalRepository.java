@@ -2,11 +2,31 @@ package com.spendwise.repository;
 
 import com.spendwise.entity.SavingsGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SavingsGoalRepository extends JpaRepository<SavingsGoal, Long> {
     List<SavingsGoal> findByUserId(Long userId);
+
+    /**
+     * Atomically add a contribution to a goal's balance and bump its version.
+     * Concurrent contributions from several devices all apply; a withdrawal
+     * that would make the balance negative updates nothing.
+     *
+     * @return 1 if applied, 0 if the goal was not found or the balance is insufficient
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SavingsGoal g SET g.currentAmount = g.currentAmount + :amount, "
+            + "g.contributedAmount = g.contributedAmount + :amount, g.version = g.version + 1, g.updatedAt = :now "
+            + "WHERE g.id = :id AND g.user.id = :userId AND g.currentAmount + :amount >= 0")
+    int addContribution(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") Double amount,
+            @Param("now") LocalDateTime now);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
 }
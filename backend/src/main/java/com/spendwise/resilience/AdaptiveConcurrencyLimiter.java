@@ -0,0 +1,130 @@
+package com.spendwise.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency, following the gradient
+ * algorithm: a short-term average of request latency is compared with a
+ * long-term baseline. While they agree the limit grows by its square root,
+ * leaving room for a small queue; once latency rises beyond the tolerance,
+ * the limit shrinks in proportion, and it backs off multiplicatively when
+ * requests fail. Requests beyond the limit are rejected, not queued.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 500;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param name         route group the limit applies to
+     * @param initialLimit starting limit
+     * @param minLimit     lowest the limit can shrink to
+     * @param maxLimit     highest the limit can grow to
+     * @param tolerance    how many times the baseline latency is tolerated before shrinking
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits of " + name + " must satisfy 1 <= min <= initial <= max");
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Take a slot if the limit allows.
+     *
+     * @return in-flight count including this request, or -1 if rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and feed the request's outcome into the limit.
+     *
+     * @param inFlightAtStart value returned by {@link #tryAcquire()}
+     * @param rttNanos        request latency
+     * @param dropped         whether the request failed in a way that signals overload
+     */
+    public void release(int inFlightAtStart, long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                return;
+            }
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            // A baseline far above current latency is stale, e.g. after a
+            // slow period; let it recover quickly
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos *= 0.95;
+            }
+
+            // Do not grow a limit the traffic is not using
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Whether new requests are currently being rejected.
+     *
+     * @return true if all slots are taken
+     */
+    public boolean isSaturated() {
+        return inFlight.get() >= (int) limit;
+    }
+
+}
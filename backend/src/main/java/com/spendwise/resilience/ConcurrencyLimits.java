@@ -0,0 +1,79 @@
+package com.spendwise.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Separate adaptive concurrency limits per {@link RouteGroup}, so slow
+ * OpenAI calls or a login storm cannot take the slots of ordinary CRUD
+ * traffic. Public and actuator routes are not limited, keeping health
+ * checks and scraping responsive under overload.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final AdaptiveConcurrencyLimiter ai;
+    private final AdaptiveConcurrencyLimiter auth;
+    private final AdaptiveConcurrencyLimiter crud;
+
+    public ConcurrencyLimits(
+            MeterRegistry meterRegistry,
+            @Value("${concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${concurrency-limit.ai.initial:10}") int aiInitial,
+            @Value("${concurrency-limit.ai.min:2}") int aiMin,
+            @Value("${concurrency-limit.ai.max:50}") int aiMax,
+            @Value("${concurrency-limit.auth.initial:20}") int authInitial,
+            @Value("${concurrency-limit.auth.min:4}") int authMin,
+            @Value("${concurrency-limit.auth.max:100}") int authMax,
+            @Value("${concurrency-limit.crud.initial:50}") int crudInitial,
+            @Value("${concurrency-limit.crud.min:10}") int crudMin,
+            @Value("${concurrency-limit.crud.max:180}") int crudMax) {
+        this.ai = new AdaptiveConcurrencyLimiter("ai", aiInitial, aiMin, aiMax, tolerance);
+        this.auth = new AdaptiveConcurrencyLimiter("auth", authInitial, authMin, authMax, tolerance);
+        this.crud = new AdaptiveConcurrencyLimiter("crud", crudInitial, crudMin, crudMax, tolerance);
+
+        for (AdaptiveConcurrencyLimiter limiter : getAll()) {
+            Gauge.builder("spendwise.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", limiter.getName()).register(meterRegistry);
+            Gauge.builder("spendwise.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", limiter.getName()).register(meterRegistry);
+            FunctionCounter.builder("spendwise.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("group", limiter.getName()).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Limiter for a request path.
+     *
+     * @param path request URI
+     * @return the route group's limiter, or null if the path is not limited
+     */
+    public AdaptiveConcurrencyLimiter forPath(String path) {
+        RouteGroup group = RouteGroup.of(path);
+        return group != null ? get(group) : null;
+    }
+
+    /**
+     * Limiter of a route group.
+     *
+     * @param group route group
+     * @return the group's limiter
+     */
+    public AdaptiveConcurrencyLimiter get(RouteGroup group) {
+        return switch (group) {
+            case AI -> ai;
+            case AUTH -> auth;
+            case CRUD -> crud;
+        };
+    }
+
+    public List<AdaptiveConcurrencyLimiter> getAll() {
+        return List.of(ai, auth, crud);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.spendwise.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spendwise.exception.DeadlineExceededException;
+import com.spendwise.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Binds a {@link RequestDeadline} to each API request. The budget comes
+ * from the request's {@link RouteGroup}; a client that will give up sooner
+ * can shorten it, never extend it, with the {@value #TIMEOUT_HEADER} header
+ * in milliseconds. Deadlines expiring in filters, before any controller
+ * advice applies, are answered with 504 here.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${deadline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deadline.ai-ms:45000}")
+    private long aiMs;
+
+    @Value("${deadline.auth-ms:5000}")
+    private long authMs;
+
+    @Value("${deadline.crud-ms:10000}")
+    private long crudMs;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = enabled ? RouteGroup.of(request.getRequestURI()) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long budgetMs = switch (group) {
+            case AI -> aiMs;
+            case AUTH -> authMs;
+            case CRUD -> crudMs;
+        };
+        String requested = request.getHeader(TIMEOUT_HEADER);
+        if (requested != null) {
+            try {
+                budgetMs = Math.min(budgetMs, Math.max(1, Long.parseLong(requested.trim())));
+            } catch (NumberFormatException e) {
+                // Ignore a malformed header and keep the route's budget
+            }
+        }
+
+        RequestDeadline.bind(Duration.ofMillis(budgetMs));
+        try {
+            filterChain.doFilter(request, response);
+        } catch (DeadlineExceededException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                    .error("Gateway Timeout")
+                    .message(e.getMessage())
+                    .build();
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), errorResponse);
+        } finally {
+            RequestDeadline.unbind();
+        }
+    }
+
+}
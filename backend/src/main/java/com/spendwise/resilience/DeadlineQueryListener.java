@@ -0,0 +1,47 @@
+package com.spendwise.resilience;
+
+import com.spendwise.exception.DeadlineExceededException;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gives every statement run for a request a query timeout no longer than
+ * the time left on its {@link RequestDeadline}, so the database cancels
+ * work nobody is waiting for. Statements after the deadline are not sent
+ * at all. JDBC timeouts are whole seconds, so they are rounded up.
+ */
+public class DeadlineQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return;
+        }
+        Duration remaining = deadline.remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new DeadlineExceededException("Request deadline exceeded before SQL statement");
+        }
+        int seconds = (int) Math.max(1, (remaining.toMillis() + 999) / 1000);
+        try {
+            Statement statement = execInfo.getStatement();
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException e) {
+            // Statement already closed; the driver will report that itself
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.spendwise.resilience;
+
+import com.spendwise.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which the current request must be answered. Bound to the
+ * request thread by {@link DeadlineFilter}; JDBC statement timeouts and
+ * upstream call timeouts are derived from it so abandoned requests stop
+ * consuming the database and OpenAI. Threads without a bound deadline, such
+ * as schedulers, get the caller's own limits unchanged.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Deadline of the request bound to this thread.
+     *
+     * @return current deadline, null outside a request
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    static RequestDeadline bind(Duration budget) {
+        RequestDeadline deadline = new RequestDeadline(System.nanoTime() + budget.toNanos());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Timeout for a downstream call: the caller's own limit, shortened to the
+     * time left on the current request's deadline.
+     *
+     * @param limit the call's own timeout
+     * @return timeout to apply
+     * @throws DeadlineExceededException if the deadline has already passed
+     */
+    public static Duration timeout(Duration limit) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return limit;
+        }
+        Duration remaining = deadline.checkRemaining();
+        return remaining.compareTo(limit) < 0 ? remaining : limit;
+    }
+
+    /**
+     * Fail fast if the current request's deadline has passed, before
+     * starting more work for it.
+     *
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public static void check() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.checkRemaining();
+        }
+    }
+
+    /**
+     * Time left until the deadline.
+     *
+     * @return remaining time, zero or negative once expired
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * {@link System#nanoTime()} value of the deadline.
+     *
+     * @return deadline in nanoTime terms
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    private Duration checkRemaining() {
+        Duration remaining = remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+        return remaining;
+    }
+
+}
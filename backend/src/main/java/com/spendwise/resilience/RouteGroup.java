@@ -0,0 +1,30 @@
+package com.spendwise.resilience;
+
+/**
+ * API routes grouped by how they use resources, for per-group concurrency
+ * limits and deadlines: AI routes wait on OpenAI, auth routes spend CPU on
+ * BCrypt and everything else is database-bound CRUD.
+ */
+public enum RouteGroup {
+    AI, AUTH, CRUD;
+
+    /**
+     * Group of a request path.
+     *
+     * @param path request URI
+     * @return the group, or null for public and actuator routes, which are
+     *         left unmanaged so health checks stay responsive
+     */
+    public static RouteGroup of(String path) {
+        if (path.startsWith("/api/ai/")) {
+            return AI;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/") && !path.startsWith("/api/public/")) {
+            return CRUD;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.spendwise.resilience;
+
+import com.spendwise.exception.UpstreamUnavailableException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient filter that stops calling an upstream after consecutive
+ * failures (errors, timeouts, 429 and 5xx responses). While open, calls fail
+ * immediately with {@link UpstreamUnavailableException}, so callers fall
+ * back at once instead of waiting out a timeout. After the open duration
+ * one trial call is let through: success closes the circuit, failure opens
+ * it again.
+ */
+public class UpstreamCircuitBreaker implements ExchangeFilterFunction {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    /**
+     * @param name             upstream name for error messages
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDuration     how long to fail fast before a trial call
+     */
+    public UpstreamCircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!permitCall()) {
+                return Mono.error(new UpstreamUnavailableException(name + " circuit is open"));
+            }
+            AtomicBoolean done = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        int status = response.statusCode().value();
+                        if (done.compareAndSet(false, true)) {
+                            onResult(status != 429 && status < 500);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (done.compareAndSet(false, true)) {
+                            onResult(false);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        // Cancelled by a timeout before the response arrived
+                        if (done.compareAndSet(false, true)) {
+                            onResult(false);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Current state; an open circuit past its open duration reports half-open.
+     *
+     * @return circuit state
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized boolean permitCall() {
+        State current = getState();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.HALF_OPEN && !trialInFlight) {
+            state = State.HALF_OPEN;
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onResult(boolean success) {
+        trialInFlight = false;
+        if (success) {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+}
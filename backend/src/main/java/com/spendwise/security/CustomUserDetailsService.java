@@ -1,5 +1,6 @@
 package com.spendwise.security;
 
+import com.spendwise.datasource.ShardDirectory;
 import com.spendwise.entity.User;
 import com.spendwise.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +24,10 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ShardDirectory shardDirectory;
 
     /**
-     * Loads user by username for authentication.
+     * Loads user by username for authentication, from the user's shard.
      *
      * @param username the username
      * @return UserDetails object
@@ -35,7 +37,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Find user by username
-        User user = userRepository.findByUsername(username)
+        User user = shardDirectory.callAsUser(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with username: " + username));
 
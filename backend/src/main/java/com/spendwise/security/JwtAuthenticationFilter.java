@@ -1,5 +1,8 @@
 package com.spendwise.security;
 
+import com.spendwise.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +26,8 @@ import java.io.IOException;
  * Intercepts requests, extracts JWT token, validates it, and sets
  * authentication.
  * Extends OncePerRequestFilter to ensure single execution per request.
+ * The time spent authenticating (excluding the rest of the chain) is recorded
+ * as {@code spendwise.auth.jwt}, tagged with the outcome.
  */
 @Component
 @RequiredArgsConstructor
@@ -31,6 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Filter method to process JWT authentication.
@@ -46,12 +52,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             // Extract JWT token from Authorization header
             String jwt = getJwtFromRequest(request);
 
             // Validate and process token
             if (StringUtils.hasText(jwt)) {
+                outcome = "rejected";
                 // Extract username from token
                 String username = jwtUtil.getUsernameFromToken(jwt);
 
@@ -72,13 +81,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // Set authentication in SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    outcome = "authenticated";
 
                     log.debug("Set authentication for user: {}", username);
                 }
             }
+        } catch (DeadlineExceededException ex) {
+            // Answered with 504 by DeadlineFilter rather than as an anonymous request
+            throw ex;
         } catch (Exception ex) {
             log.error("Cannot set user authentication: {}", ex.getMessage());
         }
+        sample.stop(meterRegistry.timer("spendwise.auth.jwt", "outcome", outcome));
 
         // Continue filter chain
         filterChain.doFilter(request, response);
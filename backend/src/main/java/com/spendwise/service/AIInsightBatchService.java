@@ -0,0 +1,215 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ShardContext;
+import com.spendwise.datasource.ShardDirectory;
+import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.entity.JobCheckpoint;
+import com.spendwise.entity.User;
+import com.spendwise.repository.ExpenseRepository;
+import com.spendwise.repository.JobCheckpointRepository;
+import com.spendwise.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly job that precomputes AI analyses for recently active users.
+ * Users are processed in keyset-paginated chunks on a bounded worker pool,
+ * throttled to the upstream rate limit. Progress is checkpointed after each
+ * chunk so an interrupted run resumes where it stopped, and users whose stored
+ * analysis still matches their data version are skipped. Shards are processed
+ * one after another, each with its own checkpoint.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIInsightBatchService {
+
+    private static final String JOB_NAME = "ai-insights-nightly";
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final AIService aiService;
+    private final AIInsightService aiInsightService;
+    private final ShardDirectory shardDirectory;
+
+    @Value("${openai.insights.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Users with expense activity within this many days are precomputed
+     */
+    @Value("${openai.insights.active-days:14}")
+    private int activeDays;
+
+    @Value("${openai.insights.chunk-size:100}")
+    private int chunkSize;
+
+    /**
+     * Maximum number of concurrent OpenAI requests
+     */
+    @Value("${openai.insights.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * Upstream request budget of the job
+     */
+    @Value("${openai.insights.requests-per-minute:60}")
+    private int requestsPerMinute;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Precompute analyses for active users.
+     * Overlapping invocations on the same instance are ignored.
+     */
+    @Scheduled(cron = "${openai.insights.cron:0 0 3 * * *}")
+    public void precomputeInsights() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+                ShardContext.bind(shard);
+                try {
+                    run(executor, shard);
+                } finally {
+                    ShardContext.unbind();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("AI insight precomputation interrupted, will resume from checkpoint");
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private void run(ExecutorService executor, int shard) throws InterruptedException {
+        LocalDate today = LocalDate.now();
+        JobCheckpoint checkpoint = jobCheckpointRepository.findByJobName(JOB_NAME)
+                .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).build());
+
+        if (!today.equals(checkpoint.getRunDate())) {
+            checkpoint.setRunDate(today);
+            checkpoint.setLastProcessedId(0L);
+            checkpoint.setCompleted(false);
+        } else if (checkpoint.getCompleted()) {
+            log.info("AI insight precomputation already completed for {}", today);
+            return;
+        } else {
+            log.info("Resuming AI insight precomputation after user {}", checkpoint.getLastProcessedId());
+        }
+
+        LocalDateTime since = today.minusDays(activeDays).atStartOfDay();
+        RateLimiter rateLimiter = new RateLimiter(requestsPerMinute);
+        int computed = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        while (true) {
+            List<Long> userIds = expenseRepository.findActiveUserIdsAfter(
+                    since, checkpoint.getLastProcessedId(), PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            List<Callable<Outcome>> tasks = userIds.stream()
+                    .map(userId -> (Callable<Outcome>) () -> precompute(userId, rateLimiter, shard))
+                    .toList();
+            for (Future<Outcome> future : executor.invokeAll(tasks)) {
+                try {
+                    switch (future.get()) {
+                        case COMPUTED -> computed++;
+                        case SKIPPED -> skipped++;
+                        case FAILED -> failed++;
+                    }
+                } catch (ExecutionException e) {
+                    failed++;
+                }
+            }
+
+            checkpoint.setLastProcessedId(userIds.get(userIds.size() - 1));
+            checkpoint = jobCheckpointRepository.save(checkpoint);
+        }
+
+        checkpoint.setCompleted(true);
+        jobCheckpointRepository.save(checkpoint);
+        log.info("AI insight precomputation finished: {} computed, {} up to date, {} failed",
+                computed, skipped, failed);
+    }
+
+    private Outcome precompute(Long userId, RateLimiter rateLimiter, int shard) throws InterruptedException {
+        ShardContext.bind(shard);
+        try {
+            return precompute(userId, rateLimiter);
+        } finally {
+            ShardContext.unbind();
+        }
+    }
+
+    private Outcome precompute(Long userId, RateLimiter rateLimiter) throws InterruptedException {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || aiInsightService.hasCurrent(userId, user.getDataVersion())) {
+            return Outcome.SKIPPED;
+        }
+
+        rateLimiter.acquire();
+        try {
+            AIAnalysisResponseDTO analysis = aiService.requestAnalysis(userId, AIUsageService.ENDPOINT_INSIGHTS_BATCH);
+            aiInsightService.store(userId, user.getDataVersion(), analysis);
+            return Outcome.COMPUTED;
+        } catch (Exception e) {
+            log.warn("Failed to precompute AI insight for user {}: {}", userId, e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    private enum Outcome {
+        COMPUTED, SKIPPED, FAILED
+    }
+
+    /**
+     * Spaces permits evenly so the workers together stay under the upstream rate limit.
+     */
+    private static final class RateLimiter {
+
+        private final long intervalNanos;
+        private long nextPermitNanos = System.nanoTime();
+
+        RateLimiter(int permitsPerMinute) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, permitsPerMinute);
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long permit = Math.max(now, nextPermitNanos);
+                nextPermitNanos = permit + intervalNanos;
+                waitNanos = permit - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+}
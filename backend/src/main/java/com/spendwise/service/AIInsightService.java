@@ -0,0 +1,96 @@
+package com.spendwise.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.entity.AIInsight;
+import com.spendwise.entity.User;
+import com.spendwise.repository.AIInsightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for storing and serving precomputed AI analyses.
+ */
+@Service
+@RequiredArgsConstructor
+public class AIInsightService {
+
+    private final AIInsightRepository aiInsightRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Get the stored analysis of a user if it still reflects their data.
+     *
+     * @param user the user entity
+     * @return the stored analysis, or null if missing or stale
+     */
+    @Transactional(readOnly = true)
+    public AIAnalysisResponseDTO findCurrent(User user) {
+        return aiInsightRepository.findByUserId(user.getId())
+                .filter(insight -> isCurrent(insight, user.getDataVersion(), LocalDate.now()))
+                .map(this::convertToDTO)
+                .orElse(null);
+    }
+
+    /**
+     * Check whether a user's stored analysis is still current.
+     *
+     * @param userId      the user's ID
+     * @param dataVersion the user's current data version
+     * @return true if no recomputation is needed
+     */
+    @Transactional(readOnly = true)
+    public boolean hasCurrent(Long userId, Long dataVersion) {
+        return aiInsightRepository.findByUserId(userId)
+                .map(insight -> isCurrent(insight, dataVersion, LocalDate.now()))
+                .orElse(false);
+    }
+
+    /**
+     * Store an analysis for a user, replacing the previous one in a single upsert.
+     *
+     * @param userId      the user's ID
+     * @param dataVersion the data version the analysis was computed from
+     * @param analysis    the analysis
+     */
+    @Transactional
+    public void store(Long userId, Long dataVersion, AIAnalysisResponseDTO analysis) {
+        LocalDate today = LocalDate.now();
+        aiInsightRepository.upsert(userId, today.getMonthValue(), today.getYear(), dataVersion,
+                analysis.getSummary(), toJson(analysis.getOverspendingCategories()),
+                toJson(analysis.getRecommendations()), analysis.getNextMonthPrediction(), LocalDateTime.now());
+    }
+
+    private String toJson(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize AI analysis", e);
+        }
+    }
+
+    private boolean isCurrent(AIInsight insight, Long dataVersion, LocalDate today) {
+        return insight.getDataVersion().equals(dataVersion)
+                && insight.getMonth() == today.getMonthValue()
+                && insight.getYear() == today.getYear();
+    }
+
+    private AIAnalysisResponseDTO convertToDTO(AIInsight insight) {
+        return AIAnalysisResponseDTO.builder()
+                .summary(insight.getSummary())
+                .overspendingCategories(insight.getOverspendingCategories())
+                .recommendations(insight.getRecommendations())
+                .nextMonthPrediction(insight.getNextMonthPrediction())
+                .build();
+    }
+
+}
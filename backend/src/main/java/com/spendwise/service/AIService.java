@@ -3,26 +3,36 @@ package com.spendwise.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spendwise.dto.AIAnalysisResponseDTO;
-import com.spendwise.entity.Expense;
 import com.spendwise.entity.User;
+import com.spendwise.exception.DeadlineExceededException;
+import com.spendwise.exception.QuotaExceededException;
+import com.spendwise.instrumentation.AICallEvent;
+import com.spendwise.resilience.RequestDeadline;
 import com.spendwise.repository.ExpenseRepository;
 import com.spendwise.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for AI-powered financial analysis using OpenAI.
@@ -32,10 +42,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AIService {
 
+        /**
+         * Maximum number of tool-calling rounds per chat message
+         */
+        private static final int MAX_TOOL_ROUNDS = 3;
+        private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+
         private final WebClient openAIWebClient;
         private final ExpenseRepository expenseRepository;
         private final UserRepository userRepository;
         private final ObjectMapper objectMapper;
+        private final AIUsageService aiUsageService;
+        private final LocalInsightService localInsightService;
+        private final ChatToolService chatToolService;
+        private final AIInsightService aiInsightService;
+        private final MeterRegistry meterRegistry;
+        private final PlatformTransactionManager transactionManager;
 
         @Value("${openai.model:gpt-3.5-turbo}")
         private String model;
@@ -45,51 +67,90 @@ public class AIService {
 
         /**
          * Analyze user's monthly expenses using OpenAI.
+         * Fast mode skips OpenAI and answers from the local insight engine.
+         * A precomputed analysis is served as-is while the user's data is unchanged.
+         * Not transactional: reads and the store run in their own short transactions
+         * so no pooled connection is held while waiting on OpenAI.
          *
-         * @return AI-generated financial analysis
+         * @param fast whether to use the local insight engine only
+         * @return financial analysis
          */
-        @Transactional(readOnly = true)
-        public AIAnalysisResponseDTO analyzeExpenses() {
+        @Timed("spendwise.ai.analyze")
+        public AIAnalysisResponseDTO analyzeExpenses(boolean fast) {
                 User currentUser = getCurrentUser();
-                LocalDate now = LocalDate.now();
-                Integer month = now.getMonthValue();
-                Integer year = now.getYear();
-
-                // Fetch monthly expenses
-                List<Expense> expenses = expenseRepository.findByUserId(currentUser.getId())
-                                .stream()
-                                .filter(e -> e.getDate().getMonthValue() == month && e.getDate().getYear() == year)
-                                .collect(Collectors.toList());
-
-                // Calculate summary
-                double totalSpending = expenses.stream()
-                                .mapToDouble(Expense::getAmount)
-                                .sum();
-
-                Map<String, Double> categoryBreakdown = expenses.stream()
-                                .collect(Collectors.groupingBy(
-                                                Expense::getCategory,
-                                                Collectors.summingDouble(Expense::getAmount)));
+                if (fast) {
+                        return localInsightService.analyze(currentUser.getId());
+                }
 
-                // Build AI prompt
-                String userPrompt = buildPrompt(totalSpending, categoryBreakdown, expenses.size());
+                AIAnalysisResponseDTO stored = aiInsightService.findCurrent(currentUser);
+                if (stored != null) {
+                        return stored;
+                }
 
+                aiUsageService.checkQuota(currentUser.getId());
+                AIAnalysisResponseDTO analysis;
                 try {
-                        // Call OpenAI API
-                        String aiResponse = callOpenAI(userPrompt);
-
-                        // Parse and return structured response
-                        return parseAIResponse(aiResponse);
+                        analysis = requestAnalysis(currentUser.getId(), AIUsageService.ENDPOINT_ANALYZE);
+                } catch (DeadlineExceededException | QueryTimeoutException e) {
+                        // Out of time: neither an upstream failure nor worth a fallback nobody waits for
+                        throw e;
                 } catch (Exception e) {
                         log.error("Error calling OpenAI API", e);
-                        return buildFallbackResponse(totalSpending, categoryBreakdown);
+                        countFallback(AIUsageService.ENDPOINT_ANALYZE);
+                        return localInsightService.analyze(currentUser.getId());
+                }
+
+                // The analysis is paid for; failing to keep it must not discard it
+                try {
+                        aiInsightService.store(currentUser.getId(), currentUser.getDataVersion(), analysis);
+                } catch (Exception e) {
+                        log.warn("Failed to store AI analysis for user {}", currentUser.getId(), e);
                 }
+                return analysis;
+        }
+
+        /**
+         * Request an analysis of a user's current month from OpenAI.
+         * Does not enforce quotas and throws if the upstream call fails.
+         * The month is aggregated in a read-only transaction that ends before
+         * the upstream call, so callers must not hold one around it either.
+         *
+         * @param userId   the user's ID
+         * @param endpoint endpoint the token usage is recorded under
+         * @return AI-generated financial analysis
+         */
+        public AIAnalysisResponseDTO requestAnalysis(Long userId, String endpoint) {
+                LocalDate now = LocalDate.now();
+                LocalDate monthStart = now.withDayOfMonth(1);
+
+                // Aggregate monthly expenses
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                readOnly.setReadOnly(true);
+                MonthlySpending spending = readOnly.execute(status -> {
+                        Map<String, Double> categoryBreakdown = new LinkedHashMap<>();
+                        expenseRepository.sumAmountByCategory(userId, monthStart, now)
+                                        .forEach(total -> categoryBreakdown.put(total.getCategory(), total.getTotal()));
+                        return new MonthlySpending(categoryBreakdown,
+                                        expenseRepository.countByUserIdAndDateBetween(userId, monthStart, now));
+                });
+                double totalSpending = spending.categoryBreakdown().values().stream()
+                                .mapToDouble(Double::doubleValue)
+                                .sum();
+
+                // Build AI prompt
+                String userPrompt = buildPrompt(totalSpending, spending.categoryBreakdown(), spending.count());
+
+                // Call OpenAI API
+                String aiResponse = callOpenAI(userPrompt, userId, endpoint);
+
+                // Parse and return structured response
+                return parseAIResponse(aiResponse);
         }
 
         /**
          * Build prompt for OpenAI with expense data.
          */
-        private String buildPrompt(double total, Map<String, Double> breakdown, int count) {
+        private String buildPrompt(double total, Map<String, Double> breakdown, long count) {
                 StringBuilder prompt = new StringBuilder();
                 prompt.append("Analyze this monthly spending data:\n\n");
                 prompt.append("Total Spending: $").append(String.format("%.2f", total)).append("\n");
@@ -113,7 +174,7 @@ public class AIService {
         /**
          * Call OpenAI Chat Completion API.
          */
-        private String callOpenAI(String userPrompt) {
+        private String callOpenAI(String userPrompt, Long userId, String endpoint) {
                 String systemPrompt = "You are a professional financial advisor AI. " +
                                 "Analyze user spending and return structured JSON output with: " +
                                 "summary (brief overview), overspendingCategories (categories exceeding typical spending), "
@@ -136,18 +197,12 @@ public class AIService {
                                 userPrompt.replace("\"", "\\\"").replace("\n", "\\n"));
 
                 try {
-                        String response = openAIWebClient.post()
-                                        .uri("/v1/chat/completions")
-                                        .bodyValue(requestBody)
-                                        .retrieve()
-                                        .bodyToMono(String.class)
-                                        .timeout(Duration.ofSeconds(30))
-                                        .block();
-
                         // Extract content from OpenAI response
-                        JsonNode root = objectMapper.readTree(response);
+                        JsonNode root = postCompletion(requestBody, userId, endpoint);
                         return root.path("choices").get(0)
                                         .path("message").path("content").asText();
+                } catch (DeadlineExceededException e) {
+                        throw e;
                 } catch (Exception e) {
                         log.error("OpenAI API call failed", e);
                         throw new RuntimeException("Failed to get AI analysis", e);
@@ -167,25 +222,50 @@ public class AIService {
         }
 
         /**
-         * Build fallback response if AI call fails.
+         * Send one chat completion request and record its token usage, both
+         * against the user's quota and as a JFR event.
+         */
+        private JsonNode postCompletion(String requestBody, Long userId, String endpoint) throws IOException {
+                AICallEvent event = new AICallEvent();
+                event.begin();
+                try {
+                        String response = openAIWebClient.post()
+                                        .uri("/v1/chat/completions")
+                                        .bodyValue(requestBody)
+                                        .retrieve()
+                                        .bodyToMono(String.class)
+                                        // Never outlive the request waiting for the answer
+                                        .timeout(RequestDeadline.timeout(UPSTREAM_TIMEOUT))
+                                        .block();
+
+                        JsonNode root = objectMapper.readTree(response);
+                        JsonNode usage = root.path("usage");
+                        event.promptTokens = usage.path("prompt_tokens").asLong();
+                        event.completionTokens = usage.path("completion_tokens").asLong();
+                        event.succeeded = true;
+                        aiUsageService.recordUsage(userId, endpoint, event.promptTokens, event.completionTokens);
+                        return root;
+                } catch (RuntimeException e) {
+                        // A timeout shortened to the request deadline means the request ran out of time
+                        if (Exceptions.unwrap(e) instanceof TimeoutException) {
+                                RequestDeadline.check();
+                        }
+                        throw e;
+                } finally {
+                        event.end();
+                        if (event.shouldCommit()) {
+                                event.endpoint = endpoint;
+                                event.model = model;
+                                event.commit();
+                        }
+                }
+        }
+
+        /**
+         * Count a request answered without OpenAI because the upstream call failed.
          */
-        private AIAnalysisResponseDTO buildFallbackResponse(double total, Map<String, Double> breakdown) {
-                List<String> topCategories = breakdown.entrySet().stream()
-                                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                                .limit(2)
-                                .map(Map.Entry::getKey)
-                                .collect(Collectors.toList());
-
-                return AIAnalysisResponseDTO.builder()
-                                .summary("Unable to generate AI analysis at this time. Total spending: $" +
-                                                String.format("%.2f", total))
-                                .overspendingCategories(topCategories)
-                                .recommendations(List.of(
-                                                "Track your expenses regularly",
-                                                "Set a monthly budget",
-                                                "Review spending patterns weekly"))
-                                .nextMonthPrediction("Based on current trends, maintain similar spending levels")
-                                .build();
+        private void countFallback(String endpoint) {
+                meterRegistry.counter("spendwise.ai.fallbacks", "endpoint", endpoint).increment();
         }
 
         /**
@@ -204,13 +284,17 @@ public class AIService {
          * Get chat response from AI.
          */
         public com.spendwise.dto.ChatResponseDTO getChatResponse(com.spendwise.dto.ChatRequestDTO request) {
+                Long userId = getCurrentUser().getId();
                 try {
-                        String aiResponse = callChatOpenAI(request.getMessages());
+                        String aiResponse = callChatOpenAI(request.getMessages(), userId);
                         return com.spendwise.dto.ChatResponseDTO.builder()
                                         .message(aiResponse)
                                         .build();
+                } catch (QuotaExceededException | DeadlineExceededException | QueryTimeoutException e) {
+                        throw e;
                 } catch (Exception e) {
                         log.error("Error in AI Chat", e);
+                        countFallback(AIUsageService.ENDPOINT_CHAT);
                         return com.spendwise.dto.ChatResponseDTO.builder()
                                         .message("I apologize, but I am unable to respond at the moment. Please try again later.")
                                         .build();
@@ -219,13 +303,19 @@ public class AIService {
 
         /**
          * Call OpenAI Chat Completion API for conversation.
+         * The model may call spending lookup tools; their results are appended
+         * and the conversation is resent until it answers in plain text.
+         * Every round is billed, so the quota is checked before each one.
          */
-        private String callChatOpenAI(List<com.spendwise.dto.ChatRequestDTO.ChatMessage> messages) {
+        private String callChatOpenAI(List<com.spendwise.dto.ChatRequestDTO.ChatMessage> messages, Long userId) {
                 String systemPrompt = "You are a helpful financial assistant for the SpendWise application. " +
                                 "You help users with budgeting, expense tracking, and financial advice. " +
-                                "Be concise, friendly, and professional.";
+                                "Be concise, friendly, and professional. " +
+                                "Today is " + LocalDate.now() + ". Amounts are in Indian rupees (₹). " +
+                                "When a question depends on the user's own spending, budgets or subscriptions, " +
+                                "use the provided tools to look up the exact figures instead of guessing.";
 
-                List<Map<String, String>> apiMessages = new ArrayList<>();
+                List<Object> apiMessages = new ArrayList<>();
                 apiMessages.add(Map.of("role", "system", "content", systemPrompt));
 
                 for (com.spendwise.dto.ChatRequestDTO.ChatMessage msg : messages) {
@@ -233,27 +323,50 @@ public class AIService {
                 }
 
                 try {
-                        Map<String, Object> requestBodyMap = Map.of(
-                                        "model", model,
-                                        "temperature", 0.7,
-                                        "messages", apiMessages);
-
-                        String requestBody = objectMapper.writeValueAsString(requestBodyMap);
-
-                        String response = openAIWebClient.post()
-                                        .uri("/v1/chat/completions")
-                                        .bodyValue(requestBody)
-                                        .retrieve()
-                                        .bodyToMono(String.class)
-                                        .timeout(Duration.ofSeconds(30))
-                                        .block();
+                        for (int round = 0;; round++) {
+                                aiUsageService.checkQuota(userId);
+
+                                // Force a plain answer once the tool round budget is spent
+                                boolean toolsAllowed = round < MAX_TOOL_ROUNDS;
+
+                                Map<String, Object> requestBodyMap = Map.of(
+                                                "model", model,
+                                                "temperature", 0.7,
+                                                "messages", apiMessages,
+                                                "tools", chatToolService.getToolDefinitions(),
+                                                "tool_choice", toolsAllowed ? "auto" : "none");
+
+                                String requestBody = objectMapper.writeValueAsString(requestBodyMap);
+                                JsonNode root = postCompletion(requestBody, userId, AIUsageService.ENDPOINT_CHAT);
+
+                                JsonNode message = root.path("choices").get(0).path("message");
+                                JsonNode toolCalls = message.path("tool_calls");
+                                if (!toolsAllowed || !toolCalls.isArray() || toolCalls.isEmpty()) {
+                                        return message.path("content").asText();
+                                }
 
-                        JsonNode root = objectMapper.readTree(response);
-                        return root.path("choices").get(0)
-                                        .path("message").path("content").asText();
+                                apiMessages.add(message);
+                                for (JsonNode toolCall : toolCalls) {
+                                        JsonNode function = toolCall.path("function");
+                                        Map<String, Object> result = chatToolService.execute(
+                                                        function.path("name").asText(),
+                                                        objectMapper.readTree(function.path("arguments").asText("{}")),
+                                                        userId);
+                                        log.debug("Chat tool {} executed for user {}", function.path("name").asText(), userId);
+                                        apiMessages.add(Map.of(
+                                                        "role", "tool",
+                                                        "tool_call_id", toolCall.path("id").asText(),
+                                                        "content", objectMapper.writeValueAsString(result)));
+                                }
+                        }
+                } catch (QuotaExceededException | DeadlineExceededException | QueryTimeoutException e) {
+                        throw e;
                 } catch (Exception e) {
                         log.error("OpenAI Chat API call failed", e);
                         throw new RuntimeException("Failed to get AI chat response", e);
                 }
         }
+
+        private record MonthlySpending(Map<String, Double> categoryBreakdown, long count) {
+        }
 }
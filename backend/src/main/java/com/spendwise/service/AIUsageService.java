@@ -0,0 +1,273 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ShardContext;
+import com.spendwise.datasource.ShardDirectory;
+import com.spendwise.dto.AIUsageResponseDTO;
+import com.spendwise.entity.AIUsage;
+import com.spendwise.entity.User;
+import com.spendwise.exception.QuotaExceededException;
+import com.spendwise.repository.AIUsageDelta;
+import com.spendwise.repository.AIUsageRepository;
+import com.spendwise.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Service for metering OpenAI token usage per user and endpoint.
+ * Usage is accumulated in striped in-memory counters and merged into the
+ * database in batches by a scheduled flush, so recording never waits on a write.
+ * Daily quotas are enforced against a per-user running total that is seeded
+ * from the database once per day and is exact per application instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIUsageService {
+
+    public static final String ENDPOINT_ANALYZE = "analyze";
+    public static final String ENDPOINT_CHAT = "chat";
+    public static final String ENDPOINT_INSIGHTS_BATCH = "insights-batch";
+
+    private static final List<String> ENDPOINTS = List.of(ENDPOINT_ANALYZE, ENDPOINT_CHAT, ENDPOINT_INSIGHTS_BATCH);
+
+    private final AIUsageRepository aiUsageRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+
+    /**
+     * Daily token quota per user, 0 or less disables the quota
+     */
+    @Value("${openai.quota.daily-tokens:50000}")
+    private long dailyTokenQuota;
+
+    private final ConcurrentMap<UsageKey, UsageCounter> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, DailyTotal> dailyTotals = new ConcurrentHashMap<>();
+
+    /**
+     * Ensure the user still has quota left for today.
+     *
+     * @param userId the user's ID
+     * @throws QuotaExceededException if the daily token quota is used up
+     */
+    public void checkQuota(Long userId) {
+        if (dailyTokenQuota <= 0) {
+            return;
+        }
+        long used = dailyTotal(userId, LocalDate.now()).tokens.sum();
+        if (used >= dailyTokenQuota) {
+            throw new QuotaExceededException(String.format(
+                    "Daily AI token quota of %d exceeded, try again tomorrow", dailyTokenQuota));
+        }
+    }
+
+    /**
+     * Record the token usage of a single completion.
+     *
+     * @param userId           the user's ID
+     * @param endpoint         the AI endpoint that issued the completion
+     * @param promptTokens     prompt tokens reported by OpenAI
+     * @param completionTokens completion tokens reported by OpenAI
+     */
+    public void recordUsage(Long userId, String endpoint, long promptTokens, long completionTokens) {
+        LocalDate today = LocalDate.now();
+        pending.computeIfAbsent(new UsageKey(userId, endpoint, today), key -> new UsageCounter())
+                .add(promptTokens, completionTokens, 1);
+        dailyTotal(userId, today).tokens.add(promptTokens + completionTokens);
+    }
+
+    /**
+     * Get today's usage for the logged-in user, including unflushed counters.
+     *
+     * @return usage response
+     */
+    @Transactional(readOnly = true)
+    public AIUsageResponseDTO getCurrentUsage() {
+        Long userId = getCurrentUser().getId();
+        LocalDate today = LocalDate.now();
+
+        Map<String, long[]> byEndpoint = new LinkedHashMap<>();
+        for (AIUsage usage : aiUsageRepository.findByUserIdAndUsageDate(userId, today)) {
+            long[] totals = byEndpoint.computeIfAbsent(usage.getEndpoint(), e -> new long[2]);
+            totals[0] += usage.getPromptTokens();
+            totals[1] += usage.getCompletionTokens();
+        }
+        for (String endpoint : ENDPOINTS) {
+            UsageCounter counter = pending.get(new UsageKey(userId, endpoint, today));
+            if (counter != null) {
+                long[] totals = byEndpoint.computeIfAbsent(endpoint, e -> new long[2]);
+                totals[0] += counter.promptTokens.sum();
+                totals[1] += counter.completionTokens.sum();
+            }
+        }
+
+        long promptTokens = 0;
+        long completionTokens = 0;
+        Map<String, Long> tokensByEndpoint = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : byEndpoint.entrySet()) {
+            promptTokens += entry.getValue()[0];
+            completionTokens += entry.getValue()[1];
+            tokensByEndpoint.put(entry.getKey(), entry.getValue()[0] + entry.getValue()[1]);
+        }
+        long totalTokens = promptTokens + completionTokens;
+
+        Long quota = dailyTokenQuota > 0 ? dailyTokenQuota : null;
+        return AIUsageResponseDTO.builder()
+                .date(today)
+                .promptTokens(promptTokens)
+                .completionTokens(completionTokens)
+                .totalTokens(totalTokens)
+                .dailyQuota(quota)
+                .remainingTokens(quota != null ? Math.max(0, quota - totalTokens) : null)
+                .tokensByEndpoint(tokensByEndpoint)
+                .build();
+    }
+
+    /**
+     * Merge all pending counters into the database in one batch per shard.
+     * Counters are restored if a write fails so no usage is lost.
+     */
+    @Scheduled(fixedDelayString = "${openai.usage.flush-interval-ms:10000}")
+    public void flush() {
+        List<AIUsageDelta> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<AIUsageDelta>> deltasByShard;
+        try {
+            deltasByShard = deltas.stream()
+                    .collect(Collectors.groupingBy(delta -> shardDirectory.shardOfUserId(delta.userId())));
+        } catch (Exception e) {
+            log.error("Failed to flush AI usage, retrying on next run", e);
+            restore(deltas);
+            return;
+        }
+        deltasByShard.forEach((shard, shardDeltas) -> {
+            try {
+                ShardContext.run(shard, () -> transactionTemplate.executeWithoutResult(
+                        status -> aiUsageRepository.mergeUsage(shardDeltas)));
+                log.debug("Flushed {} AI usage counters", shardDeltas.size());
+            } catch (Exception e) {
+                log.error("Failed to flush AI usage, retrying on next run", e);
+                restore(shardDeltas);
+            }
+        });
+    }
+
+    private void restore(List<AIUsageDelta> deltas) {
+        deltas.forEach(delta -> pending
+                .computeIfAbsent(new UsageKey(delta.userId(), delta.endpoint(), delta.usageDate()),
+                        key -> new UsageCounter())
+                .add(delta.promptTokens(), delta.completionTokens(), delta.requestCount()));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Reset all pending counters and collect their values.
+     * Counters of past days no longer receive writes and are removed.
+     */
+    private List<AIUsageDelta> drain() {
+        LocalDate today = LocalDate.now();
+        List<AIUsageDelta> deltas = new ArrayList<>();
+        for (Map.Entry<UsageKey, UsageCounter> entry : pending.entrySet()) {
+            UsageKey key = entry.getKey();
+            if (key.usageDate().isBefore(today)) {
+                pending.remove(key);
+            }
+            UsageCounter counter = entry.getValue();
+            long requests = counter.requestCount.sumThenReset();
+            long prompt = counter.promptTokens.sumThenReset();
+            long completion = counter.completionTokens.sumThenReset();
+            if (requests > 0 || prompt > 0 || completion > 0) {
+                deltas.add(new AIUsageDelta(key.userId(), key.endpoint(), key.usageDate(),
+                        prompt, completion, requests));
+            }
+        }
+        dailyTotals.values().removeIf(total -> total.day.isBefore(today));
+        return deltas;
+    }
+
+    /**
+     * Get the running token total of a user for the given day,
+     * seeding it from the database on first access.
+     */
+    private DailyTotal dailyTotal(Long userId, LocalDate day) {
+        DailyTotal total = dailyTotals.get(userId);
+        if (total != null && total.day.equals(day)) {
+            return total;
+        }
+        long seed = aiUsageRepository.sumTokensByUserIdAndUsageDate(userId, day);
+        for (String endpoint : ENDPOINTS) {
+            UsageCounter counter = pending.get(new UsageKey(userId, endpoint, day));
+            if (counter != null) {
+                seed += counter.promptTokens.sum() + counter.completionTokens.sum();
+            }
+        }
+        DailyTotal seeded = new DailyTotal(day, seed);
+        return dailyTotals.compute(userId,
+                (id, existing) -> existing != null && existing.day.equals(day) ? existing : seeded);
+    }
+
+    /**
+     * Get the current logged-in user from security context.
+     *
+     * @return user entity
+     * @throws RuntimeException if user not found
+     */
+    private User getCurrentUser() {
+        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getPrincipal();
+
+        return userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private record UsageKey(Long userId, String endpoint, LocalDate usageDate) {
+    }
+
+    private static final class UsageCounter {
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder requestCount = new LongAdder();
+
+        void add(long prompt, long completion, long requests) {
+            promptTokens.add(prompt);
+            completionTokens.add(completion);
+            requestCount.add(requests);
+        }
+    }
+
+    private static final class DailyTotal {
+        private final LocalDate day;
+        private final LongAdder tokens = new LongAdder();
+
+        DailyTotal(LocalDate day, long seed) {
+            this.day = day;
+            this.tokens.add(seed);
+        }
+    }
+
+}
@@ -1,10 +1,11 @@
 package com.spendwise.service;
 
 import com.spendwise.dto.AnalyticsResponseDTO;
-import com.spendwise.entity.Expense;
 import com.spendwise.entity.User;
+import com.spendwise.repository.CategoryMonthTotal;
 import com.spendwise.repository.ExpenseRepository;
 import com.spendwise.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,16 +26,16 @@ public class AnalyticsService {
     private final UserRepository userRepository;
 
     @Transactional(readOnly = true)
+    @Timed("spendwise.analytics")
     public AnalyticsResponseDTO getAnalytics() {
         User user = getCurrentUser();
 
-        // Get expenses for last 6 months
+        // Spending per category and month for the last 6 months
         LocalDate now = LocalDate.now();
         LocalDate sixMonthsAgo = now.minusMonths(5).withDayOfMonth(1); // Start of 6 months ago
 
-        List<Expense> expenses = expenseRepository.findByUserId(user.getId()).stream()
-                .filter(e -> !e.getDate().isBefore(sixMonthsAgo))
-                .collect(Collectors.toList());
+        List<CategoryMonthTotal> totals = expenseRepository.sumAmountByCategoryAndMonth(
+                user.getId(), sixMonthsAgo, YearMonth.from(now).atEndOfMonth());
 
         // 1. Monthly Trend
         Map<String, Double> monthlyTrend = new LinkedHashMap<>();
@@ -45,16 +47,16 @@ public class AnalyticsService {
             monthlyTrend.put(date.format(formatter), 0.0);
         }
 
-        expenses.forEach(e -> {
-            String key = e.getDate().format(formatter);
-            monthlyTrend.put(key, monthlyTrend.getOrDefault(key, 0.0) + e.getAmount());
+        totals.forEach(t -> {
+            String key = YearMonth.of(t.getSpendYear(), t.getSpendMonth()).format(formatter);
+            monthlyTrend.put(key, monthlyTrend.getOrDefault(key, 0.0) + t.getTotal());
         });
 
         // 2. Category Breakdown (Current Month)
-        Map<String, Double> categoryBreakdown = expenses.stream()
+        Map<String, Double> categoryBreakdown = totals.stream()
                 .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)));
+                        CategoryMonthTotal::getCategory,
+                        Collectors.summingDouble(CategoryMonthTotal::getTotal)));
 
         // 3. Month Over Month Change (Last Month vs Current Month)
         // Caution: logic needs to separate current month (incomplete) vs last month?
@@ -78,7 +80,7 @@ public class AnalyticsService {
                                                       // current month?
                 // Let's make it ALL time breakdown or 6 months breakdown. 6 months seems good
                 // for general spending habits.
-                .totalSpent(expenses.stream().mapToDouble(Expense::getAmount).sum())
+                .totalSpent(totals.stream().mapToDouble(CategoryMonthTotal::getTotal).sum())
                 .monthOverMonthChange(change)
                 .build();
     }
@@ -1,5 +1,7 @@
 package com.spendwise.service;
 
+import com.spendwise.datasource.ShardContext;
+import com.spendwise.datasource.ShardDirectory;
 import com.spendwise.dto.AuthResponse;
 import com.spendwise.dto.LoginRequest;
 import com.spendwise.dto.RegisterRequest;
@@ -30,9 +32,10 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final ShardDirectory shardDirectory;
 
     /**
-     * Register a new user.
+     * Register a new user on the shard with the fewest users.
      *
      * @param request registration request
      * @return authentication response with JWT token
@@ -40,13 +43,19 @@ public class AuthService {
      */
     @Transactional
     public AuthResponse register(RegisterRequest request) {
+        int shard = shardDirectory.placeNewUser();
+        return ShardContext.call(shard, () -> register(request, shard));
+    }
+
+    private AuthResponse register(RegisterRequest request, int shard) {
         // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userRepository.existsByUsername(request.getUsername())
+                || shardDirectory.isUsernameTaken(request.getUsername())) {
             throw new RuntimeException("Username is already taken");
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(request.getEmail()) || shardDirectory.isEmailTaken(request.getEmail())) {
             throw new RuntimeException("Email is already in use");
         }
 
@@ -61,6 +70,7 @@ public class AuthService {
 
         // Save user to database
         User savedUser = userRepository.save(user);
+        shardDirectory.register(savedUser, shard);
 
         // Generate JWT token
         UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
@@ -88,6 +98,10 @@ public class AuthService {
      */
     @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
+        return shardDirectory.callAsUser(request.getUsername(), () -> authenticate(request));
+    }
+
+    private AuthResponse authenticate(LoginRequest request) {
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
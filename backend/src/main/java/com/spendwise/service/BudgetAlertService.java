@@ -0,0 +1,171 @@
+package com.spendwise.service;
+
+import com.spendwise.entity.Expense;
+import com.spendwise.entity.SpendingLimit;
+import com.spendwise.entity.User;
+import com.spendwise.instrumentation.BudgetAlertEvent;
+import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.CategoryBudgetRepository;
+import com.spendwise.repository.ExpenseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the running spent total of budgets and fires threshold alerts.
+ * Each expense change applies a delta to the overall budget of its month and
+ * to the budget of its category only, under row locks, so no SUM query runs on
+ * the write path. An alert is queued only when a configured threshold is
+ * crossed for the first time in the month, and the crossing is stored on the
+ * budget so every threshold alerts exactly once, until a change of the limit
+ * or carry-in takes the budget back below it. Changes to the overall budget
+ * are then carried forward into following rollover months.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BudgetAlertService {
+
+    public static final String OVERALL_BUDGET = "Overall Monthly Budget";
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryBudgetRepository categoryBudgetRepository;
+    private final ExpenseRepository expenseRepository;
+    private final EmailService emailService;
+    private final BudgetRolloverService budgetRolloverService;
+    private final BudgetAlertThresholds budgetAlertThresholds;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Apply a newly created expense to its month's budgets.
+     *
+     * @param expense the saved expense
+     */
+    @Transactional
+    public void onExpenseCreated(Expense expense) {
+        apply(expense.getUser(), expense.getDate(), expense.getCategory(), expense.getAmount(), expense.getAmount());
+    }
+
+    /**
+     * Apply a batch of newly created expenses, e.g. materialized recurring charges.
+     * Amounts are summed per user, month and category first, so each affected
+     * budget is locked and updated once per batch.
+     *
+     * @param expenses the saved expenses
+     */
+    @Transactional
+    public void onExpensesCreated(List<Expense> expenses) {
+        Map<List<Object>, Expense> representatives = new LinkedHashMap<>();
+        Map<List<Object>, Double> totals = new HashMap<>();
+        for (Expense expense : expenses) {
+            List<Object> key = List.of(expense.getUser().getId(), YearMonth.from(expense.getDate()),
+                    expense.getCategory());
+            representatives.putIfAbsent(key, expense);
+            totals.merge(key, expense.getAmount(), Double::sum);
+        }
+        representatives.forEach((key, expense) -> apply(expense.getUser(), expense.getDate(),
+                expense.getCategory(), totals.get(key), totals.get(key)));
+    }
+
+    /**
+     * Apply an edited expense, moving its amount between months or categories if needed.
+     *
+     * @param previousDate     the expense date before the edit
+     * @param previousCategory the expense category before the edit
+     * @param previousAmount   the expense amount before the edit
+     * @param expense          the updated expense
+     */
+    @Transactional
+    public void onExpenseUpdated(LocalDate previousDate, String previousCategory, Double previousAmount,
+            Expense expense) {
+        if (sameMonth(previousDate, expense.getDate()) && previousCategory.equals(expense.getCategory())) {
+            double delta = expense.getAmount() - previousAmount;
+            if (delta != 0) {
+                apply(expense.getUser(), expense.getDate(), expense.getCategory(), delta, expense.getAmount());
+            }
+            return;
+        }
+        apply(expense.getUser(), previousDate, previousCategory, -previousAmount, null);
+        apply(expense.getUser(), expense.getDate(), expense.getCategory(), expense.getAmount(), expense.getAmount());
+    }
+
+    /**
+     * Remove a deleted expense from its month's budgets.
+     *
+     * @param expense the deleted expense
+     */
+    @Transactional
+    public void onExpenseDeleted(Expense expense) {
+        apply(expense.getUser(), expense.getDate(), expense.getCategory(), -expense.getAmount(), null);
+    }
+
+    private void apply(User user, LocalDate date, String category, double delta, Double transactionAmount) {
+        Integer month = date.getMonthValue();
+        Integer year = date.getYear();
+
+        budgetRepository.findForUpdate(user.getId(), month, year).ifPresent(budget -> {
+            applyDelta(budget, user, OVERALL_BUDGET, delta, transactionAmount,
+                    () -> expenseRepository.sumAmountByUserIdAndMonthAndYear(user.getId(), month, year));
+            budgetRepository.save(budget);
+            budgetRolloverService.onClosingBalanceChanged(budget);
+        });
+
+        categoryBudgetRepository.findForUpdate(user.getId(), month, year, category).ifPresent(budget -> {
+            applyDelta(budget, user, category, delta, transactionAmount,
+                    () -> expenseRepository.sumAmountByUserIdAndCategoryAndMonthAndYear(
+                            user.getId(), category, month, year));
+            categoryBudgetRepository.save(budget);
+        });
+    }
+
+    private void applyDelta(SpendingLimit budget, User user, String label, double delta, Double transactionAmount,
+            Supplier<Double> initialTotal) {
+        double spent;
+        if (budget.getSpentAmount() == null) {
+            // Budgets created before running totals existed are initialized once;
+            // the sum already includes the current change
+            spent = initialTotal.get();
+        } else {
+            spent = budget.getSpentAmount() + delta;
+        }
+        budget.setSpentAmount(Math.max(0.0, spent));
+
+        int reached = budgetAlertThresholds.reached(budget.usagePercentage(budget.getSpentAmount()));
+        if (transactionAmount != null && reached > budget.getAlertedThreshold()) {
+            budget.setAlertedThreshold(reached);
+            emailService.queueBudgetAlert(
+                    user.getEmail(),
+                    label,
+                    reached,
+                    transactionAmount,
+                    budget.getAvailableAmount(),
+                    budget.getSpentAmount());
+            meterRegistry.counter("spendwise.budget.alerts", "threshold", String.valueOf(reached)).increment();
+            BudgetAlertEvent event = new BudgetAlertEvent();
+            if (event.shouldCommit()) {
+                event.userId = user.getId();
+                event.budget = label;
+                event.threshold = reached;
+                event.spentAmount = budget.getSpentAmount();
+                event.availableAmount = budget.getAvailableAmount();
+                event.commit();
+            }
+            log.debug("{} budget {} crossed {}% threshold", label, budget.getId(), reached);
+        }
+    }
+
+    private boolean sameMonth(LocalDate a, LocalDate b) {
+        return a.getYear() == b.getYear() && a.getMonthValue() == b.getMonthValue();
+    }
+
+}
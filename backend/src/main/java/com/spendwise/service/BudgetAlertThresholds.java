@@ -0,0 +1,60 @@
+package com.spendwise.service;
+
+import com.spendwise.entity.SpendingLimit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Usage percentages at which budget alerts fire, and the alert state a
+ * budget keeps so each threshold alerts once per crossing.
+ */
+@Component
+public class BudgetAlertThresholds {
+
+    /**
+     * Usage percentages that trigger an alert, ascending
+     */
+    @Value("${budget.alert.thresholds:50,80,100,120}")
+    private List<Integer> thresholds;
+
+    /**
+     * Highest threshold reached at the given usage, or 0 if none.
+     *
+     * @param usagePercentage spent amount as percent of the available amount
+     * @return threshold percent
+     */
+    public int reached(double usagePercentage) {
+        int reached = 0;
+        for (int threshold : thresholds) {
+            if (usagePercentage >= threshold) {
+                reached = Math.max(reached, threshold);
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Re-arm the alerts of a budget whose available amount changed, by
+     * lowering its alerted threshold to the highest one its usage still
+     * reaches. Thresholds it fell back below alert again when next crossed;
+     * thresholds a lower limit pushed it past alert with the next expense.
+     *
+     * @param budget budget whose limit or carry-in changed
+     * @return true if the alert state changed
+     */
+    public boolean rearm(SpendingLimit budget) {
+        if (budget.getSpentAmount() == null) {
+            // Alert state is settled when the running total is first computed
+            return false;
+        }
+        int reached = reached(budget.usagePercentage(budget.getSpentAmount()));
+        if (reached >= budget.getAlertedThreshold()) {
+            return false;
+        }
+        budget.setAlertedThreshold(reached);
+        return true;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.spendwise.service;
+
+import com.spendwise.entity.Budget;
+import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.ExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+
+/**
+ * Maintains the stored carry-in of rollover (envelope) budgets.
+ * A rollover budget starts its month with the closing balance of the previous
+ * month's budget: unspent money carries forward, overspending carries as debt.
+ * Changes are pushed forward one month at a time from the stored balances and
+ * stop at the first month whose carry-in is unaffected, so no prior month is
+ * ever re-summed and reading any month stays O(1).
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetRolloverService {
+
+    private final BudgetRepository budgetRepository;
+    private final ExpenseRepository expenseRepository;
+    private final BudgetAlertThresholds budgetAlertThresholds;
+
+    /**
+     * Recompute a budget's own carry-in, e.g. after it was created, its limit
+     * changed or rollover was toggled, re-arm its alerts for the new available
+     * amount and push the result forward.
+     *
+     * @param budget the changed budget
+     */
+    @Transactional
+    public void refresh(Budget budget) {
+        Long userId = budget.getUser().getId();
+        YearMonth previousMonth = monthOf(budget).minusMonths(1);
+        Budget previous = budgetRepository.findByUserIdAndMonthAndYear(
+                userId, previousMonth.getMonthValue(), previousMonth.getYear()).orElse(null);
+
+        budget.setCarryIn(carryInFrom(previous, budget));
+        budgetAlertThresholds.rearm(budget);
+        budgetRepository.save(budget);
+        propagate(budget, userId, monthOf(budget).plusMonths(1));
+    }
+
+    /**
+     * Push a change of a budget's closing balance (spent amount, limit or
+     * carry-in) into the following rollover months.
+     *
+     * @param budget the budget whose closing balance changed
+     */
+    @Transactional
+    public void onClosingBalanceChanged(Budget budget) {
+        propagate(budget, budget.getUser().getId(), monthOf(budget).plusMonths(1));
+    }
+
+    /**
+     * Clear the carry-in that the following months received from a deleted budget.
+     *
+     * @param userId the user's ID
+     * @param month  the month of the deleted budget
+     */
+    @Transactional
+    public void onBudgetRemoved(Long userId, YearMonth month) {
+        propagate(null, userId, month.plusMonths(1));
+    }
+
+    /**
+     * Closing balance of a budget: what is left of its limit plus carry-in.
+     *
+     * @param budget the budget
+     * @return closing balance, negative when overspent
+     */
+    public double closingBalance(Budget budget) {
+        return budget.getAvailableAmount() - spentOf(budget);
+    }
+
+    /**
+     * Walk forward from {@code month}, locking each budget in ascending order,
+     * until the chain breaks or a carry-in is already correct.
+     */
+    private void propagate(Budget previous, Long userId, YearMonth month) {
+        while (true) {
+            Budget current = budgetRepository.findForUpdate(userId, month.getMonthValue(), month.getYear())
+                    .orElse(null);
+            if (current == null) {
+                return;
+            }
+            double carryIn = carryInFrom(previous, current);
+            if (Double.compare(carryIn, current.getCarryIn()) == 0) {
+                return;
+            }
+            current.setCarryIn(carryIn);
+            budgetAlertThresholds.rearm(current);
+            budgetRepository.save(current);
+            previous = current;
+            month = month.plusMonths(1);
+        }
+    }
+
+    private double carryInFrom(Budget previous, Budget budget) {
+        if (!budget.getRolloverEnabled() || previous == null) {
+            return 0.0;
+        }
+        return closingBalance(previous);
+    }
+
+    private double spentOf(Budget budget) {
+        if (budget.getSpentAmount() != null) {
+            return budget.getSpentAmount();
+        }
+        // Budgets created before running totals existed
+        return expenseRepository.sumAmountByUserIdAndMonthAndYear(
+                budget.getUser().getId(), budget.getMonth(), budget.getYear());
+    }
+
+    private static YearMonth monthOf(Budget budget) {
+        return YearMonth.of(budget.getYear(), budget.getMonth());
+    }
+
+}
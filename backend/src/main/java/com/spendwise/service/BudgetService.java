@@ -3,9 +3,13 @@ package com.spendwise.service;
 import com.spendwise.dto.BudgetRequestDTO;
 import com.spendwise.dto.BudgetResponseDTO;
 import com.spendwise.entity.Budget;
+import com.spendwise.entity.CategoryBudget;
 import com.spendwise.entity.User;
+import com.spendwise.exception.BadRequestException;
 import com.spendwise.exception.ResourceNotFoundException;
 import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.CategoryBudgetRepository;
+import com.spendwise.repository.CategoryMonthTotal;
 import com.spendwise.repository.ExpenseRepository;
 import com.spendwise.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,25 +17,40 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Service for managing budget operations.
- * Handles budget creation, updates, and expense analytics.
+ * Handles overall and per-category budget creation, updates, and expense analytics.
  */
 @Service
 @RequiredArgsConstructor
 public class BudgetService {
 
+    /** Longest month range served by a single range request. */
+    private static final int MAX_RANGE_MONTHS = 120;
+
     private final BudgetRepository budgetRepository;
+    private final CategoryBudgetRepository categoryBudgetRepository;
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final BudgetRolloverService budgetRolloverService;
+    private final BudgetAlertThresholds budgetAlertThresholds;
 
     /**
      * Create or update a budget for the logged-in user.
-     * If budget exists for the month/year, it updates the limit.
-     * Otherwise, creates a new budget.
+     * If budget exists for the month/year (and category), it updates the limit.
+     * Otherwise, creates a new budget. Both cases are a single atomic upsert.
      *
      * @param requestDTO budget request data
      * @return budget response with analytics
@@ -44,27 +63,33 @@ public class BudgetService {
         Integer month = requestDTO.getMonth() != null ? requestDTO.getMonth() : LocalDate.now().getMonthValue();
         Integer year = requestDTO.getYear() != null ? requestDTO.getYear() : LocalDate.now().getYear();
 
-        // Check if budget already exists
-        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(currentUser.getId(), month, year)
-                .orElse(null);
-
-        if (budget != null) {
-            // Update existing budget
-            budget.setMonthlyLimit(requestDTO.getMonthlyLimit());
-        } else {
-            // Create new budget
-            budget = Budget.builder()
-                    .monthlyLimit(requestDTO.getMonthlyLimit())
-                    .month(month)
-                    .year(year)
-                    .user(currentUser)
-                    .build();
+        if (StringUtils.hasText(requestDTO.getCategory())) {
+            return createOrUpdateCategoryBudget(currentUser, requestDTO.getCategory().trim(),
+                    requestDTO.getMonthlyLimit(), month, year);
         }
 
-        Budget savedBudget = budgetRepository.save(budget);
+        // Insert or update in one statement, seeding the running total of a new budget
+        YearMonth yearMonth = requestedMonth(year, month);
+        Budget savedBudget = budgetRepository.upsert(currentUser.getId(), month, year,
+                requestDTO.getMonthlyLimit(), requestDTO.getRollover(),
+                yearMonth.atDay(1), yearMonth.atEndOfMonth(), LocalDateTime.now());
+        budgetRolloverService.refresh(savedBudget);
+        userRepository.incrementDataVersion(currentUser.getId());
         return buildResponseDTO(savedBudget);
     }
 
+    private BudgetResponseDTO createOrUpdateCategoryBudget(User currentUser, String category, Double monthlyLimit,
+            Integer month, Integer year) {
+        YearMonth yearMonth = requestedMonth(year, month);
+        CategoryBudget savedBudget = categoryBudgetRepository.upsert(currentUser.getId(), month, year, category,
+                monthlyLimit, yearMonth.atDay(1), yearMonth.atEndOfMonth(), LocalDateTime.now());
+        if (budgetAlertThresholds.rearm(savedBudget)) {
+            categoryBudgetRepository.save(savedBudget);
+        }
+        userRepository.incrementDataVersion(currentUser.getId());
+        return buildCategoryResponseDTO(savedBudget, savedBudget.getSpentAmount());
+    }
+
     /**
      * Get budget for the current month with analytics.
      *
@@ -78,20 +103,108 @@ public class BudgetService {
     }
 
     /**
-     * Get budget for a specific month and year with analytics.
+     * Get the overall and category budgets for a specific month and year with analytics.
      *
      * @param month the month (1-12)
      * @param year  the year
-     * @return budget response with analytics
-     * @throws ResourceNotFoundException if budget not found
+     * @return overall budget response with category budgets attached
+     * @throws ResourceNotFoundException if no budget exists for the month
      */
     @Transactional(readOnly = true)
     public BudgetResponseDTO getBudgetByMonthAndYear(Integer month, Integer year) {
-        Long userId = getCurrentUserId();
-        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year)
-                .orElseThrow(() -> new ResourceNotFoundException("Budget", "month/year", month + "/" + year));
+        YearMonth yearMonth = requestedMonth(year, month);
+        List<BudgetResponseDTO> responses = buildMonthlyResponses(getCurrentUserId(), yearMonth, yearMonth);
+        if (responses.isEmpty()) {
+            throw new ResourceNotFoundException("Budget", "month/year", month + "/" + year);
+        }
+        return responses.get(0);
+    }
+
+    /**
+     * Get the budgets of every month in a range with analytics, oldest first.
+     * Months without any budget are omitted.
+     *
+     * @param from first month of the range (inclusive)
+     * @param to   last month of the range (inclusive)
+     * @return one overall budget response per month, with category budgets attached
+     * @throws BadRequestException if the range is reversed or too long
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetResponseDTO> getBudgetsInRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Range start " + from + " is after range end " + to);
+        }
+        if (monthIndex(to) - monthIndex(from) >= MAX_RANGE_MONTHS) {
+            throw new BadRequestException("Range must not exceed " + MAX_RANGE_MONTHS + " months");
+        }
+        return buildMonthlyResponses(getCurrentUserId(), from, to);
+    }
 
-        return buildResponseDTO(budget);
+    /**
+     * Month named by a request.
+     *
+     * @param year  the year
+     * @param month the month (1-12)
+     * @return the month
+     * @throws BadRequestException if the month or year is out of range
+     */
+    public static YearMonth requestedMonth(int year, int month) {
+        try {
+            return YearMonth.of(year, month);
+        } catch (DateTimeException e) {
+            throw new BadRequestException("Invalid month " + month + "/" + year);
+        }
+    }
+
+    /**
+     * Assemble the budget responses of a month range with a fixed number of queries:
+     * one for overall budgets, one for category budgets and, only when some budget
+     * has no running total yet, one grouped spending query covering the whole range.
+     */
+    private List<BudgetResponseDTO> buildMonthlyResponses(Long userId, YearMonth from, YearMonth to) {
+        List<Budget> budgets = budgetRepository.findInRange(userId, monthIndex(from), monthIndex(to));
+        List<CategoryBudget> categoryBudgets = categoryBudgetRepository
+                .findInRange(userId, monthIndex(from), monthIndex(to));
+
+        Map<YearMonth, Map<String, Double>> spent = Map.of();
+        boolean needsAggregate = budgets.stream().anyMatch(b -> b.getSpentAmount() == null)
+                || categoryBudgets.stream().anyMatch(b -> b.getSpentAmount() == null);
+        if (needsAggregate) {
+            spent = new HashMap<>();
+            for (CategoryMonthTotal total : expenseRepository.sumAmountByCategoryAndMonth(
+                    userId, from.atDay(1), to.atEndOfMonth())) {
+                spent.computeIfAbsent(YearMonth.of(total.getSpendYear(), total.getSpendMonth()), k -> new HashMap<>())
+                        .put(total.getCategory(), total.getTotal());
+            }
+        }
+
+        Map<YearMonth, BudgetResponseDTO> byMonth = new TreeMap<>();
+        for (Budget budget : budgets) {
+            YearMonth yearMonth = YearMonth.of(budget.getYear(), budget.getMonth());
+            Double totalSpent = budget.getSpentAmount() != null ? budget.getSpentAmount()
+                    : spent.getOrDefault(yearMonth, Map.of()).values().stream()
+                            .mapToDouble(Double::doubleValue).sum();
+            BudgetResponseDTO response = buildResponseDTO(budget, totalSpent);
+            response.setCategoryBudgets(new ArrayList<>());
+            byMonth.put(yearMonth, response);
+        }
+        for (CategoryBudget budget : categoryBudgets) {
+            YearMonth yearMonth = YearMonth.of(budget.getYear(), budget.getMonth());
+            Double totalSpent = budget.getSpentAmount() != null ? budget.getSpentAmount()
+                    : spent.getOrDefault(yearMonth, Map.of()).getOrDefault(budget.getCategory(), 0.0);
+            byMonth.computeIfAbsent(yearMonth, k -> BudgetResponseDTO.builder()
+                            .month(k.getMonthValue())
+                            .year(k.getYear())
+                            .categoryBudgets(new ArrayList<>())
+                            .build())
+                    .getCategoryBudgets()
+                    .add(buildCategoryResponseDTO(budget, totalSpent));
+        }
+        return new ArrayList<>(byMonth.values());
+    }
+
+    private static int monthIndex(YearMonth yearMonth) {
+        return yearMonth.getYear() * 12 + yearMonth.getMonthValue();
     }
 
     @Transactional(readOnly = true)
@@ -102,53 +215,68 @@ public class BudgetService {
                 .orElse(null);
     }
 
-    /**
-     * Build response DTO with calculated analytics.
-     *
-     * @param budget the budget entity
-     * @return budget response DTO with analytics
-     */
     /**
      * Delete a budget for a specific month and year.
      *
-     * @param month the month (1-12)
-     * @param year  the year
+     * @param month    the month (1-12)
+     * @param year     the year
+     * @param category the category of a category budget, or null for the overall budget
      */
     @Transactional
-    public void deleteBudget(Integer month, Integer year) {
+    public void deleteBudget(Integer month, Integer year, String category) {
         Long userId = getCurrentUserId();
-        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year)
-                .orElseThrow(() -> new ResourceNotFoundException("Budget", "month/year", month + "/" + year));
-        budgetRepository.delete(budget);
+        if (StringUtils.hasText(category)) {
+            CategoryBudget budget = categoryBudgetRepository
+                    .findByUserIdAndMonthAndYearAndCategory(userId, month, year, category.trim())
+                    .orElseThrow(() -> new ResourceNotFoundException("Budget", "month/year/category",
+                            month + "/" + year + "/" + category));
+            categoryBudgetRepository.delete(budget);
+        } else {
+            Budget budget = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year)
+                    .orElseThrow(() -> new ResourceNotFoundException("Budget", "month/year", month + "/" + year));
+            budgetRepository.delete(budget);
+            budgetRolloverService.onBudgetRemoved(userId, YearMonth.of(year, month));
+        }
+        userRepository.incrementDataVersion(userId);
     }
 
+    /**
+     * Build response DTO with calculated analytics.
+     *
+     * @param budget the budget entity
+     * @return budget response DTO with analytics
+     */
     private BudgetResponseDTO buildResponseDTO(Budget budget) {
-        // Calculate total spent for the month
-        Double totalSpent = expenseRepository.sumAmountByUserIdAndMonthAndYear(
-                budget.getUser().getId(),
-                budget.getMonth(),
-                budget.getYear());
+        // Use the running total, summing only for budgets not yet initialized
+        Double totalSpent = budget.getSpentAmount() != null
+                ? budget.getSpentAmount()
+                : expenseRepository.sumAmountByUserIdAndMonthAndYear(
+                        budget.getUser().getId(),
+                        budget.getMonth(),
+                        budget.getYear());
+        return buildResponseDTO(budget, totalSpent);
+    }
 
+    private BudgetResponseDTO buildResponseDTO(Budget budget, Double totalSpent) {
         // Handle null if no expenses found
         if (totalSpent == null) {
             totalSpent = 0.0;
         }
 
-        // Calculate analytics
-        Double remainingAmount = budget.getMonthlyLimit() - totalSpent;
-
-        Double usagePercentage = 0.0;
-        if (budget.getMonthlyLimit() > 0) {
-            usagePercentage = (totalSpent / budget.getMonthlyLimit()) * 100.0;
-        }
-
-        Boolean exceeded = totalSpent > budget.getMonthlyLimit();
+        // Calculate analytics against the limit plus the stored carry-in
+        Double availableAmount = budget.getAvailableAmount();
+        Double remainingAmount = availableAmount - totalSpent;
+        Double usagePercentage = budget.usagePercentage(totalSpent);
+        Boolean exceeded = totalSpent > availableAmount;
 
         return BudgetResponseDTO.builder()
                 .id(budget.getId())
                 .monthlyLimit(budget.getMonthlyLimit())
                 .month(budget.getMonth())
                 .year(budget.getYear())
+                .rolloverEnabled(budget.getRolloverEnabled())
+                .carryIn(budget.getCarryIn())
+                .availableAmount(availableAmount)
                 .totalSpent(totalSpent)
                 .remainingAmount(remainingAmount)
                 .usagePercentage(usagePercentage)
@@ -158,6 +286,25 @@ public class BudgetService {
                 .build();
     }
 
+    private BudgetResponseDTO buildCategoryResponseDTO(CategoryBudget budget, Double totalSpent) {
+        double spent = totalSpent != null ? totalSpent : 0.0;
+        double limit = budget.getMonthlyLimit();
+
+        return BudgetResponseDTO.builder()
+                .id(budget.getId())
+                .category(budget.getCategory())
+                .monthlyLimit(limit)
+                .month(budget.getMonth())
+                .year(budget.getYear())
+                .totalSpent(spent)
+                .remainingAmount(limit - spent)
+                .usagePercentage(budget.usagePercentage(spent))
+                .exceeded(spent > limit)
+                .createdAt(budget.getCreatedAt())
+                .updatedAt(budget.getUpdatedAt())
+                .build();
+    }
+
     /**
      * Get the current logged-in user's ID from security context.
      *
@@ -0,0 +1,235 @@
+package com.spendwise.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.spendwise.entity.Budget;
+import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.CategoryTotal;
+import com.spendwise.repository.ExpenseRepository;
+import com.spendwise.repository.MonthTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Spending lookup tools exposed to the chat assistant through OpenAI function calling.
+ * Every tool answers from an aggregate query scoped to the user, so the model
+ * only receives the numbers it asks for and never raw expense lists.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatToolService {
+
+    public static final String MONTHLY_TOTALS = "get_monthly_totals";
+    public static final String CATEGORY_TOTALS = "get_category_totals";
+    public static final String BUDGET_STATUS = "get_budget_status";
+    public static final String UPCOMING_RECURRING = "get_upcoming_recurring_charges";
+
+    private static final int MAX_MONTHS = 24;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_HORIZON_DAYS = 365;
+    private static final int MAX_UPCOMING_CHARGES = 200;
+
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final RecurringExpenseService recurringExpenseService;
+
+    /**
+     * Tool schemas in the format expected by the OpenAI "tools" request field.
+     *
+     * @return tool definitions
+     */
+    public List<Map<String, Object>> getToolDefinitions() {
+        return List.of(
+                function(MONTHLY_TOTALS,
+                        "Total spending per month for the most recent months, including the current month.",
+                        Map.of("months", integerParam("Number of months to return (1-" + MAX_MONTHS + ")")),
+                        List.of("months")),
+                function(CATEGORY_TOTALS,
+                        "Total spending per category between two dates (inclusive).",
+                        Map.of("start_date", stringParam("Start date, ISO format YYYY-MM-DD"),
+                                "end_date", stringParam("End date, ISO format YYYY-MM-DD")),
+                        List.of("start_date", "end_date")),
+                function(BUDGET_STATUS,
+                        "Monthly budget limit, carry-in from the previous month, amount spent and remaining amount for a month.",
+                        Map.of("month", integerParam("Month (1-12)"),
+                                "year", integerParam("Year, e.g. 2025")),
+                        List.of("month", "year")),
+                function(UPCOMING_RECURRING,
+                        "Every charge of active subscriptions and recurring expenses due within the next N days, by date.",
+                        Map.of("days", integerParam("Look-ahead window in days (1-" + MAX_HORIZON_DAYS + ")")),
+                        List.of("days")));
+    }
+
+    /**
+     * Execute a tool call for a user.
+     * Invalid arguments produce an error entry the model can react to.
+     *
+     * @param name      tool name
+     * @param arguments parsed JSON arguments
+     * @param userId    the user's ID
+     * @return JSON-serializable result
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> execute(String name, JsonNode arguments, Long userId) {
+        try {
+            return switch (name) {
+                case MONTHLY_TOTALS -> monthlyTotals(userId, arguments.path("months").asInt(6));
+                case CATEGORY_TOTALS -> categoryTotals(userId,
+                        LocalDate.parse(arguments.path("start_date").asText()),
+                        LocalDate.parse(arguments.path("end_date").asText()));
+                case BUDGET_STATUS -> budgetStatus(userId,
+                        arguments.path("month").asInt(), arguments.path("year").asInt());
+                case UPCOMING_RECURRING -> upcomingRecurring(userId, arguments.path("days").asInt(30));
+                default -> error("Unknown tool: " + name);
+            };
+        } catch (DateTimeParseException e) {
+            return error("Dates must use the format YYYY-MM-DD");
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage());
+        }
+    }
+
+    private Map<String, Object> monthlyTotals(Long userId, int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("months must be between 1 and " + MAX_MONTHS);
+        }
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(months - 1L);
+
+        Map<String, Double> totals = new TreeMap<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            totals.put(month.toString(), 0.0);
+        }
+        for (MonthTotal total : expenseRepository.sumAmountByMonth(userId, first.atDay(1), current.atEndOfMonth())) {
+            totals.put(YearMonth.of(total.getSpendYear(), total.getSpendMonth()).toString(), round(total.getTotal()));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currency", "INR");
+        result.put("monthlyTotals", totals);
+        return result;
+    }
+
+    private Map<String, Object> categoryTotals(Long userId, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end_date must not be before start_date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<String, Double> totals = new LinkedHashMap<>();
+        double sum = 0.0;
+        List<CategoryTotal> rows = new ArrayList<>(expenseRepository.sumAmountByCategory(userId, start, end));
+        rows.sort(Comparator.comparing(CategoryTotal::getTotal).reversed());
+        for (CategoryTotal row : rows) {
+            totals.put(row.getCategory(), round(row.getTotal()));
+            sum += row.getTotal();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currency", "INR");
+        result.put("startDate", start.toString());
+        result.put("endDate", end.toString());
+        result.put("total", round(sum));
+        result.put("categoryTotals", totals);
+        return result;
+    }
+
+    private Map<String, Object> budgetStatus(Long userId, int month, int year) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("month must be between 1 and 12");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currency", "INR");
+        result.put("month", month);
+        result.put("year", year);
+
+        Double spent = expenseRepository.sumAmountByUserIdAndMonthAndYear(userId, month, year);
+        double totalSpent = spent != null ? spent : 0.0;
+        result.put("totalSpent", round(totalSpent));
+
+        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year).orElse(null);
+        if (budget == null) {
+            result.put("budgetSet", false);
+            return result;
+        }
+        result.put("budgetSet", true);
+        result.put("monthlyLimit", round(budget.getMonthlyLimit()));
+        result.put("carryIn", round(budget.getCarryIn()));
+        result.put("availableAmount", round(budget.getAvailableAmount()));
+        result.put("remainingAmount", round(budget.getAvailableAmount() - totalSpent));
+        result.put("usagePercentage", round(budget.usagePercentage(totalSpent)));
+        result.put("exceeded", totalSpent > budget.getAvailableAmount());
+        return result;
+    }
+
+    private Map<String, Object> upcomingRecurring(Long userId, int days) {
+        if (days < 1 || days > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_HORIZON_DAYS);
+        }
+        LocalDate horizon = LocalDate.now().plusDays(days);
+
+        List<Map<String, Object>> charges = recurringExpenseService
+                .streamTimeline(userId, LocalDate.now(), horizon)
+                .limit(MAX_UPCOMING_CHARGES)
+                .map(occurrence -> {
+                    Map<String, Object> charge = new LinkedHashMap<>();
+                    charge.put("description", occurrence.getDescription());
+                    charge.put("category", occurrence.getCategory());
+                    charge.put("amount", round(occurrence.getAmount()));
+                    charge.put("frequency", occurrence.getFrequency().name());
+                    charge.put("dueDate", occurrence.getDueDate().toString());
+                    return charge;
+                })
+                .toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currency", "INR");
+        result.put("days", days);
+        result.put("total", round(charges.stream().mapToDouble(c -> (Double) c.get("amount")).sum()));
+        result.put("charges", charges);
+        return result;
+    }
+
+    private static Map<String, Object> function(String name, String description,
+            Map<String, Object> properties, List<String> required) {
+        return Map.of(
+                "type", "function",
+                "function", Map.of(
+                        "name", name,
+                        "description", description,
+                        "parameters", Map.of(
+                                "type", "object",
+                                "properties", properties,
+                                "required", required)));
+    }
+
+    private static Map<String, Object> integerParam(String description) {
+        return Map.of("type", "integer", "description", description);
+    }
+
+    private static Map<String, Object> stringParam(String description) {
+        return Map.of("type", "string", "description", description);
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", message);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ShardDirectory;
+import com.spendwise.entity.EmailOutbox;
+import com.spendwise.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background delivery of the email outbox.
+ * Each run claims a batch of due messages and sends them over a single SMTP
+ * connection. Failed messages are retried with exponential backoff and moved
+ * to DEAD after the configured number of attempts. Every shard has its own
+ * outbox, drained in turn.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender emailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Delay before the first retry, doubled on every further attempt
+     */
+    @Value("${mail.outbox.retry-backoff-ms:60000}")
+    private long retryBackoffMs;
+
+    /**
+     * Deliver one batch of due messages per shard.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        shardDirectory.forEachShard(() -> transactionTemplate.executeWithoutResult(status -> dispatchBatch()));
+    }
+
+    private void dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.claimDue(
+                EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        SimpleMailMessage[] messages = batch.stream()
+                .map(this::toMailMessage)
+                .toArray(SimpleMailMessage[]::new);
+
+        // Failures by outbox row id
+        Map<Long, Exception> failures = new HashMap<>();
+        try {
+            // JavaMailSender reuses one transport connection for the whole array
+            emailSender.send(messages);
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, failure) ->
+                    failures.put(((OutboxMailMessage) message).outboxId, failure));
+            if (failures.isEmpty()) {
+                batch.forEach(outbox -> failures.put(outbox.getId(), e));
+            }
+        } catch (MailException e) {
+            batch.forEach(outbox -> failures.put(outbox.getId(), e));
+        }
+
+        int sent = 0;
+        for (EmailOutbox outbox : batch) {
+            Exception failure = failures.get(outbox.getId());
+            if (failure == null) {
+                outbox.setStatus(EmailOutbox.Status.SENT);
+                outbox.setSentAt(now);
+                sent++;
+            } else {
+                markFailed(outbox, failure, now);
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+        log.info("Email outbox dispatched {} of {} messages", sent, batch.size());
+    }
+
+    private void markFailed(EmailOutbox outbox, Exception failure, LocalDateTime now) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        outbox.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(EmailOutbox.Status.DEAD);
+            log.error("Email {} to {} dead-lettered after {} attempts: {}",
+                    outbox.getId(), outbox.getRecipient(), attempts, error);
+        } else {
+            long backoffMs = retryBackoffMs << Math.min(attempts - 1, 16);
+            outbox.setNextAttemptAt(now.plusNanos(backoffMs * 1_000_000L));
+            log.warn("Email {} to {} failed (attempt {}), retrying at {}",
+                    outbox.getId(), outbox.getRecipient(), attempts, outbox.getNextAttemptAt());
+        }
+    }
+
+    private SimpleMailMessage toMailMessage(EmailOutbox outbox) {
+        SimpleMailMessage message = new OutboxMailMessage(outbox.getId());
+        message.setFrom(fromEmail);
+        message.setTo(outbox.getRecipient());
+        message.setSubject(outbox.getSubject());
+        message.setText(outbox.getBody());
+        return message;
+    }
+
+    /**
+     * Mail message of one outbox row. SimpleMailMessage compares by content,
+     * which would merge the failures of two rows with the same recipient,
+     * subject and body; this one is equal only to the message of its own row.
+     */
+    private static final class OutboxMailMessage extends SimpleMailMessage {
+
+        private final Long outboxId;
+
+        private OutboxMailMessage(Long outboxId) {
+            this.outboxId = outboxId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OutboxMailMessage message && outboxId.equals(message.outboxId);
+        }
+
+        @Override
+        public int hashCode() {
+            return outboxId.hashCode();
+        }
+
+    }
+
+}
@@ -1,58 +1,70 @@
 package com.spendwise.service;
 
+import com.spendwise.entity.EmailOutbox;
+import com.spendwise.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
+/**
+ * Service for composing user emails.
+ * Messages are written to the transactional outbox and delivered later by
+ * {@link EmailOutboxDispatcher}, so callers never wait on the mail server.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender emailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
-    @Async
-    public void sendBudgetAlert(String toEmail, String category, Double amount, Double limit, Double totalSpent) {
+    /**
+     * Queue a budget alert in the caller's transaction.
+     * The alert is only delivered if that transaction commits.
+     *
+     * @param thresholdPercent the usage threshold that was crossed
+     */
+    @Transactional
+    public void queueBudgetAlert(String toEmail, String category, int thresholdPercent, Double amount,
+            Double limit, Double totalSpent) {
         if (toEmail == null || toEmail.isEmpty() || toEmail.contains("example.com")) {
             log.warn("Skipping email alert for invalid email: {}", toEmail);
             return;
         }
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("SpendWise Alert: Budget Exceeded for " + category);
-        message.setText(String.format("""
-                Hello,
+        boolean exceeded = thresholdPercent >= 100;
+        String status = exceeded
+                ? String.format("You have exceeded your budget for category: %s", category)
+                : String.format("You have used %d%% of your budget for category: %s", thresholdPercent, category);
 
-                This is an alert from SpendWise.
+        EmailOutbox message = EmailOutbox.builder()
+                .recipient(toEmail)
+                .subject(exceeded
+                        ? "SpendWise Alert: Budget Exceeded for " + category
+                        : String.format("SpendWise Alert: %d%% of Budget Used for %s", thresholdPercent, category))
+                .body(String.format("""
+                        Hello,
 
-                You have exceeded your budget for category: %s
+                        This is an alert from SpendWise.
 
-                Transaction Amount: ₹%s
-                Total Spent this month: ₹%s
-                Budget Limit: ₹%s
+                        %s
 
-                Please review your expenses.
+                        Transaction Amount: ₹%s
+                        Total Spent this month: ₹%s
+                        Budget Limit: ₹%s
 
-                Regards,
-                SpendWise Team
-                """, category, amount, totalSpent, limit));
+                        Please review your expenses.
 
-        try {
-            emailSender.send(message);
-            log.info("Budget alert email sent to {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send email to {}", toEmail, e);
-        }
+                        Regards,
+                        SpendWise Team
+                        """, status, amount, totalSpent, limit))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+
+        emailOutboxRepository.save(message);
+        log.debug("Budget alert queued for {}", toEmail);
     }
 }
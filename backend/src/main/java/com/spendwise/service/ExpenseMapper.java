@@ -0,0 +1,32 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.ExpenseDTO;
+import com.spendwise.entity.Expense;
+
+/**
+ * Mapping of expense entities to their API representation.
+ */
+final class ExpenseMapper {
+
+    private ExpenseMapper() {
+    }
+
+    /**
+     * Convert Expense entity to DTO.
+     *
+     * @param expense expense entity
+     * @return expense DTO
+     */
+    static ExpenseDTO toDTO(Expense expense) {
+        return ExpenseDTO.builder()
+                .id(expense.getId())
+                .amount(expense.getAmount())
+                .category(expense.getCategory())
+                .description(expense.getDescription())
+                .date(expense.getDate())
+                .createdAt(expense.getCreatedAt())
+                .updatedAt(expense.getUpdatedAt())
+                .build();
+    }
+
+}
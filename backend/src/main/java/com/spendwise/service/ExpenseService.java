@@ -4,14 +4,17 @@ import com.spendwise.dto.ExpenseDTO;
 import com.spendwise.entity.Expense;
 import com.spendwise.entity.User;
 import com.spendwise.exception.ResourceNotFoundException;
+import com.spendwise.instrumentation.ExpenseCreatedEvent;
 import com.spendwise.repository.ExpenseRepository;
 import com.spendwise.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,8 +28,7 @@ public class ExpenseService {
 
     private final com.spendwise.repository.ExpenseRepository expenseRepository;
     private final com.spendwise.repository.UserRepository userRepository;
-    private final com.spendwise.service.EmailService emailService;
-    private final com.spendwise.service.BudgetService budgetService;
+    private final com.spendwise.service.BudgetAlertService budgetAlertService;
 
     // ... (existing constructor is handled by RequiredArgsConstructor, but fields
     // must be final)
@@ -39,7 +41,10 @@ public class ExpenseService {
      * @return created expense DTO
      */
     @Transactional
+    @Timed("spendwise.expense.create")
     public ExpenseDTO createExpense(ExpenseDTO expenseDTO) {
+        ExpenseCreatedEvent event = new ExpenseCreatedEvent();
+        event.begin();
         User currentUser = getCurrentUser();
 
         Expense expense = Expense.builder()
@@ -51,26 +56,19 @@ public class ExpenseService {
                 .build();
 
         Expense savedExpense = expenseRepository.save(expense);
+        userRepository.incrementDataVersion(currentUser.getId());
 
-        // Check Budget
-        try {
-            com.spendwise.dto.BudgetResponseDTO budget = budgetService.getBudgetOptionally(
-                    expense.getDate().getMonthValue(),
-                    expense.getDate().getYear());
-
-            if (budget != null && budget.getExceeded()) {
-                emailService.sendBudgetAlert(
-                        currentUser.getEmail(),
-                        "Overall Monthly Budget", // We track overall budget
-                        expense.getAmount(),
-                        budget.getMonthlyLimit(),
-                        budget.getTotalSpent());
-            }
-        } catch (Exception e) {
-            // Ignore budget check errors (e.g. email failure)
-        }
+        // Update budget running total and queue threshold alerts
+        budgetAlertService.onExpenseCreated(savedExpense);
 
-        return convertToDTO(savedExpense);
+        event.end();
+        if (event.shouldCommit()) {
+            event.userId = currentUser.getId();
+            event.category = savedExpense.getCategory();
+            event.amount = savedExpense.getAmount();
+            event.commit();
+        }
+        return ExpenseMapper.toDTO(savedExpense);
     }
 
     /**
@@ -83,7 +81,7 @@ public class ExpenseService {
         Long userId = getCurrentUserId();
         List<Expense> expenses = expenseRepository.findByUserId(userId);
         return expenses.stream()
-                .map(this::convertToDTO)
+                .map(ExpenseMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -101,7 +99,7 @@ public class ExpenseService {
         Long userId = getCurrentUserId();
         Expense expense = expenseRepository.findByUserIdAndId(userId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", id));
-        return convertToDTO(expense);
+        return ExpenseMapper.toDTO(expense);
     }
 
     /**
@@ -120,6 +118,10 @@ public class ExpenseService {
         Expense expense = expenseRepository.findByUserIdAndId(userId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", id));
 
+        LocalDate previousDate = expense.getDate();
+        String previousCategory = expense.getCategory();
+        Double previousAmount = expense.getAmount();
+
         // Update fields
         expense.setAmount(expenseDTO.getAmount());
         expense.setCategory(expenseDTO.getCategory());
@@ -127,7 +129,9 @@ public class ExpenseService {
         expense.setDate(expenseDTO.getDate());
 
         Expense updatedExpense = expenseRepository.save(expense);
-        return convertToDTO(updatedExpense);
+        budgetAlertService.onExpenseUpdated(previousDate, previousCategory, previousAmount, updatedExpense);
+        userRepository.incrementDataVersion(userId);
+        return ExpenseMapper.toDTO(updatedExpense);
     }
 
     /**
@@ -143,11 +147,12 @@ public class ExpenseService {
         Long userId = getCurrentUserId();
 
         // Verify ownership before deletion
-        if (!expenseRepository.existsByUserIdAndId(userId, id)) {
-            throw new ResourceNotFoundException("Expense", "id", id);
-        }
+        Expense expense = expenseRepository.findByUserIdAndId(userId, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", id));
 
-        expenseRepository.deleteByUserIdAndId(userId, id);
+        expenseRepository.delete(expense);
+        budgetAlertService.onExpenseDeleted(expense);
+        userRepository.incrementDataVersion(userId);
     }
 
     /**
@@ -174,22 +179,4 @@ public class ExpenseService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    /**
-     * Convert Expense entity to DTO.
-     *
-     * @param expense expense entity
-     * @return expense DTO
-     */
-    private ExpenseDTO convertToDTO(Expense expense) {
-        return ExpenseDTO.builder()
-                .id(expense.getId())
-                .amount(expense.getAmount())
-                .category(expense.getCategory())
-                .description(expense.getDescription())
-                .date(expense.getDate())
-                .createdAt(expense.getCreatedAt())
-                .updatedAt(expense.getUpdatedAt())
-                .build();
-    }
-
 }
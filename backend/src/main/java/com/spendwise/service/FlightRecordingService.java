@@ -0,0 +1,233 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.FlightRecordingDTO;
+import com.spendwise.exception.BadRequestException;
+import com.spendwise.exception.QuotaExceededException;
+import com.spendwise.exception.ResourceNotFoundException;
+import com.spendwise.instrumentation.AICallEvent;
+import com.spendwise.instrumentation.BudgetAlertEvent;
+import com.spendwise.instrumentation.DashboardComputedEvent;
+import com.spendwise.instrumentation.ExpenseCreatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages Java Flight Recorder recordings. A continuous recording with the
+ * low-overhead default settings runs from startup, keeping the last minutes
+ * of JVM and SpendWise events in a bounded buffer for after-the-fact
+ * diagnosis. Admins can also start time-boxed recordings, for example with
+ * the profile settings, and download any recording while it runs or after
+ * it stopped.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final String CONTINUOUS = "continuous";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private Recording continuous;
+
+    @Value("${diagnostics.jfr.continuous:true}")
+    private boolean continuousEnabled;
+
+    @Value("${diagnostics.jfr.continuous-max-age-minutes:30}")
+    private long continuousMaxAgeMinutes;
+
+    @Value("${diagnostics.jfr.continuous-max-size-mb:100}")
+    private long continuousMaxSizeMb;
+
+    @Value("${diagnostics.jfr.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    @Value("${diagnostics.jfr.max-recordings:3}")
+    private int maxRecordings;
+
+    @PostConstruct
+    void startContinuous() {
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Java Flight Recorder is not available; recordings are disabled");
+            return;
+        }
+        // Registered up front so the events show in recordings before they first fire
+        FlightRecorder.register(ExpenseCreatedEvent.class);
+        FlightRecorder.register(DashboardComputedEvent.class);
+        FlightRecorder.register(AICallEvent.class);
+        FlightRecorder.register(BudgetAlertEvent.class);
+
+        if (continuousEnabled) {
+            continuous = new Recording(configuration("default"));
+            continuous.setName(CONTINUOUS);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(Duration.ofMinutes(continuousMaxAgeMinutes));
+            continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+            continuous.start();
+            recordings.put(continuous.getId(), continuous);
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    /**
+     * All recordings, the continuous one first.
+     *
+     * @return recordings known to this service
+     */
+    public List<FlightRecordingDTO> getRecordings() {
+        List<FlightRecordingDTO> result = new ArrayList<>();
+        recordings.values().stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .forEach(recording -> result.add(toDTO(recording)));
+        return result;
+    }
+
+    /**
+     * Start a time-boxed recording. When the limit of recordings is reached,
+     * the oldest stopped one is closed to make room.
+     *
+     * @param durationSeconds how long to record, at most the configured maximum
+     * @param settings        JFR settings: default or profile
+     * @return the started recording
+     */
+    public synchronized FlightRecordingDTO startRecording(long durationSeconds, String settings) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder is not available");
+        }
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new BadRequestException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new BadRequestException("Settings must be one of " + SETTINGS);
+        }
+
+        List<Recording> onDemand = recordings.values().stream()
+                .filter(recording -> recording != continuous)
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toList();
+        if (onDemand.size() >= maxRecordings) {
+            Recording oldestStopped = onDemand.stream()
+                    .filter(recording -> recording.getState() != RecordingState.RUNNING)
+                    .findFirst()
+                    .orElseThrow(() -> new QuotaExceededException(
+                            "Already " + maxRecordings + " recordings running; stop one first"));
+            close(oldestStopped);
+        }
+
+        Recording recording = new Recording(configuration(settings));
+        recording.setName("spendwise-" + settings);
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(durationSeconds));
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started JFR recording {} with {} settings for {}s", recording.getId(), settings, durationSeconds);
+        return toDTO(recording);
+    }
+
+    /**
+     * Stop a recording early; its data stays available for download.
+     *
+     * @param id recording id
+     * @return the stopped recording
+     */
+    public FlightRecordingDTO stopRecording(Long id) {
+        Recording recording = getOnDemand(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return toDTO(recording);
+    }
+
+    /**
+     * Dump a recording, running or stopped, to a temporary file.
+     *
+     * @param id recording id
+     * @return stream over the dump, which deletes the file when closed
+     */
+    public InputStream openRecording(Long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new ResourceNotFoundException("Recording", "id", id);
+        }
+        try {
+            Path file = Files.createTempFile("spendwise-" + id + "-", ".jfr");
+            recording.dump(file);
+            return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump recording " + id, e);
+        }
+    }
+
+    /**
+     * Discard a recording and its data.
+     *
+     * @param id recording id
+     */
+    public void deleteRecording(Long id) {
+        close(getOnDemand(id));
+    }
+
+    private Recording getOnDemand(Long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new ResourceNotFoundException("Recording", "id", id);
+        }
+        if (recording == continuous) {
+            throw new BadRequestException("The continuous recording cannot be stopped or deleted");
+        }
+        return recording;
+    }
+
+    private void close(Recording recording) {
+        recordings.remove(recording.getId());
+        recording.close();
+    }
+
+    private static Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR settings " + settings + " not found", e);
+        }
+    }
+
+    private FlightRecordingDTO toDTO(Recording recording) {
+        return FlightRecordingDTO.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startTime(recording.getStartTime())
+                .stopTime(recording.getStopTime() != null ? recording.getStopTime()
+                        : recording.getStartTime() != null && recording.getDuration() != null
+                                ? recording.getStartTime().plus(recording.getDuration())
+                                : null)
+                .size(recording.getSize())
+                .build();
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.CategoryForecastDTO;
+import com.spendwise.dto.SpendingForecastDTO;
+import com.spendwise.entity.Budget;
+import com.spendwise.entity.RecurringExpense;
+import com.spendwise.entity.User;
+import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.CategoryMonthTotal;
+import com.spendwise.repository.ExpenseRepository;
+import com.spendwise.repository.RecurringExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Projects month-end and next-month spending per category.
+ * Combines three signals, all computed from aggregates:
+ * <ul>
+ * <li>the variable (non-recurring) daily run-rate of the current month, blended
+ * with the historical rate as the month progresses,</li>
+ * <li>recurring charges still due this month and next month,</li>
+ * <li>a seasonal factor from the same calendar month one year earlier.</li>
+ * </ul>
+ * Results are cached per user and data version, so repeated dashboard loads
+ * cost nothing until the user's data changes or the day rolls over.
+ */
+@Service
+@RequiredArgsConstructor
+public class ForecastService {
+
+    /**
+     * Completed months of history read for baselines and seasonality
+     */
+    private static final int HISTORY_MONTHS = 12;
+
+    /**
+     * Bounds of the seasonal factor, so a single unusual month cannot dominate
+     */
+    private static final double MIN_SEASONAL_FACTOR = 0.5;
+    private static final double MAX_SEASONAL_FACTOR = 2.0;
+
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+
+    @Value("${forecast.cache.max-entries:10000}")
+    private int maxCacheEntries;
+
+    private final Map<Long, CachedForecast> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedForecast> eldest) {
+                    return size() > maxCacheEntries;
+                }
+            });
+
+    /**
+     * Forecast for a user, served from cache while their data version is unchanged.
+     *
+     * @param user the user
+     * @return spending forecast
+     */
+    @Transactional(readOnly = true)
+    public SpendingForecastDTO forecast(User user) {
+        LocalDate today = LocalDate.now();
+        long dataVersion = user.getDataVersion() != null ? user.getDataVersion() : 0L;
+
+        CachedForecast cached = cache.get(user.getId());
+        if (cached != null && cached.dataVersion() == dataVersion && cached.asOf().equals(today)) {
+            return cached.forecast();
+        }
+
+        SpendingForecastDTO forecast = compute(user.getId(), today);
+        cache.put(user.getId(), new CachedForecast(dataVersion, today, forecast));
+        return forecast;
+    }
+
+    private SpendingForecastDTO compute(Long userId, LocalDate today) {
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth nextMonth = currentMonth.plusMonths(1);
+
+        List<CategoryMonthTotal> totals = expenseRepository.sumAmountByCategoryAndMonth(
+                userId, currentMonth.minusMonths(HISTORY_MONTHS).atDay(1), today);
+        List<RecurringExpense> schedules = recurringExpenseRepository.findByUserIdAndActiveTrue(userId);
+        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(
+                userId, currentMonth.getMonthValue(), currentMonth.getYear()).orElse(null);
+
+        // Current month and history, per category
+        Map<String, Double> spent = new HashMap<>();
+        Map<String, Map<YearMonth, Double>> history = new HashMap<>();
+        Set<YearMonth> historyMonths = new HashSet<>();
+        for (CategoryMonthTotal total : totals) {
+            YearMonth month = YearMonth.of(total.getSpendYear(), total.getSpendMonth());
+            if (month.equals(currentMonth)) {
+                spent.merge(total.getCategory(), total.getTotal(), Double::sum);
+            } else {
+                history.computeIfAbsent(total.getCategory(), k -> new HashMap<>()).merge(month, total.getTotal(),
+                        Double::sum);
+                historyMonths.add(month);
+            }
+        }
+
+        // Recurring charges: already charged this month, still due this month, due next month
+        Map<String, Double> charged = new HashMap<>();
+        Map<String, Double> upcoming = new HashMap<>();
+        Map<String, Double> nextRecurring = new HashMap<>();
+        Map<String, Double> recurringLoad = new HashMap<>();
+        for (RecurringExpense schedule : schedules) {
+            String category = schedule.getCategory();
+            recurringLoad.merge(category,
+                    schedule.getAmount() * schedule.getFrequency().getOccurrencesPerMonth(), Double::sum);
+            forEachOccurrence(schedule, currentMonth, due -> {
+                // Occurrences before nextDueDate have been materialized into expenses
+                Map<String, Double> target = due.isBefore(schedule.getNextDueDate()) ? charged : upcoming;
+                target.merge(category, schedule.getAmount(), Double::sum);
+            });
+            forEachOccurrence(schedule, nextMonth, due -> {
+                if (!due.isBefore(schedule.getNextDueDate())) {
+                    nextRecurring.merge(category, schedule.getAmount(), Double::sum);
+                }
+            });
+        }
+
+        Set<String> categories = new HashSet<>();
+        categories.addAll(spent.keySet());
+        categories.addAll(history.keySet());
+        categories.addAll(upcoming.keySet());
+        categories.addAll(nextRecurring.keySet());
+
+        int daysElapsed = today.getDayOfMonth();
+        int daysRemaining = currentMonth.lengthOfMonth() - daysElapsed;
+        double observedWeight = (double) daysElapsed / currentMonth.lengthOfMonth();
+        int monthsOfHistory = historyMonths.size();
+
+        List<CategoryForecastDTO> forecasts = new ArrayList<>();
+        for (String category : categories) {
+            double spentSoFar = spent.getOrDefault(category, 0.0);
+            Map<YearMonth, Double> categoryHistory = history.getOrDefault(category, Map.of());
+
+            // Variable spending excludes recurring charges, which are projected from their schedules
+            double variableSoFar = Math.max(0.0, spentSoFar - charged.getOrDefault(category, 0.0));
+            double runRate = variableSoFar / daysElapsed;
+            double variableBaseline = monthsOfHistory > 0
+                    ? Math.max(0.0, categoryHistory.values().stream().mapToDouble(Double::doubleValue).sum()
+                            / monthsOfHistory - recurringLoad.getOrDefault(category, 0.0))
+                    : 0.0;
+
+            double currentFactor = seasonalFactor(categoryHistory, monthsOfHistory, currentMonth);
+            double dailyRate = runRate;
+            if (monthsOfHistory > 0) {
+                double historicalRate = variableBaseline * currentFactor / currentMonth.lengthOfMonth();
+                dailyRate = observedWeight * runRate + (1 - observedWeight) * historicalRate;
+            }
+            double monthEnd = spentSoFar + dailyRate * daysRemaining + upcoming.getOrDefault(category, 0.0);
+
+            double nextFactor = seasonalFactor(categoryHistory, monthsOfHistory, nextMonth);
+            double runRateMonth = runRate * nextMonth.lengthOfMonth();
+            double nextVariable = monthsOfHistory > 0 ? (runRateMonth + variableBaseline) / 2 : runRateMonth;
+            double nextTotal = nextVariable * nextFactor + nextRecurring.getOrDefault(category, 0.0);
+
+            if (monthEnd == 0 && nextTotal == 0) {
+                continue;
+            }
+            forecasts.add(CategoryForecastDTO.builder()
+                    .category(category)
+                    .spentSoFar(round(spentSoFar))
+                    .projectedMonthEnd(round(monthEnd))
+                    .projectedNextMonth(round(nextTotal))
+                    .upcomingRecurring(round(upcoming.getOrDefault(category, 0.0)))
+                    .seasonalFactor(round(nextFactor))
+                    .build());
+        }
+        forecasts.sort(Comparator.comparing(CategoryForecastDTO::getProjectedMonthEnd).reversed());
+
+        double projectedMonthEnd = forecasts.stream().mapToDouble(CategoryForecastDTO::getProjectedMonthEnd).sum();
+        Double available = budget != null ? budget.getAvailableAmount() : null;
+
+        return SpendingForecastDTO.builder()
+                .asOf(today)
+                .spentSoFar(round(spent.values().stream().mapToDouble(Double::doubleValue).sum()))
+                .projectedMonthEnd(round(projectedMonthEnd))
+                .projectedNextMonth(round(forecasts.stream()
+                        .mapToDouble(CategoryForecastDTO::getProjectedNextMonth).sum()))
+                .upcomingRecurring(round(upcoming.values().stream().mapToDouble(Double::doubleValue).sum()))
+                .nextMonthRecurring(round(nextRecurring.values().stream().mapToDouble(Double::doubleValue).sum()))
+                .budgetAvailable(available)
+                .projectedOverBudget(available != null ? projectedMonthEnd > available : null)
+                .historyMonths(monthsOfHistory)
+                .categories(forecasts)
+                .build();
+    }
+
+    /**
+     * Ratio of the category's spending in the same month one year earlier to its
+     * average month; 1.0 without a full year of history.
+     */
+    private double seasonalFactor(Map<YearMonth, Double> categoryHistory, int monthsOfHistory, YearMonth target) {
+        if (monthsOfHistory < HISTORY_MONTHS) {
+            return 1.0;
+        }
+        double average = categoryHistory.values().stream().mapToDouble(Double::doubleValue).sum() / monthsOfHistory;
+        Double lastYear = categoryHistory.get(target.minusYears(1));
+        if (average <= 0 || lastYear == null) {
+            return 1.0;
+        }
+        return Math.max(MIN_SEASONAL_FACTOR, Math.min(MAX_SEASONAL_FACTOR, lastYear / average));
+    }
+
+    private void forEachOccurrence(RecurringExpense schedule, YearMonth month,
+            Consumer<LocalDate> action) {
+        RecurringExpense.Frequency frequency = schedule.getFrequency();
+        LocalDate due = frequency.firstOnOrAfter(month.atDay(1), schedule.getStartDate());
+        while (!due.isAfter(month.atEndOfMonth())) {
+            action.accept(due);
+            due = frequency.next(due, schedule.getStartDate());
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private record CachedForecast(long dataVersion, LocalDate asOf, SpendingForecastDTO forecast) {
+    }
+
+}
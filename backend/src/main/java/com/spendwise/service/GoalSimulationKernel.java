@@ -0,0 +1,226 @@
+package com.spendwise.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Bootstrap Monte Carlo kernel for savings goal trajectories.
+ * Each trajectory starts at the current balance and, for every month until the
+ * deadline, adds a monthly net amount drawn with replacement from the observed
+ * history. Trajectories are simulated in fixed-size blocks on a fork-join pool;
+ * all state lives in preallocated primitive arrays, so the inner loop allocates
+ * nothing. Blocks not started before the deadline are skipped and the result is
+ * computed from the completed ones; the first block always runs, so there is
+ * at least one block to compute it from.
+ * <p>
+ * The success probability counts every trajectory, but only the leading blocks
+ * keep their balances for the percentile bands, at most
+ * {@link #MAX_SAMPLED_BALANCES} values in all. Trajectories are independent, so
+ * those blocks are a random sample of the rest, and memory stays fixed however
+ * many trajectories a request asks for.
+ */
+public final class GoalSimulationKernel {
+
+    /**
+     * Trajectories simulated by one fork-join leaf
+     */
+    public static final int BLOCK_SIZE = 256;
+
+    /**
+     * Monthly balances kept for the percentile bands, 2 MB of doubles
+     */
+    public static final int MAX_SAMPLED_BALANCES = 1 << 18;
+
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private GoalSimulationKernel() {
+    }
+
+    /**
+     * Outcome of a simulation.
+     *
+     * @param trajectories completed trajectories
+     * @param hits         trajectories that reached the target at any month
+     * @param sampled      completed trajectories the percentiles are computed from
+     * @param p10          10th percentile balance per month
+     * @param p50          median balance per month
+     * @param p90          90th percentile balance per month
+     */
+    public record Result(int trajectories, int hits, int sampled, double[] p10, double[] p50, double[] p90) {
+
+        public double probability() {
+            return trajectories == 0 ? 0.0 : (double) hits / trajectories;
+        }
+    }
+
+    /**
+     * Run the simulation.
+     *
+     * @param monthlyNets   observed monthly net amounts to resample, at least one
+     * @param startBalance  balance at the start
+     * @param target        balance that counts as success
+     * @param months        number of months to simulate
+     * @param trajectories  number of trajectories requested
+     * @param seed          random seed, equal inputs and seed give equal results
+     * @param pool          pool to run on
+     * @param deadlineNanos {@link System#nanoTime()} after which no block but the first starts
+     * @return simulation result
+     */
+    public static Result simulate(double[] monthlyNets, double startBalance, double target, int months,
+            int trajectories, long seed, ForkJoinPool pool, long deadlineNanos) {
+        int blocks = (trajectories + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int sampled = sampledTrajectories(months, trajectories);
+        // Column-major by month: balances[month * sampled + trajectory]
+        double[] balances = new double[months * sampled];
+        int[] hits = new int[blocks];
+        boolean[] done = new boolean[blocks];
+
+        pool.invoke(new BlockTask(monthlyNets, startBalance, target, months, trajectories, sampled, seed,
+                deadlineNanos, balances, hits, done, 0, blocks));
+
+        int completed = compact(balances, done, months, sampled);
+        int total = 0;
+        int hitCount = 0;
+        for (int block = 0; block < blocks; block++) {
+            if (done[block]) {
+                total += Math.min(BLOCK_SIZE, trajectories - block * BLOCK_SIZE);
+                hitCount += hits[block];
+            }
+        }
+
+        double[] p10 = new double[months];
+        double[] p50 = new double[months];
+        double[] p90 = new double[months];
+        if (completed > 0) {
+            pool.submit(() -> IntStream.range(0, months).parallel().forEach(month -> {
+                int from = month * sampled;
+                Arrays.sort(balances, from, from + completed);
+                p10[month] = balances[from + percentileIndex(completed, 0.10)];
+                p50[month] = balances[from + percentileIndex(completed, 0.50)];
+                p90[month] = balances[from + percentileIndex(completed, 0.90)];
+            })).join();
+        }
+        return new Result(total, hitCount, completed, p10, p50, p90);
+    }
+
+    /**
+     * Number of leading trajectories whose balances are kept: whole blocks
+     * within {@link #MAX_SAMPLED_BALANCES}, and at least the first block.
+     */
+    static int sampledTrajectories(int months, int trajectories) {
+        int blocks = Math.max(1, MAX_SAMPLED_BALANCES / Math.max(months, 1) / BLOCK_SIZE);
+        return (int) Math.min(trajectories, (long) blocks * BLOCK_SIZE);
+    }
+
+    /**
+     * Move the sampled trajectories of completed blocks to the front of every month's column.
+     *
+     * @return number of completed sampled trajectories
+     */
+    private static int compact(double[] balances, boolean[] done, int months, int sampled) {
+        int completed = 0;
+        for (int block = 0; block * BLOCK_SIZE < sampled; block++) {
+            if (!done[block]) {
+                continue;
+            }
+            int from = block * BLOCK_SIZE;
+            int length = Math.min(BLOCK_SIZE, sampled - from);
+            if (from != completed) {
+                for (int month = 0; month < months; month++) {
+                    int column = month * sampled;
+                    System.arraycopy(balances, column + from, balances, column + completed, length);
+                }
+            }
+            completed += length;
+        }
+        return completed;
+    }
+
+    private static int percentileIndex(int count, double percentile) {
+        return Math.min(count - 1, (int) Math.floor(percentile * (count - 1) + 0.5));
+    }
+
+    private static final class BlockTask extends RecursiveAction {
+
+        private final double[] monthlyNets;
+        private final double startBalance;
+        private final double target;
+        private final int months;
+        private final int trajectories;
+        private final int sampled;
+        private final long seed;
+        private final long deadlineNanos;
+        private final double[] balances;
+        private final int[] hits;
+        private final boolean[] done;
+        private final int fromBlock;
+        private final int toBlock;
+
+        private BlockTask(double[] monthlyNets, double startBalance, double target, int months, int trajectories,
+                int sampled, long seed, long deadlineNanos, double[] balances, int[] hits, boolean[] done,
+                int fromBlock, int toBlock) {
+            this.monthlyNets = monthlyNets;
+            this.startBalance = startBalance;
+            this.target = target;
+            this.months = months;
+            this.trajectories = trajectories;
+            this.sampled = sampled;
+            this.seed = seed;
+            this.deadlineNanos = deadlineNanos;
+            this.balances = balances;
+            this.hits = hits;
+            this.done = done;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int middle = (fromBlock + toBlock) >>> 1;
+                invokeAll(split(fromBlock, middle), split(middle, toBlock));
+                return;
+            }
+            if (fromBlock > 0 && System.nanoTime() - deadlineNanos > 0) {
+                return;
+            }
+            runBlock(fromBlock);
+        }
+
+        private BlockTask split(int from, int to) {
+            return new BlockTask(monthlyNets, startBalance, target, months, trajectories, sampled, seed,
+                    deadlineNanos, balances, hits, done, from, to);
+        }
+
+        private void runBlock(int block) {
+            // Independent, reproducible stream per block regardless of scheduling
+            SplittableRandom random = new SplittableRandom(seed + (block + 1) * SEED_GAMMA);
+            int samples = monthlyNets.length;
+            int from = block * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, trajectories);
+            boolean keep = from < sampled;
+            int blockHits = 0;
+
+            for (int trajectory = from; trajectory < to; trajectory++) {
+                double balance = startBalance;
+                boolean hit = balance >= target;
+                for (int month = 0; month < months; month++) {
+                    balance += monthlyNets[random.nextInt(samples)];
+                    if (keep) {
+                        balances[month * sampled + trajectory] = balance;
+                    }
+                    hit |= balance >= target;
+                }
+                if (hit) {
+                    blockHits++;
+                }
+            }
+            hits[block] = blockHits;
+            done[block] = true;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.GoalSimulationDTO;
+import com.spendwise.dto.SimulationBandDTO;
+import com.spendwise.entity.SavingsGoal;
+import com.spendwise.entity.User;
+import com.spendwise.exception.BadRequestException;
+import com.spendwise.exception.ResourceNotFoundException;
+import com.spendwise.repository.GoalContributionRepository;
+import com.spendwise.repository.MonthTotal;
+import com.spendwise.repository.SavingsGoalRepository;
+import com.spendwise.repository.UserRepository;
+import com.spendwise.resilience.RequestDeadline;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates how likely a savings goal is to be reached by its deadline.
+ * The goal's own monthly contribution history (from the contribution ledger)
+ * is bootstrap-resampled into thousands of trajectories on a dedicated
+ * fork-join pool, bounded by a fixed latency budget.
+ */
+@Service
+@RequiredArgsConstructor
+public class GoalSimulationService {
+
+    /**
+     * Most recent completed months of history that are resampled
+     */
+    private static final int HISTORY_MONTHS = 24;
+
+    /**
+     * Longest horizon simulated
+     */
+    private static final int MAX_MONTHS = 120;
+
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final GoalContributionRepository goalContributionRepository;
+    private final UserRepository userRepository;
+
+    @Value("${simulation.trajectories:10000}")
+    private int defaultTrajectories;
+
+    @Value("${simulation.max-trajectories:50000}")
+    private int maxTrajectories;
+
+    @Value("${simulation.time-budget-ms:200}")
+    private long timeBudgetMs;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Simulate a goal of the current user.
+     *
+     * @param goalId       goal ID
+     * @param trajectories number of trajectories, null for the configured default
+     * @return probability of success and balance percentile bands
+     */
+    @Transactional(readOnly = true)
+    public GoalSimulationDTO simulate(Long goalId, Integer trajectories) {
+        int requested = trajectories != null ? trajectories : defaultTrajectories;
+        if (requested < 100 || requested > maxTrajectories) {
+            throw new BadRequestException("trajectories must be between 100 and " + maxTrajectories);
+        }
+
+        User user = getCurrentUser();
+        SavingsGoal goal = savingsGoalRepository.findById(goalId)
+                .filter(g -> g.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("SavingsGoal", "id", goalId));
+        if (goal.getDeadline() == null) {
+            throw new BadRequestException("Goal has no deadline to simulate against");
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        int months = (int) Math.min(MAX_MONTHS,
+                Math.max(0, ChronoUnit.MONTHS.between(currentMonth, YearMonth.from(goal.getDeadline()))));
+        double[] monthlyNets = monthlyNets(goal, currentMonth);
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        RequestDeadline requestDeadline = RequestDeadline.current();
+        if (requestDeadline != null && requestDeadline.getDeadlineNanos() - deadlineNanos < 0) {
+            // Fewer trajectories rather than an answer nobody waits for
+            deadlineNanos = requestDeadline.getDeadlineNanos();
+        }
+        long seed = goal.getId() * 31 + goal.getVersion();
+        GoalSimulationKernel.Result result = GoalSimulationKernel.simulate(monthlyNets, goal.getCurrentAmount(),
+                goal.getTargetAmount(), months, requested, seed, pool, deadlineNanos);
+
+        List<SimulationBandDTO> bands = new ArrayList<>(months);
+        for (int month = 0; month < months; month++) {
+            bands.add(SimulationBandDTO.builder()
+                    .month(currentMonth.plusMonths(month + 1L))
+                    .p10(round(result.p10()[month]))
+                    .p50(round(result.p50()[month]))
+                    .p90(round(result.p90()[month]))
+                    .build());
+        }
+
+        return GoalSimulationDTO.builder()
+                .goalId(goal.getId())
+                .currentAmount(goal.getCurrentAmount())
+                .targetAmount(goal.getTargetAmount())
+                .deadline(goal.getDeadline())
+                .months(months)
+                .historyMonths(monthlyNets.length)
+                .trajectories(result.trajectories())
+                .truncated(result.trajectories() < requested)
+                .probability(round(result.probability()))
+                .bands(bands)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Net contribution of each completed month since the goal was created, zero
+     * for months without contributions. Falls back to the current month while
+     * the goal is younger than one month.
+     */
+    private double[] monthlyNets(SavingsGoal goal, YearMonth currentMonth) {
+        YearMonth first = YearMonth.from(goal.getCreatedAt());
+        if (first.isBefore(currentMonth.minusMonths(HISTORY_MONTHS))) {
+            first = currentMonth.minusMonths(HISTORY_MONTHS);
+        }
+
+        Map<YearMonth, Double> totals = new HashMap<>();
+        for (MonthTotal total : goalContributionRepository.sumAmountByMonth(
+                goal.getId(), first.atDay(1).atStartOfDay())) {
+            totals.put(YearMonth.of(total.getSpendYear(), total.getSpendMonth()), total.getTotal());
+        }
+
+        int completed = (int) ChronoUnit.MONTHS.between(first, currentMonth);
+        if (completed == 0) {
+            return new double[] { totals.getOrDefault(currentMonth, 0.0) };
+        }
+        double[] nets = new double[completed];
+        for (int i = 0; i < completed; i++) {
+            nets[i] = totals.getOrDefault(first.plusMonths(i), 0.0);
+        }
+        return nets;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private User getCurrentUser() {
+        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
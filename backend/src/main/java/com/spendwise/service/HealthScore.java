@@ -0,0 +1,48 @@
+package com.spendwise.service;
+
+import com.spendwise.entity.SpendingLimit;
+
+/**
+ * Financial health score of a month's spending against the amount available.
+ */
+final class HealthScore {
+
+    private HealthScore() {
+    }
+
+    /**
+     * Calculate financial health score based on spending percentage.
+     *
+     * @param totalSpent total amount spent
+     * @param budget     amount available this month
+     * @return health score (0-100)
+     */
+    static Integer calculate(Double totalSpent, Double budget) {
+        // No budget set = perfect score
+        if (budget == null) {
+            return 100;
+        }
+
+        double percentage = SpendingLimit.usagePercentage(totalSpent, budget);
+
+        // <=70% spending = 90+
+        if (percentage <= 70) {
+            return Math.min(100, 90 + (int) ((70 - percentage) / 7));
+        }
+        // 70-90% = 75
+        if (percentage <= 90) {
+            return 75;
+        }
+        // 90-100% = 60
+        if (percentage <= 100) {
+            return 60;
+        }
+        // 100-120% = 40
+        if (percentage <= 120) {
+            return 40;
+        }
+        // >120% = 20
+        return 20;
+    }
+
+}
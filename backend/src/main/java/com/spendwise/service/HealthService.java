@@ -0,0 +1,154 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ReplicaSet;
+import com.spendwise.resilience.AdaptiveConcurrencyLimiter;
+import com.spendwise.resilience.ConcurrencyLimits;
+import com.spendwise.resilience.RouteGroup;
+import com.spendwise.resilience.UpstreamCircuitBreaker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readiness of this instance to take more traffic, from state already at
+ * hand so the check stays cheap under overload:
+ * <ul>
+ * <li>OUT_OF_SERVICE when the CRUD concurrency limit has stayed saturated
+ * for the grace period or requests are waiting for a database connection
+ * with the pool fully in use,</li>
+ * <li>DEGRADED when the OpenAI circuit is open (AI answers fall back to
+ * local insights), or another group's limit is saturated,</li>
+ * <li>UP otherwise.</li>
+ * </ul>
+ * A saturated AI or auth limit only rejects requests of its own group, and
+ * a slow OpenAI saturates the AI limit on every instance at once, so taking
+ * instances out of rotation for it would only cost them their CRUD traffic.
+ * Read replicas are reported but do not affect readiness, since reads fall
+ * back to the primary.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HealthService {
+
+    public static final String UP = "UP";
+    public static final String DEGRADED = "DEGRADED";
+    public static final String OUT_OF_SERVICE = "OUT_OF_SERVICE";
+
+    private static final long NOT_SATURATED = Long.MIN_VALUE;
+
+    private final ConcurrencyLimits concurrencyLimits;
+    private final UpstreamCircuitBreaker openAICircuitBreaker;
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaSet> replicaSet;
+
+    /**
+     * How long the CRUD limit must stay saturated before the instance reports
+     * itself out of service, so a single burst does not make readiness flap
+     */
+    @Value("${health.saturation-grace-ms:5000}")
+    private long saturationGraceMs;
+
+    /**
+     * {@link System#nanoTime()} at which the CRUD limit was first seen saturated, or {@link #NOT_SATURATED}
+     */
+    private final AtomicLong crudSaturatedSince = new AtomicLong(NOT_SATURATED);
+
+    /**
+     * Current readiness with the state of each component.
+     *
+     * @return status, application, timestamp and component details
+     */
+    public Map<String, Object> getHealth() {
+        boolean ready = true;
+        boolean degraded = false;
+
+        Map<String, Object> limits = new LinkedHashMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : concurrencyLimits.getAll()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("limit", limiter.getLimit());
+            details.put("inFlight", limiter.getInFlight());
+            details.put("rejected", limiter.getRejected());
+            details.put("saturated", limiter.isSaturated());
+            limits.put(limiter.getName(), details);
+            degraded |= limiter.isSaturated();
+        }
+        ready &= !saturatedBeyondGrace(concurrencyLimits.get(RouteGroup.CRUD).isSaturated());
+
+        Map<String, Object> database = new LinkedHashMap<>();
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            int active = pool.getActiveConnections();
+            int total = pool.getTotalConnections();
+            int waiting = pool.getThreadsAwaitingConnection();
+            boolean exhausted = waiting > 0 && active >= total;
+            database.put("active", active);
+            database.put("idle", pool.getIdleConnections());
+            database.put("total", total);
+            database.put("waiting", waiting);
+            database.put("exhausted", exhausted);
+            ready &= !exhausted;
+        }
+
+        UpstreamCircuitBreaker.State circuit = openAICircuitBreaker.getState();
+        degraded |= circuit != UpstreamCircuitBreaker.State.CLOSED;
+
+        Map<String, Object> components = new LinkedHashMap<>();
+        components.put("concurrency", limits);
+        components.put("database", database);
+        replicaSet.ifAvailable(replicas -> {
+            Map<String, Object> replicaDetails = new LinkedHashMap<>();
+            for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+                replicaDetails.put(replica.getName(),
+                        Map.of("available", replica.isAvailable(), "lagMs", replica.getLagMs()));
+            }
+            components.put("replicas", replicaDetails);
+        });
+        components.put(openAICircuitBreaker.getName(), Map.of("circuit", circuit.name()));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", !ready ? OUT_OF_SERVICE : degraded ? DEGRADED : UP);
+        response.put("application", "SpendWise");
+        response.put("timestamp", LocalDateTime.now());
+        response.put("components", components);
+        return response;
+    }
+
+    /**
+     * Whether the CRUD limit has been saturated at every check for at least the grace period.
+     */
+    private boolean saturatedBeyondGrace(boolean saturated) {
+        if (!saturated) {
+            crudSaturatedSince.set(NOT_SATURATED);
+            return false;
+        }
+        long now = System.nanoTime();
+        crudSaturatedSince.compareAndSet(NOT_SATURATED, now);
+        return now - crudSaturatedSince.get() >= TimeUnit.MILLISECONDS.toNanos(saturationGraceMs);
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            // The DataSource is wrapped for instrumentation; the pool sits underneath
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            log.debug("Connection pool state unavailable", e);
+        }
+        return null;
+    }
+
+}
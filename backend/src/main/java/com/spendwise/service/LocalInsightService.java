@@ -0,0 +1,218 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.entity.Budget;
+import com.spendwise.entity.RecurringExpense;
+import com.spendwise.repository.BudgetRepository;
+import com.spendwise.repository.CategoryMonthTotal;
+import com.spendwise.repository.ExpenseRepository;
+import com.spendwise.repository.RecurringExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic spending analysis computed locally from aggregates.
+ * Serves as the fallback when OpenAI is unavailable and as the zero-cost
+ * fast mode of the analyze endpoint. Runs three small queries (category
+ * totals per month, budget, active subscriptions) and no expense rows are loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocalInsightService {
+
+    /**
+     * Number of completed months used as the spending baseline
+     */
+    private static final int HISTORY_MONTHS = 3;
+
+    /**
+     * Projected spend above this multiple of the baseline counts as overspending
+     */
+    private static final double OVERSPEND_RATIO = 1.2;
+
+    /**
+     * Without history, a category above this share of the month counts as overspending
+     */
+    private static final double DOMINANT_SHARE = 0.4;
+
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+
+    /**
+     * Analyze a user's current month against their recent history.
+     *
+     * @param userId the user's ID
+     * @return analysis in the same shape as the AI response
+     */
+    @Transactional(readOnly = true)
+    public AIAnalysisResponseDTO analyze(Long userId) {
+        LocalDate today = LocalDate.now();
+        YearMonth currentMonth = YearMonth.from(today);
+
+        List<CategoryMonthTotal> totals = expenseRepository.sumAmountByCategoryAndMonth(
+                userId, currentMonth.minusMonths(HISTORY_MONTHS).atDay(1), today);
+        Budget budget = budgetRepository.findByUserIdAndMonthAndYear(
+                userId, currentMonth.getMonthValue(), currentMonth.getYear()).orElse(null);
+        List<RecurringExpense> subscriptions = recurringExpenseRepository.findByUserIdAndActiveTrue(userId);
+
+        return buildInsights(today, totals, budget, subscriptions);
+    }
+
+    private AIAnalysisResponseDTO buildInsights(LocalDate today, List<CategoryMonthTotal> totals,
+            Budget budget, List<RecurringExpense> subscriptions) {
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth previousMonth = currentMonth.minusMonths(1);
+
+        // Split aggregates into the current month and the baseline history
+        Map<String, Double> current = new HashMap<>();
+        Map<String, Double> history = new HashMap<>();
+        Map<YearMonth, Double> monthTotals = new HashMap<>();
+        for (CategoryMonthTotal total : totals) {
+            YearMonth month = YearMonth.of(total.getSpendYear(), total.getSpendMonth());
+            monthTotals.merge(month, total.getTotal(), Double::sum);
+            if (month.equals(currentMonth)) {
+                current.merge(total.getCategory(), total.getTotal(), Double::sum);
+            } else {
+                history.merge(total.getCategory(), total.getTotal(), Double::sum);
+            }
+        }
+        long historyMonths = monthTotals.keySet().stream().filter(m -> !m.equals(currentMonth)).count();
+
+        // Run-rate projection for the month
+        double runRateFactor = (double) currentMonth.lengthOfMonth() / today.getDayOfMonth();
+        double spentSoFar = monthTotals.getOrDefault(currentMonth, 0.0);
+        double projectedMonth = spentSoFar * runRateFactor;
+        double previousTotal = monthTotals.getOrDefault(previousMonth, 0.0);
+        double baselineTotal = historyMonths > 0
+                ? history.values().stream().mapToDouble(Double::doubleValue).sum() / historyMonths
+                : 0.0;
+
+        // Categories on pace to exceed their baseline
+        List<CategoryExcess> excesses = new ArrayList<>();
+        current.forEach((category, amount) -> {
+            double projected = amount * runRateFactor;
+            double baseline = historyMonths > 0 ? history.getOrDefault(category, 0.0) / historyMonths : 0.0;
+            boolean overspending = baseline > 0
+                    ? projected > baseline * OVERSPEND_RATIO
+                    : spentSoFar > 0 && amount / spentSoFar > DOMINANT_SHARE;
+            if (overspending) {
+                excesses.add(new CategoryExcess(category, projected, baseline));
+            }
+        });
+        excesses.sort(Comparator.comparingDouble((CategoryExcess e) -> e.projected() - e.baseline()).reversed());
+
+        double recurringLoad = subscriptions.stream()
+                .mapToDouble(s -> s.getAmount() * s.getFrequency().getOccurrencesPerMonth())
+                .sum();
+
+        return AIAnalysisResponseDTO.builder()
+                .summary(buildSummary(spentSoFar, projectedMonth, previousTotal))
+                .overspendingCategories(excesses.stream().map(CategoryExcess::category).toList())
+                .recommendations(buildRecommendations(today, excesses, spentSoFar, projectedMonth,
+                        baselineTotal, recurringLoad, subscriptions.size(), budget))
+                .nextMonthPrediction(buildPrediction(projectedMonth, baselineTotal, historyMonths, recurringLoad))
+                .build();
+    }
+
+    private String buildSummary(double spentSoFar, double projectedMonth, double previousTotal) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("You have spent ₹%.2f so far this month, on pace for ₹%.2f.",
+                spentSoFar, projectedMonth));
+        if (previousTotal > 0) {
+            double change = (projectedMonth - previousTotal) / previousTotal * 100.0;
+            summary.append(String.format(" That is %.0f%% %s than last month's ₹%.2f.",
+                    Math.abs(change), change >= 0 ? "more" : "less", previousTotal));
+        }
+        return summary.toString();
+    }
+
+    private List<String> buildRecommendations(LocalDate today, List<CategoryExcess> excesses,
+            double spentSoFar, double projectedMonth, double baselineTotal, double recurringLoad,
+            int subscriptionCount, Budget budget) {
+        List<String> recommendations = new ArrayList<>();
+
+        for (CategoryExcess excess : excesses.subList(0, Math.min(2, excesses.size()))) {
+            if (excess.baseline() > 0) {
+                recommendations.add(String.format(
+                        "%s is on pace for ₹%.2f, %.0f%% above your %d-month average of ₹%.2f. Try to keep it near the average.",
+                        excess.category(), excess.projected(),
+                        (excess.projected() / excess.baseline() - 1) * 100.0, HISTORY_MONTHS, excess.baseline()));
+            } else {
+                recommendations.add(String.format(
+                        "%s makes up a large share of your spending this month (₹%.2f projected). Check whether it is a one-off.",
+                        excess.category(), excess.projected()));
+            }
+        }
+
+        if (budget != null) {
+            double limit = budget.getAvailableAmount();
+            int daysLeft = today.lengthOfMonth() - today.getDayOfMonth() + 1;
+            if (spentSoFar >= limit) {
+                recommendations.add(String.format(
+                        "You have already exceeded your ₹%.2f budget by ₹%.2f. Pause non-essential purchases until next month.",
+                        limit, spentSoFar - limit));
+            } else if (projectedMonth > limit) {
+                recommendations.add(String.format(
+                        "At this pace you will overshoot your ₹%.2f budget by ₹%.2f. Keep daily spending under ₹%.2f for the remaining %d days.",
+                        limit, projectedMonth - limit, (limit - spentSoFar) / daysLeft, daysLeft));
+            } else {
+                recommendations.add(String.format(
+                        "You are on track to stay within your ₹%.2f budget with ₹%.2f to spare.",
+                        limit, limit - projectedMonth));
+            }
+        } else {
+            double suggested = baselineTotal > 0 ? baselineTotal : projectedMonth;
+            if (suggested > 0) {
+                recommendations.add(String.format(
+                        "Set a monthly budget; ₹%.2f matches your typical spending.", suggested));
+            }
+        }
+
+        if (recurringLoad > 0) {
+            double reference = Math.max(baselineTotal, projectedMonth);
+            if (reference > 0) {
+                recommendations.add(String.format(
+                        "Your %d active subscription%s cost ₹%.2f per month (%.0f%% of typical spending). Cancel the ones you no longer use.",
+                        subscriptionCount, subscriptionCount == 1 ? "" : "s", recurringLoad, recurringLoad / reference * 100.0));
+            } else {
+                recommendations.add(String.format(
+                        "Your %d active subscription%s cost ₹%.2f per month. Cancel the ones you no longer use.",
+                        subscriptionCount, subscriptionCount == 1 ? "" : "s", recurringLoad));
+            }
+        }
+
+        if (recommendations.isEmpty()) {
+            recommendations.add("Your spending is in line with previous months. Keep tracking to stay on course.");
+        }
+        return recommendations;
+    }
+
+    private String buildPrediction(double projectedMonth, double baselineTotal, long historyMonths,
+            double recurringLoad) {
+        if (historyMonths == 0 && projectedMonth == 0) {
+            return "Not enough data yet to forecast next month. Keep adding expenses.";
+        }
+        // Blend this month's run-rate with the historical baseline
+        double forecast = historyMonths > 0 ? (projectedMonth + baselineTotal * historyMonths) / (historyMonths + 1)
+                : projectedMonth;
+        if (recurringLoad > 0) {
+            return String.format("Expect around ₹%.2f next month, with ₹%.2f already committed to recurring charges.",
+                    forecast, recurringLoad);
+        }
+        return String.format("Expect around ₹%.2f next month based on your recent run-rate.", forecast);
+    }
+
+    private record CategoryExcess(String category, double projected, double baseline) {
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ShardDirectory;
+import com.spendwise.entity.Expense;
+import com.spendwise.entity.RecurringExpense;
+import com.spendwise.repository.ExpenseRepository;
+import com.spendwise.repository.RecurringExpenseRepository;
+import com.spendwise.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns due recurring expenses into real expenses.
+ * Each run claims chunks of due subscriptions with SKIP LOCKED, so several
+ * instances can run concurrently without double-charging. Within one
+ * transaction per chunk it inserts the missed occurrences up to today in a
+ * single batch, applies them to the budgets and advances nextDueDate, so a
+ * chunk is either fully materialized or not at all. After downtime a run
+ * catches up on all missed occurrences, over several chunks for subscriptions
+ * further behind than one chunk may generate. Every shard is processed in turn.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseMaterializer {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final BudgetAlertService budgetAlertService;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+
+    @Value("${recurring.materializer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recurring.materializer.chunk-size:100}")
+    private int chunkSize;
+
+    /**
+     * Upper bound of occurrences generated per subscription in one chunk,
+     * bounding the size of its transaction; a subscription still due after
+     * that is claimed again by a later chunk of the same run
+     */
+    @Value("${recurring.materializer.max-occurrences:400}")
+    private int maxOccurrences;
+
+    /**
+     * Materialize everything due up to today.
+     */
+    @Scheduled(initialDelayString = "${recurring.materializer.initial-delay-ms:30000}",
+            fixedDelayString = "${recurring.materializer.interval-ms:900000}")
+    public void materializeDue() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        shardDirectory.forEachShard(() -> materializeDue(today));
+    }
+
+    private void materializeDue(LocalDate today) {
+        int subscriptions = 0;
+        int expenses = 0;
+        while (true) {
+            int[] chunk = transactionTemplate.execute(status -> materializeChunk(today));
+            subscriptions += chunk[0];
+            expenses += chunk[1];
+            // A short chunk claimed everything due, unless some of it hit the cap and is due still
+            if (chunk[0] < chunkSize && chunk[2] == 0) {
+                break;
+            }
+        }
+        if (subscriptions > 0) {
+            log.info("Materialized {} expenses from {} recurring expenses", expenses, subscriptions);
+        }
+    }
+
+    /**
+     * Claim and materialize one chunk.
+     *
+     * @return number of claimed subscriptions, of generated expenses and of
+     *         subscriptions still due after reaching the occurrence cap
+     */
+    private int[] materializeChunk(LocalDate today) {
+        List<RecurringExpense> due = recurringExpenseRepository.claimDue(today, PageRequest.of(0, chunkSize));
+        List<Expense> generated = new ArrayList<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        int capped = 0;
+
+        for (RecurringExpense recurring : due) {
+            LocalDate next = recurring.getNextDueDate();
+            int occurrences = 0;
+            while (!next.isAfter(today) && occurrences < maxOccurrences) {
+                generated.add(Expense.builder()
+                        .user(recurring.getUser())
+                        .amount(recurring.getAmount())
+                        .category(recurring.getCategory())
+                        .description(recurring.getDescription())
+                        .date(next)
+                        .build());
+                next = recurring.getFrequency().next(next, recurring.getStartDate());
+                occurrences++;
+            }
+            if (!next.isAfter(today)) {
+                capped++;
+            }
+            recurring.setNextDueDate(next);
+            userIds.add(recurring.getUser().getId());
+        }
+
+        expenseRepository.insertAll(generated);
+        recurringExpenseRepository.saveAll(due);
+        budgetAlertService.onExpensesCreated(generated);
+        userIds.forEach(userRepository::incrementDataVersion);
+        return new int[] { due.size(), generated.size(), capped };
+    }
+
+}
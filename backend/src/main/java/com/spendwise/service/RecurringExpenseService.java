@@ -1,5 +1,6 @@
 package com.spendwise.service;
 
+import com.spendwise.dto.UpcomingChargeDTO;
 import com.spendwise.entity.RecurringExpense;
 import com.spendwise.entity.User;
 import com.spendwise.repository.RecurringExpenseRepository;
@@ -10,7 +11,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
@@ -31,10 +41,70 @@ public class RecurringExpenseService {
         return repository.findByUserId(getCurrentUser().getId());
     }
 
+    /**
+     * Upcoming occurrences of the current user's active recurring expenses
+     * from today up to the given number of days ahead, in date order.
+     */
+    @Transactional(readOnly = true)
+    public List<UpcomingChargeDTO> getTimeline(int days, int limit) {
+        LocalDate today = LocalDate.now();
+        return streamTimeline(getCurrentUser().getId(), today, today.plusDays(days))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Lazily expand a user's active schedules into occurrences between {@code from}
+     * and {@code horizon} (inclusive), ordered by due date.
+     * Each schedule is a cursor on its next due date; a priority queue keyed by
+     * that date yields the earliest occurrence and advances only that cursor, so
+     * the work done is proportional to the occurrences consumed.
+     */
+    public Stream<UpcomingChargeDTO> streamTimeline(Long userId, LocalDate from, LocalDate horizon) {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparing(Cursor::getDue)
+                .thenComparing(cursor -> cursor.recurring.getId()));
+        for (RecurringExpense recurring : repository.findByUserIdAndActiveTrue(userId)) {
+            Cursor cursor = new Cursor(recurring);
+            // Due dates before the window are overdue and handled by the materializer
+            if (cursor.due.isBefore(from)) {
+                cursor.due = recurring.getFrequency().firstOnOrAfter(from, recurring.getStartDate());
+            }
+            if (!cursor.due.isAfter(horizon)) {
+                queue.add(cursor);
+            }
+        }
+
+        Iterator<UpcomingChargeDTO> occurrences = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public UpcomingChargeDTO next() {
+                Cursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                UpcomingChargeDTO charge = cursor.toCharge();
+                cursor.advance();
+                if (!cursor.due.isAfter(horizon)) {
+                    queue.add(cursor);
+                }
+                return charge;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(occurrences,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     @Transactional
     public RecurringExpense addRecurringExpense(RecurringExpense expense) {
-        expense.setUser(getCurrentUser());
-        return repository.save(expense);
+        User user = getCurrentUser();
+        expense.setUser(user);
+        RecurringExpense saved = repository.save(expense);
+        userRepository.incrementDataVersion(user.getId());
+        return saved;
     }
 
     @Transactional
@@ -42,10 +112,45 @@ public class RecurringExpenseService {
         RecurringExpense expense = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subscription not found"));
 
-        if (!expense.getUser().getId().equals(getCurrentUser().getId())) {
+        Long userId = getCurrentUser().getId();
+        if (!expense.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized");
         }
 
         repository.delete(expense);
+        userRepository.incrementDataVersion(userId);
+    }
+
+    /**
+     * Position of one schedule within the timeline.
+     */
+    private static final class Cursor {
+
+        private final RecurringExpense recurring;
+        private LocalDate due;
+
+        private Cursor(RecurringExpense recurring) {
+            this.recurring = recurring;
+            this.due = recurring.getNextDueDate();
+        }
+
+        private LocalDate getDue() {
+            return due;
+        }
+
+        private void advance() {
+            due = recurring.getFrequency().next(due, recurring.getStartDate());
+        }
+
+        private UpcomingChargeDTO toCharge() {
+            return UpcomingChargeDTO.builder()
+                    .recurringExpenseId(recurring.getId())
+                    .description(recurring.getDescription())
+                    .category(recurring.getCategory())
+                    .amount(recurring.getAmount())
+                    .frequency(recurring.getFrequency())
+                    .dueDate(due)
+                    .build();
+        }
     }
 }
@@ -1,17 +1,26 @@
 package com.spendwise.service;
 
+import com.spendwise.dto.GoalContributionDTO;
 import com.spendwise.dto.SavingsGoalDTO;
+import com.spendwise.entity.GoalContribution;
 import com.spendwise.entity.SavingsGoal;
 import com.spendwise.entity.User;
+import com.spendwise.exception.BadRequestException;
 import com.spendwise.exception.ResourceNotFoundException;
+import com.spendwise.repository.GoalContributionRepository;
 import com.spendwise.repository.SavingsGoalRepository;
 import com.spendwise.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,7 +28,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SavingsGoalService {
 
+    /**
+     * Shortest window contribution velocity is averaged over, so a single early
+     * contribution does not project an unrealistically close completion date
+     */
+    private static final long MIN_VELOCITY_WINDOW_DAYS = 7;
+
+    private static final int MAX_CONTRIBUTIONS_LISTED = 100;
+
     private final SavingsGoalRepository savingsGoalRepository;
+    private final GoalContributionRepository goalContributionRepository;
     private final UserRepository userRepository;
 
     @Transactional
@@ -33,7 +51,16 @@ public class SavingsGoalService {
                 .icon(dto.getIcon())
                 .user(user)
                 .build();
-        return convertToDTO(savingsGoalRepository.save(goal));
+        SavingsGoal saved = savingsGoalRepository.save(goal);
+        if (dto.getCurrentAmount() > 0) {
+            goalContributionRepository.save(GoalContribution.builder()
+                    .goal(saved)
+                    .amount(dto.getCurrentAmount())
+                    .note("Opening balance")
+                    .openingBalance(true)
+                    .build());
+        }
+        return convertToDTO(saved);
     }
 
     @Transactional(readOnly = true)
@@ -43,20 +70,69 @@ public class SavingsGoalService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Update a goal's details. The saved amount is not overwritten here; it only
+     * changes through contributions, so concurrent edits cannot lose money.
+     */
     @Transactional
     public SavingsGoalDTO updateGoal(Long id, SavingsGoalDTO dto) {
         SavingsGoal goal = getGoalEntity(id);
+        if (dto.getVersion() != null && !dto.getVersion().equals(goal.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(SavingsGoal.class, id);
+        }
         goal.setName(dto.getName());
         goal.setTargetAmount(dto.getTargetAmount());
-        goal.setCurrentAmount(dto.getCurrentAmount());
         goal.setDeadline(dto.getDeadline());
         goal.setIcon(dto.getIcon());
-        return convertToDTO(savingsGoalRepository.save(goal));
+        return convertToDTO(savingsGoalRepository.saveAndFlush(goal));
+    }
+
+    /**
+     * Add money to a goal (or withdraw with a negative amount) through a single
+     * atomic increment, and record it in the goal's ledger.
+     */
+    @Transactional
+    public SavingsGoalDTO addContribution(Long id, GoalContributionDTO dto) {
+        Long userId = getCurrentUserId();
+        if (dto.getAmount() == 0) {
+            throw new BadRequestException("Contribution amount must not be zero");
+        }
+        int updated = savingsGoalRepository.addContribution(id, userId, dto.getAmount(), LocalDateTime.now());
+        if (updated == 0) {
+            if (!savingsGoalRepository.existsByIdAndUserId(id, userId)) {
+                throw new ResourceNotFoundException("SavingsGoal", "id", id);
+            }
+            throw new BadRequestException("Withdrawal exceeds the amount saved for this goal");
+        }
+
+        goalContributionRepository.save(GoalContribution.builder()
+                .goal(savingsGoalRepository.getReferenceById(id))
+                .amount(dto.getAmount())
+                .note(dto.getNote())
+                .build());
+        return convertToDTO(savingsGoalRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("SavingsGoal", "id", id)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GoalContributionDTO> getContributions(Long id) {
+        SavingsGoal goal = getGoalEntity(id);
+        return goalContributionRepository
+                .findByGoalIdOrderByCreatedAtDesc(goal.getId(), PageRequest.of(0, MAX_CONTRIBUTIONS_LISTED))
+                .stream()
+                .map(c -> GoalContributionDTO.builder()
+                        .id(c.getId())
+                        .amount(c.getAmount())
+                        .note(c.getNote())
+                        .createdAt(c.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Transactional
     public void deleteGoal(Long id) {
         SavingsGoal goal = getGoalEntity(id);
+        goalContributionRepository.deleteByGoalId(goal.getId());
         savingsGoalRepository.delete(goal);
     }
 
@@ -67,6 +143,7 @@ public class SavingsGoalService {
     }
 
     private SavingsGoalDTO convertToDTO(SavingsGoal goal) {
+        LocalDate projected = projectCompletion(goal);
         return SavingsGoalDTO.builder()
                 .id(goal.getId())
                 .name(goal.getName())
@@ -74,9 +151,33 @@ public class SavingsGoalService {
                 .currentAmount(goal.getCurrentAmount())
                 .deadline(goal.getDeadline())
                 .icon(goal.getIcon())
+                .version(goal.getVersion())
+                .projectedCompletionDate(projected)
+                .onTrack(projected != null && goal.getDeadline() != null
+                        ? !projected.isAfter(goal.getDeadline())
+                        : null)
                 .build();
     }
 
+    /**
+     * Completion date at the average daily contribution since the goal was created,
+     * computed from the goal row alone.
+     */
+    private LocalDate projectCompletion(SavingsGoal goal) {
+        LocalDate today = LocalDate.now();
+        double remaining = goal.getTargetAmount() - goal.getCurrentAmount();
+        if (remaining <= 0) {
+            return today;
+        }
+        if (goal.getCreatedAt() == null || goal.getContributedAmount() <= 0) {
+            return null;
+        }
+        long window = Math.max(MIN_VELOCITY_WINDOW_DAYS,
+                ChronoUnit.DAYS.between(goal.getCreatedAt().toLocalDate(), today));
+        double perDay = goal.getContributedAmount() / window;
+        return today.plusDays((long) Math.ceil(remaining / perDay));
+    }
+
     private Long getCurrentUserId() {
         return getCurrentUser().getId();
     }
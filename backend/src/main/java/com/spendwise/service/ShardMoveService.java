@@ -0,0 +1,309 @@
+package com.spendwise.service;
+
+import com.spendwise.datasource.ShardDirectory;
+import com.spendwise.datasource.ShardSet;
+import com.spendwise.dto.ShardDTO;
+import com.spendwise.dto.ShardMoveDTO;
+import com.spendwise.entity.User;
+import com.spendwise.exception.BadRequestException;
+import com.spendwise.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves a user with all their data to another shard while the application
+ * keeps serving:
+ * <ol>
+ * <li>the user is flagged as moving, and after the directory cache period
+ * every instance holds the user's new requests until the move ends,</li>
+ * <li>the user's rows are locked on the old shard, waiting for transactions
+ * already writing them, and copied with their IDs to the new shard,</li>
+ * <li>the directory is pointed at the new shard and the rows are deleted
+ * from the old one.</li>
+ * </ol>
+ * Other users are unaffected. A failed move leaves the user on the old shard.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardMoveService {
+
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Tables holding a user's data, parents first, with the condition
+     * selecting the user's rows. Tables of new user-owned entities must be
+     * added here; startup fails while one is missing.
+     */
+    private static final List<UserTable> USER_TABLES = List.of(
+            new UserTable("users", "id = ?"),
+            new UserTable("user_roles", "user_id = ?"),
+            new UserTable("savings_goals", "user_id = ?"),
+            new UserTable("goal_contributions", "goal_id IN (SELECT id FROM savings_goals WHERE user_id = ?)"),
+            new UserTable("expenses", "user_id = ?"),
+            new UserTable("recurring_expenses", "user_id = ?"),
+            new UserTable("budgets", "user_id = ?"),
+            new UserTable("category_budgets", "user_id = ?"),
+            new UserTable("ai_insights", "user_id = ?"),
+            new UserTable("ai_usage", "user_id = ?"));
+
+    private final ShardDirectory shardDirectory;
+    private final ObjectProvider<ShardSet> shardSet;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * How long the move waits for transactions holding the user's rows
+     */
+    @Value("${sharding.move.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    /**
+     * Fail fast if a mapped table holds user data that a move would leave behind.
+     */
+    @PostConstruct
+    void verifyUserTables() {
+        Set<String> missing = new TreeSet<>(userOwnedTables(entityManagerFactory.getMetamodel()));
+        USER_TABLES.forEach(table -> missing.remove(table.name()));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Tables " + missing
+                    + " hold user data but are not in ShardMoveService.USER_TABLES");
+        }
+    }
+
+    /**
+     * Tables of the user entity, of every entity associated with a user
+     * directly or through another such entity, and of their element collections.
+     *
+     * @param metamodel the JPA metamodel
+     * @return the table names
+     */
+    static Set<String> userOwnedTables(Metamodel metamodel) {
+        Set<Class<?>> owned = new HashSet<>(Set.of(User.class));
+        boolean grown = true;
+        while (grown) {
+            grown = false;
+            for (EntityType<?> entity : metamodel.getEntities()) {
+                if (!owned.contains(entity.getJavaType()) && entity.getSingularAttributes().stream()
+                        .anyMatch(attribute -> attribute.isAssociation()
+                                && owned.contains(attribute.getJavaType()))) {
+                    owned.add(entity.getJavaType());
+                    grown = true;
+                }
+            }
+        }
+
+        Set<String> tables = new HashSet<>();
+        for (EntityType<?> entity : metamodel.getEntities()) {
+            if (!owned.contains(entity.getJavaType())) {
+                continue;
+            }
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            tables.add(table != null ? table.name() : entity.getName());
+            for (PluralAttribute<?, ?, ?> attribute : entity.getPluralAttributes()) {
+                if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ELEMENT_COLLECTION
+                        && attribute.getJavaMember() instanceof Field field
+                        && field.isAnnotationPresent(CollectionTable.class)) {
+                    tables.add(field.getAnnotation(CollectionTable.class).name());
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * @return every shard with its number of users
+     */
+    public List<ShardDTO> getShards() {
+        List<ShardDTO> shards = new ArrayList<>();
+        shardDirectory.countUsersByShard().forEach((shard, users) -> shards.add(ShardDTO.builder()
+                .shard(shard)
+                .users(users)
+                .build()));
+        return shards;
+    }
+
+    /**
+     * Move a user to another shard.
+     *
+     * @param username    user to move
+     * @param targetShard destination shard
+     * @return what was moved
+     */
+    public ShardMoveDTO moveUser(String username, int targetShard) {
+        ShardSet shards = shardSet.getIfAvailable();
+        if (shards == null) {
+            throw new BadRequestException("Sharding is not enabled");
+        }
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new BadRequestException("No shard " + targetShard + "; shards are 0 to " + (shards.size() - 1));
+        }
+        DataSource target = shards.get(targetShard);
+        ShardDirectory.Placement placement = shardDirectory.find(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        if (placement.shard() == targetShard) {
+            throw new BadRequestException("User " + username + " is already on shard " + targetShard);
+        }
+        if (!shardDirectory.startMove(placement.userId())) {
+            throw new BadRequestException("User " + username + " is already being moved");
+        }
+
+        long startNanos = System.nanoTime();
+        boolean moved = false;
+        try {
+            // Let cached placements on other instances expire, so they hold the user's requests as well
+            TimeUnit.MILLISECONDS.sleep(shardDirectory.getCacheMs());
+            Map<String, Integer> rows = move(shards.get(placement.shard()), target, placement.userId(), targetShard);
+            moved = true;
+
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            log.info("Moved user {} from shard {} to shard {} in {} ms: {}",
+                    username, placement.shard(), targetShard, durationMs, rows);
+            return ShardMoveDTO.builder()
+                    .username(username)
+                    .userId(placement.userId())
+                    .fromShard(placement.shard())
+                    .toShard(targetShard)
+                    .rows(rows)
+                    .durationMs(durationMs)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted moving user " + username, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to move user " + username + ": " + e.getMessage(), e);
+        } finally {
+            if (!moved) {
+                shardDirectory.finishMove(placement.userId(), placement.shard());
+            }
+        }
+    }
+
+    private Map<String, Integer> move(DataSource source, DataSource target, long userId, int targetShard)
+            throws SQLException {
+        try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+            from.setAutoCommit(false);
+            to.setAutoCommit(false);
+            try (Statement statement = from.createStatement()) {
+                statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+            }
+
+            Map<String, Integer> rows = new LinkedHashMap<>();
+            try {
+                for (UserTable table : USER_TABLES) {
+                    rows.put(table.name(), copyRows(from, to, table, userId));
+                }
+                to.commit();
+            } catch (SQLException | RuntimeException e) {
+                to.rollback();
+                from.rollback();
+                throw e;
+            }
+
+            try {
+                shardDirectory.finishMove(userId, targetShard);
+            } catch (RuntimeException e) {
+                from.rollback();
+                try {
+                    deleteRows(to, userId);
+                    to.commit();
+                } catch (SQLException cleanup) {
+                    log.warn("Failed to remove copied rows of user {} from shard {}: {}",
+                            userId, targetShard, cleanup.getMessage());
+                }
+                throw e;
+            }
+
+            try {
+                deleteRows(from, userId);
+                from.commit();
+            } catch (SQLException e) {
+                from.rollback();
+                // The user is served from the new shard; the leftovers are unreachable
+                log.warn("Moved user {} but failed to delete their rows from the old shard: {}",
+                        userId, e.getMessage());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Copy the user's rows of one table, locking them on the source.
+     *
+     * @return number of rows copied
+     */
+    private int copyRows(Connection from, Connection to, UserTable table, long userId) throws SQLException {
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT * FROM " + table.name() + " WHERE " + table.condition() + " FOR UPDATE")) {
+            select.setLong(1, userId);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                StringBuilder names = new StringBuilder();
+                StringBuilder values = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    names.append(i > 1 ? ", " : "").append(meta.getColumnName(i));
+                    values.append(i > 1 ? ", ?" : "?");
+                }
+
+                int count = 0;
+                try (PreparedStatement insert = to.prepareStatement(
+                        "INSERT INTO " + table.name() + " (" + names + ") VALUES (" + values + ")")) {
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, rs.getObject(i));
+                        }
+                        insert.addBatch();
+                        if (++count % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+                return count;
+            }
+        }
+    }
+
+    private void deleteRows(Connection connection, long userId) throws SQLException {
+        for (int i = USER_TABLES.size() - 1; i >= 0; i--) {
+            UserTable table = USER_TABLES.get(i);
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM " + table.name() + " WHERE " + table.condition())) {
+                delete.setLong(1, userId);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    private record UserTable(String name, String condition) {
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.spendwise.service;
 
+import com.spendwise.datasource.ShardDirectory;
 import com.spendwise.dto.UserUpdateDTO;
 import com.spendwise.entity.User;
 import com.spendwise.repository.UserRepository;
@@ -14,6 +15,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardDirectory shardDirectory;
 
     public java.util.Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
@@ -23,18 +25,23 @@ public class UserService {
     public User updateUser(String username, UserUpdateDTO request) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String oldUsername = user.getUsername();
+        String oldEmail = user.getEmail();
 
         if (request.getUsername() != null && !request.getUsername().isEmpty()) {
             // Check if new username exists and is not current user
             if (!user.getUsername().equals(request.getUsername())
-                    && userRepository.existsByUsername(request.getUsername())) {
+                    && (userRepository.existsByUsername(request.getUsername())
+                            || shardDirectory.isUsernameTaken(request.getUsername()))) {
                 throw new RuntimeException("Username already taken");
             }
             user.setUsername(request.getUsername());
         }
 
         if (request.getEmail() != null && !request.getEmail().isEmpty()) {
-            if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
+            if (!user.getEmail().equals(request.getEmail())
+                    && (userRepository.existsByEmail(request.getEmail())
+                            || shardDirectory.isEmailTaken(request.getEmail()))) {
                 throw new RuntimeException("Email already in use");
             }
             user.setEmail(request.getEmail());
@@ -44,6 +51,10 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
 
+        if (!user.getUsername().equals(oldUsername) || !user.getEmail().equals(oldEmail)) {
+            shardDirectory.rename(user.getId(), oldUsername, oldEmail, user.getUsername(), user.getEmail());
+        }
+
         return userRepository.save(user);
     }
 }
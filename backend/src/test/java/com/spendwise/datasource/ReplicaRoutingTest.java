@@ -0,0 +1,156 @@
+package com.spendwise.datasource;
+
+import com.spendwise.support.EmbeddedDatabases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only transactions go to the replica unless the user just wrote or the
+ * replica is down. The replica is a separate server rather than a streaming
+ * standby, which is all routing can tell apart; statements report the port
+ * of the server they ran on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "replica.user")
+class ReplicaRoutingTest {
+
+    private static final long READ_YOUR_WRITES_MS = 1000;
+
+    /**
+     * Hikari hands out connections used this recently without validating them
+     */
+    private static final long POOL_ALIVE_BYPASS_MS = 500;
+
+    private static final String SERVER_PORT = "SELECT current_setting('port')::int";
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> EmbeddedDatabases.url("primary"));
+        registry.add("datasource.replicas.urls", () -> EmbeddedDatabases.url("replica"));
+        registry.add("datasource.replicas.read-your-writes-ms", () -> READ_YOUR_WRITES_MS);
+        // Lag checks are run by the tests, so a background one cannot overlap an outage
+        registry.add("datasource.replicas.lag-check-ms", () -> 3_600_000);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        awaitReplica();
+    }
+
+    @AfterEach
+    void restoreReplica() throws SQLException {
+        setReplicaAcceptsConnections(true);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndOthersThePrimary() {
+        assertThat(portOfRead()).isEqualTo(replicaPort());
+        assertThat(portOfWriteTransaction()).isEqualTo(primaryPort());
+    }
+
+    @Test
+    void readsStayOnThePrimaryAfterTheUsersOwnWriteUntilTheWindowPasses() throws InterruptedException {
+        write();
+        assertThat(portOfRead()).isEqualTo(primaryPort());
+
+        Thread.sleep(READ_YOUR_WRITES_MS + 200);
+        assertThat(portOfRead()).isEqualTo(replicaPort());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() throws SQLException, InterruptedException {
+        setReplicaAcceptsConnections(false);
+        Thread.sleep(POOL_ALIVE_BYPASS_MS + 100);
+        assertThat(portOfRead()).isEqualTo(primaryPort());
+        assertThat(replicaSet.getReplicas()).noneMatch(ReplicaSet.Replica::isAvailable);
+
+        setReplicaAcceptsConnections(true);
+        awaitReplica();
+        assertThat(portOfRead()).isEqualTo(replicaPort());
+    }
+
+    /**
+     * Run lag checks until the replica is back in rotation; its pool may
+     * still be backing off from the failed connection attempts.
+     */
+    private void awaitReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        replicaSet.checkLag();
+        while (!replicaSet.getReplicas().get(0).isAvailable() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(100);
+            replicaSet.checkLag();
+        }
+        assertThat(replicaSet.getReplicas()).allMatch(ReplicaSet.Replica::isAvailable);
+    }
+
+    private int portOfRead() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> jdbcTemplate.queryForObject(SERVER_PORT, Integer.class));
+    }
+
+    private int portOfWriteTransaction() {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> jdbcTemplate.queryForObject(SERVER_PORT, Integer.class));
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE users SET enabled = enabled WHERE username = ?", "replica.user"));
+    }
+
+    /**
+     * Open or close the replica's database to connections, closing the
+     * existing ones, as an outage would.
+     */
+    private void setReplicaAcceptsConnections(boolean accept) throws SQLException {
+        try (Connection connection = EmbeddedDatabases.get("replica").getDatabase("postgres", "template1")
+                .getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER DATABASE postgres WITH ALLOW_CONNECTIONS " + accept);
+            if (!accept) {
+                statement.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                        + "WHERE datname = 'postgres' AND pid <> pg_backend_pid()");
+            }
+        }
+    }
+
+    private int primaryPort() {
+        return EmbeddedDatabases.get("primary").getPort();
+    }
+
+    private int replicaPort() {
+        return EmbeddedDatabases.get("replica").getPort();
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.spendwise.datasource;
+
+import com.spendwise.dto.ExpenseDTO;
+import com.spendwise.dto.GoalContributionDTO;
+import com.spendwise.dto.RegisterRequest;
+import com.spendwise.dto.SavingsGoalDTO;
+import com.spendwise.dto.ShardMoveDTO;
+import com.spendwise.service.AuthService;
+import com.spendwise.service.ExpenseService;
+import com.spendwise.service.SavingsGoalService;
+import com.spendwise.service.ShardMoveService;
+import com.spendwise.support.EmbeddedDatabases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users and their rows live on one of three shards, and a user moved while
+ * still writing arrives on the new shard with every acknowledged write.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardingTest {
+
+    private static final int SHARDS = 3;
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> EmbeddedDatabases.url("shard-0"));
+        registry.add("sharding.urls", () -> EmbeddedDatabases.url("shard-1") + "," + EmbeddedDatabases.url("shard-2"));
+        registry.add("sharding.directory-cache-ms", () -> 200);
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SavingsGoalService savingsGoalService;
+
+    @Autowired
+    private ShardMoveService shardMoveService;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardSet shardSet;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void usersAndTheirWritesLandOnTheirOwnShard() {
+        for (int i = 0; i < SHARDS; i++) {
+            Map<Integer, Long> usersBefore = shardDirectory.countUsersByShard();
+            String username = register();
+            int shard = shardDirectory.shardOf(username);
+            // New users go to the emptiest shard, so added shards fill up first
+            assertThat(usersBefore.get(shard)).isEqualTo(Collections.min(usersBefore.values()));
+            long userId = shardDirectory.find(username).orElseThrow().userId();
+
+            double amount = 10.0 + i;
+            ExpenseDTO expense = as(username, () -> expenseService.createExpense(expense(amount)));
+
+            for (int other = 0; other < SHARDS; other++) {
+                int expected = other == shard ? 1 : 0;
+                assertThat(count(other, "SELECT COUNT(*) FROM users WHERE id = ?", userId)).isEqualTo(expected);
+                assertThat(count(other, "SELECT COUNT(*) FROM expenses WHERE id = ?", expense.getId()))
+                        .isEqualTo(expected);
+            }
+            // Each shard issues its own residue of IDs, so they stay unique across shards
+            assertThat(Math.floorMod(expense.getId(), shardSet.getIdStride())).isEqualTo(shard);
+        }
+    }
+
+    @Test
+    void userMovedWhileWritingKeepsEveryAcknowledgedWrite() throws Exception {
+        String username = register();
+        long userId = shardDirectory.find(username).orElseThrow().userId();
+        Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+        as(username, () -> {
+            for (int i = 0; i < 3; i++) {
+                acknowledged.add(expenseService.createExpense(expense(20.0 + i)).getId());
+            }
+            SavingsGoalDTO goal = savingsGoalService.createGoal(SavingsGoalDTO.builder()
+                    .name("Holiday")
+                    .targetAmount(5_000.0)
+                    .currentAmount(500.0)
+                    .build());
+            return savingsGoalService.addContribution(goal.getId(),
+                    GoalContributionDTO.builder().amount(250.0).build());
+        });
+
+        int from = shardDirectory.shardOf(username);
+        int to = (from + 1) % SHARDS;
+
+        // Keep writing as the user throughout the move; writes racing it may be rejected
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            while (writing.get()) {
+                try {
+                    acknowledged.add(as(username, () -> expenseService.createExpense(expense(1.0))).getId());
+                } catch (RuntimeException e) {
+                    // Rejected by the move's row locks or foreign keys, so never acknowledged
+                }
+            }
+        });
+        writer.start();
+        Thread.sleep(200);
+        ShardMoveDTO move = shardMoveService.moveUser(username, to);
+        Thread.sleep(500);
+        writing.set(false);
+        writer.join(10_000);
+
+        assertThat(move.getFromShard()).isEqualTo(from);
+        assertThat(move.getToShard()).isEqualTo(to);
+        assertThat(shardDirectory.shardOf(username)).isEqualTo(to);
+
+        JdbcTemplate target = new JdbcTemplate(shardSet.get(to));
+        assertThat(target.queryForList("SELECT id FROM expenses WHERE user_id = ?", Long.class, userId))
+                .containsExactlyInAnyOrderElementsOf(acknowledged);
+        assertThat(count(to, "SELECT COUNT(*) FROM goal_contributions c JOIN savings_goals g ON g.id = c.goal_id "
+                + "WHERE g.user_id = ?", userId)).isEqualTo(2);
+        assertThat(count(to, "SELECT COUNT(*) FROM user_roles WHERE user_id = ?", userId)).isEqualTo(1);
+        for (String table : List.of("users WHERE id", "expenses WHERE user_id", "savings_goals WHERE user_id",
+                "user_roles WHERE user_id")) {
+            assertThat(count(from, "SELECT COUNT(*) FROM " + table + " = ?", userId)).as(table).isZero();
+        }
+        assertThat(as(username, expenseService::getAllExpenses)).hasSize(acknowledged.size());
+    }
+
+    private String register() {
+        String username = "shard.user" + USERS.incrementAndGet();
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("password");
+        authService.register(request);
+        return username;
+    }
+
+    /**
+     * Run work authenticated as the given user on the current thread.
+     */
+    private static <T> T as(String username, Supplier<T> work) {
+        UserDetails user = User.withUsername(username).password("").roles("USER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        try {
+            return work.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private long count(int shard, String sql, Object... args) {
+        return new JdbcTemplate(shardSet.get(shard)).queryForObject(sql, Long.class, args);
+    }
+
+    private static ExpenseDTO expense(double amount) {
+        return ExpenseDTO.builder()
+                .amount(amount)
+                .category("Food")
+                .description("Groceries")
+                .date(LocalDate.now())
+                .build();
+    }
+
+}
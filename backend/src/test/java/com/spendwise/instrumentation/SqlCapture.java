@@ -0,0 +1,84 @@
+package com.spendwise.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the SQL statements and result set rows of the code run on the
+ * current thread, through the same DataSource proxy listeners that feed the
+ * per-request metrics. Use in try-with-resources around the call under test:
+ *
+ * <pre>
+ * try (SqlCapture sql = SqlCapture.start()) {
+ *     dashboardService.getDashboardData();
+ *     sql.assertAtMost(5, 100);
+ * }
+ * </pre>
+ */
+public final class SqlCapture implements AutoCloseable {
+
+    private final RequestMetrics metrics;
+
+    private SqlCapture(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Start capturing on the current thread.
+     *
+     * @return the capture, to be closed
+     */
+    public static SqlCapture start() {
+        if (RequestMetrics.current() != null) {
+            throw new IllegalStateException("SQL is already being captured on this thread");
+        }
+        return new SqlCapture(RequestMetrics.bind());
+    }
+
+    public int getQueries() {
+        return metrics.getSqlCount();
+    }
+
+    public long getRows() {
+        return metrics.getRowCount();
+    }
+
+    /**
+     * Assert a bound on the statements executed so far.
+     *
+     * @param queries maximum number of statements
+     */
+    public void assertAtMost(int queries) {
+        assertAtMost(queries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Assert bounds on the statements executed and rows read so far. The
+     * failure message lists the statements.
+     *
+     * @param queries maximum number of statements
+     * @param rows    maximum number of result set rows
+     */
+    public void assertAtMost(int queries, long rows) {
+        assertThat(getQueries())
+                .as("statements executed:%s", describe())
+                .isLessThanOrEqualTo(queries);
+        assertThat(getRows())
+                .as("rows read by:%s", describe())
+                .isLessThanOrEqualTo(rows);
+    }
+
+    private String describe() {
+        StringBuilder statements = new StringBuilder();
+        int index = 0;
+        for (String sql : metrics.getStatements()) {
+            statements.append("\n  [").append(++index).append("] ").append(sql);
+        }
+        return statements.toString();
+    }
+
+    @Override
+    public void close() {
+        RequestMetrics.unbind();
+    }
+
+}
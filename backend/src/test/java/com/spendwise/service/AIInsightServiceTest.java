@@ -0,0 +1,50 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.entity.User;
+import com.spendwise.repository.UserRepository;
+import com.spendwise.support.SeedData;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Storing an analysis replaces the user's previous one in place.
+ */
+class AIInsightServiceTest extends SeededDatabaseTest {
+
+    @Autowired
+    private AIInsightService aiInsightService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void storeReplacesThePreviousAnalysis() {
+        User user = userRepository.findByUsername(SeedData.USERNAME).orElseThrow();
+
+        aiInsightService.store(user.getId(), user.getDataVersion(), analysis("first", "Food"));
+        aiInsightService.store(user.getId(), user.getDataVersion(), analysis("second", "Shopping"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ai_insights WHERE user_id = ?",
+                Long.class, user.getId())).isEqualTo(1);
+        AIAnalysisResponseDTO stored = aiInsightService.findCurrent(user);
+        assertThat(stored.getSummary()).isEqualTo("second");
+        assertThat(stored.getOverspendingCategories()).containsExactly("Shopping");
+        assertThat(aiInsightService.hasCurrent(user.getId(), user.getDataVersion() + 1)).isFalse();
+    }
+
+    private AIAnalysisResponseDTO analysis(String summary, String category) {
+        return AIAnalysisResponseDTO.builder()
+                .summary(summary)
+                .overspendingCategories(List.of(category))
+                .recommendations(List.of("Cook at home"))
+                .nextMonthPrediction("Similar")
+                .build();
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.AIAnalysisResponseDTO;
+import com.spendwise.support.EmbeddedDatabases;
+import com.spendwise.support.SeededDatabaseTest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * No database connection is held in a transaction while waiting on OpenAI,
+ * and the analysis it returns is stored afterwards.
+ */
+class AIServiceTest extends SeededDatabaseTest {
+
+    private static final String COMPLETION = """
+            {"choices": [{"message": {"content": "{\\"summary\\": \\"Steady\\", \\"overspendingCategories\\": [\\"Food\\"], \\"recommendations\\": [\\"Cook at home\\"], \\"nextMonthPrediction\\": \\"Similar\\"}"}}],
+             "usage": {"prompt_tokens": 100, "completion_tokens": 50}}
+            """;
+
+    private static final HttpServer OPENAI = startOpenAI();
+
+    /**
+     * Sessions idle inside a transaction on the primary while the last completion was requested
+     */
+    private static final AtomicLong IDLE_IN_TRANSACTION = new AtomicLong(-1);
+
+    @DynamicPropertySource
+    static void openAI(DynamicPropertyRegistry registry) {
+        registry.add("openai.base-url", () -> "http://localhost:" + OPENAI.getAddress().getPort());
+    }
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private AIUsageService aiUsageService;
+
+    @AfterAll
+    static void stopOpenAI() {
+        OPENAI.stop(0);
+    }
+
+    @BeforeEach
+    void clearStoredAnalysis() {
+        jdbcTemplate.update("DELETE FROM ai_insights WHERE user_id = ?", seedUserId());
+        IDLE_IN_TRANSACTION.set(-1);
+    }
+
+    @AfterEach
+    void flushUsage() {
+        // Written while the database is still up rather than on context shutdown
+        aiUsageService.flush();
+    }
+
+    @Test
+    void analysisWaitsOnOpenAIOutsideATransactionAndIsStored() {
+        AIAnalysisResponseDTO analysis = aiService.analyzeExpenses(false);
+
+        assertThat(analysis.getSummary()).isEqualTo("Steady");
+        assertThat(IDLE_IN_TRANSACTION.get()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT summary FROM ai_insights WHERE user_id = ?",
+                String.class, seedUserId())).isEqualTo("Steady");
+        // Served from the stored analysis without asking OpenAI again
+        IDLE_IN_TRANSACTION.set(-1);
+        assertThat(aiService.analyzeExpenses(false).getOverspendingCategories()).containsExactly("Food");
+        assertThat(IDLE_IN_TRANSACTION.get()).isEqualTo(-1);
+    }
+
+    private static HttpServer startOpenAI() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v1/chat/completions", AIServiceTest::complete);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void complete(HttpExchange exchange) throws IOException {
+        JdbcTemplate primary = new JdbcTemplate(EmbeddedDatabases.get("primary").getPostgresDatabase());
+        IDLE_IN_TRANSACTION.set(primary.queryForObject("SELECT COUNT(*) FROM pg_stat_activity "
+                + "WHERE state = 'idle in transaction' AND pid <> pg_backend_pid()", Long.class));
+        byte[] body = COMPLETION.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
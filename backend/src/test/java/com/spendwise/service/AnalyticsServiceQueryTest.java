@@ -0,0 +1,25 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.AnalyticsResponseDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Test
+    void analyticsAggregatesInTheDatabase() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            AnalyticsResponseDTO analytics = analyticsService.getAnalytics();
+            assertThat(analytics.getMonthlyTrend()).hasSize(6);
+            sql.assertAtMost(3, 100);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.BudgetRequestDTO;
+import com.spendwise.dto.ExpenseDTO;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Raising a budget's limit re-arms the thresholds it falls back below, so
+ * they alert again when crossed under the new limit.
+ */
+class BudgetAlertRearmTest extends SeededDatabaseTest {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void raisingTheLimitRearmsThresholdsOfBothBudgets() {
+        // Before the seeded history, so only this test's expenses count
+        YearMonth month = YearMonth.now().minusYears(5);
+        budgetService.createOrUpdateBudget(request(month, 100.0, null));
+        budgetService.createOrUpdateBudget(request(month, 100.0, "Travel"));
+
+        expenseService.createExpense(expense(month, 100.0));
+        assertThat(alertedThreshold("budgets", month)).isEqualTo(100);
+        assertThat(alertedThreshold("category_budgets", month)).isEqualTo(100);
+        long alerts = queuedAlerts();
+
+        // 10% of the new limit: no threshold is reached any more
+        budgetService.createOrUpdateBudget(request(month, 1_000.0, null));
+        budgetService.createOrUpdateBudget(request(month, 1_000.0, "Travel"));
+        assertThat(alertedThreshold("budgets", month)).isZero();
+        assertThat(alertedThreshold("category_budgets", month)).isZero();
+
+        expenseService.createExpense(expense(month, 700.0));
+        assertThat(alertedThreshold("budgets", month)).isEqualTo(80);
+        assertThat(alertedThreshold("category_budgets", month)).isEqualTo(80);
+        assertThat(queuedAlerts()).isEqualTo(alerts + 2);
+    }
+
+    private int alertedThreshold(String table, YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT alerted_threshold FROM " + table
+                + " WHERE user_id = ? AND budget_month = ? AND budget_year = ?",
+                Integer.class, seedUserId(), month.getMonthValue(), month.getYear());
+    }
+
+    private long queuedAlerts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Long.class);
+    }
+
+    private static BudgetRequestDTO request(YearMonth month, double limit, String category) {
+        return BudgetRequestDTO.builder()
+                .monthlyLimit(limit)
+                .month(month.getMonthValue())
+                .year(month.getYear())
+                .category(category)
+                .build();
+    }
+
+    private static ExpenseDTO expense(YearMonth month, double amount) {
+        return ExpenseDTO.builder()
+                .amount(amount)
+                .category("Travel")
+                .description("Flights")
+                .date(month.atDay(10))
+                .build();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.BudgetRequestDTO;
+import com.spendwise.dto.BudgetResponseDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Test
+    void createOrUpdateBudgetIsOneUpsert() {
+        YearMonth month = YearMonth.now().plusMonths(1);
+        try (SqlCapture sql = SqlCapture.start()) {
+            budgetService.createOrUpdateBudget(request(month, 50_000.0, null));
+            sql.assertAtMost(6, 10);
+        }
+    }
+
+    @Test
+    void createOrUpdateCategoryBudgetIsOneUpsert() {
+        YearMonth month = YearMonth.now().plusMonths(1);
+        try (SqlCapture sql = SqlCapture.start()) {
+            budgetService.createOrUpdateBudget(request(month, 5_000.0, "Transport"));
+            sql.assertAtMost(4, 5);
+        }
+    }
+
+    @Test
+    void getCurrentMonthBudgetUsesRunningTotals() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            BudgetResponseDTO budget = budgetService.getCurrentMonthBudget();
+            assertThat(budget.getCategoryBudgets()).hasSize(2);
+            sql.assertAtMost(4, 10);
+        }
+    }
+
+    @Test
+    void getBudgetByMonthAndYearUsesRunningTotals() {
+        YearMonth month = YearMonth.now().minusMonths(2);
+        try (SqlCapture sql = SqlCapture.start()) {
+            budgetService.getBudgetByMonthAndYear(month.getMonthValue(), month.getYear());
+            sql.assertAtMost(4, 10);
+        }
+    }
+
+    @Test
+    void getBudgetsInRangeUsesFixedQueries() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            List<BudgetResponseDTO> budgets = budgetService.getBudgetsInRange(
+                    YearMonth.now().minusMonths(11), YearMonth.now());
+            assertThat(budgets).hasSize(12);
+            sql.assertAtMost(4, 30);
+        }
+    }
+
+    @Test
+    void getBudgetOptionallyReadsOneBudget() {
+        LocalDate now = LocalDate.now();
+        try (SqlCapture sql = SqlCapture.start()) {
+            assertThat(budgetService.getBudgetOptionally(now.getMonthValue(), now.getYear())).isNotNull();
+            sql.assertAtMost(3, 3);
+        }
+    }
+
+    @Test
+    void deleteBudgetDeletesOneRow() {
+        YearMonth month = YearMonth.now().plusMonths(2);
+        budgetService.createOrUpdateBudget(request(month, 40_000.0, null));
+        try (SqlCapture sql = SqlCapture.start()) {
+            budgetService.deleteBudget(month.getMonthValue(), month.getYear(), null);
+            sql.assertAtMost(6, 10);
+        }
+    }
+
+    private static BudgetRequestDTO request(YearMonth month, double limit, String category) {
+        return BudgetRequestDTO.builder()
+                .monthlyLimit(limit)
+                .month(month.getMonthValue())
+                .year(month.getYear())
+                .category(category)
+                .build();
+    }
+
+}
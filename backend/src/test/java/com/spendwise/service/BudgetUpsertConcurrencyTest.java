@@ -0,0 +1,112 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.BudgetRequestDTO;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many requests creating or updating the same month's budget at once must
+ * all succeed and leave a single row.
+ */
+class BudgetUpsertConcurrencyTest extends SeededDatabaseTest {
+
+    private static final int THREADS = 32;
+
+    private static final int UPSERTS_PER_THREAD = 5;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startExecutor() {
+        // Workers act as the test's user
+        executor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(THREADS));
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentOverallBudgetUpsertsLeaveOneRow() throws Exception {
+        YearMonth month = YearMonth.now().plusYears(3);
+        List<Double> limits = hammer(month, null);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT monthly_limit, version FROM budgets WHERE user_id = ? AND budget_month = ? AND budget_year = ?",
+                seedUserId(), month.getMonthValue(), month.getYear());
+        assertThat(rows).hasSize(1);
+        assertThat(limits).contains((Double) rows.get(0).get("monthly_limit"));
+        // One insert, every other call an update bumping the version
+        assertThat(rows.get(0).get("version")).isEqualTo((long) limits.size() - 1);
+    }
+
+    @Test
+    void concurrentCategoryBudgetUpsertsLeaveOneRow() throws Exception {
+        YearMonth month = YearMonth.now().plusYears(4);
+        List<Double> limits = hammer(month, "Food");
+
+        List<Double> rows = jdbcTemplate.queryForList("SELECT monthly_limit FROM category_budgets "
+                + "WHERE user_id = ? AND budget_month = ? AND budget_year = ? AND category = 'Food'",
+                Double.class, seedUserId(), month.getMonthValue(), month.getYear());
+        assertThat(rows).hasSize(1);
+        assertThat(limits).contains(rows.get(0));
+    }
+
+    /**
+     * Release all threads at once, each upserting the month's budget several
+     * times with its own limits, and fail on any error.
+     *
+     * @return every limit submitted
+     */
+    private List<Double> hammer(YearMonth month, String category) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        List<Double> limits = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            List<Double> threadLimits = new ArrayList<>();
+            for (int i = 0; i < UPSERTS_PER_THREAD; i++) {
+                threadLimits.add(1_000.0 + thread * 100 + i);
+            }
+            limits.addAll(threadLimits);
+            results.add(executor.submit(() -> {
+                start.await();
+                for (Double limit : threadLimits) {
+                    budgetService.createOrUpdateBudget(BudgetRequestDTO.builder()
+                            .monthlyLimit(limit)
+                            .month(month.getMonthValue())
+                            .year(month.getYear())
+                            .category(category)
+                            .build());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            // Rethrows any constraint violation or other failure
+            result.get(60, TimeUnit.SECONDS);
+        }
+        return limits;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.DashboardResponseDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Test
+    void dashboardAggregatesInTheDatabase() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            DashboardResponseDTO dashboard = dashboardService.getDashboardData();
+            assertThat(dashboard.getTotalMonthlySpending()).isPositive();
+            assertThat(dashboard.getForecast()).isNotNull();
+            sql.assertAtMost(7, 200);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.ExpenseDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeedData;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void createExpenseUpdatesRunningTotalsInPlace() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            expenseService.createExpense(expense(250.0));
+            sql.assertAtMost(9, 10);
+        }
+    }
+
+    @Test
+    void getAllExpensesReadsOnlyTheUsersRows() {
+        long expenses = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM expenses WHERE user_id = ?", Long.class, seedUserId());
+        try (SqlCapture sql = SqlCapture.start()) {
+            List<ExpenseDTO> result = expenseService.getAllExpenses();
+            assertThat(result).hasSize((int) expenses);
+            sql.assertAtMost(3, expenses + 2);
+        }
+    }
+
+    @Test
+    void getExpenseByIdReadsOneRow() {
+        Long id = expenseService.createExpense(expense(10.0)).getId();
+        try (SqlCapture sql = SqlCapture.start()) {
+            expenseService.getExpenseById(id);
+            sql.assertAtMost(3, 3);
+        }
+    }
+
+    @Test
+    void updateExpenseMovesRunningTotalsInPlace() {
+        Long id = expenseService.createExpense(expense(10.0)).getId();
+        ExpenseDTO update = expense(20.0);
+        update.setDate(LocalDate.now().minusMonths(1));
+        try (SqlCapture sql = SqlCapture.start()) {
+            expenseService.updateExpense(id, update);
+            sql.assertAtMost(17, 10);
+        }
+    }
+
+    @Test
+    void deleteExpenseUpdatesRunningTotalsInPlace() {
+        Long id = expenseService.createExpense(expense(10.0)).getId();
+        try (SqlCapture sql = SqlCapture.start()) {
+            expenseService.deleteExpense(id);
+            sql.assertAtMost(10, 10);
+        }
+    }
+
+    private static ExpenseDTO expense(double amount) {
+        return ExpenseDTO.builder()
+                .amount(amount)
+                .category("Food")
+                .description(SeedData.USERNAME + " test expense")
+                .date(LocalDate.now())
+                .build();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.spendwise.service;
+
+import com.spendwise.entity.User;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.repository.UserRepository;
+import com.spendwise.support.SeedData;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForecastServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void forecastReadsMonthlyAggregatesOnceThenServesFromCache() {
+        User user = userRepository.findByUsername(SeedData.USERNAME).orElseThrow();
+        // A data version the cache has not seen, so the first call computes
+        user.setDataVersion(System.nanoTime());
+
+        try (SqlCapture sql = SqlCapture.start()) {
+            assertThat(forecastService.forecast(user).getHistoryMonths()).isPositive();
+            sql.assertAtMost(3, 200);
+        }
+        try (SqlCapture sql = SqlCapture.start()) {
+            forecastService.forecast(user);
+            sql.assertAtMost(0);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.spendwise.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The kernel stops starting blocks at the deadline but always completes one,
+ * and keeps balances of a bounded sample of trajectories only.
+ */
+class GoalSimulationKernelTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void expiredDeadlineStillSimulatesTheFirstBlock() {
+        GoalSimulationKernel.Result result = GoalSimulationKernel.simulate(new double[] { 100.0 }, 0.0, 500.0,
+                6, 10_000, 42L, pool, System.nanoTime() - 1_000_000_000L);
+
+        assertThat(result.trajectories()).isEqualTo(GoalSimulationKernel.BLOCK_SIZE);
+        assertThat(result.probability()).isEqualTo(1.0);
+        assertThat(result.p50()).containsExactly(100.0, 200.0, 300.0, 400.0, 500.0, 600.0);
+    }
+
+    @Test
+    void openDeadlineSimulatesEveryTrajectory() {
+        GoalSimulationKernel.Result result = GoalSimulationKernel.simulate(new double[] { 100.0 }, 0.0, 1_000.0,
+                6, 1_000, 42L, pool, System.nanoTime() + 60_000_000_000L);
+
+        assertThat(result.trajectories()).isEqualTo(1_000);
+        assertThat(result.sampled()).isEqualTo(1_000);
+        assertThat(result.probability()).isEqualTo(0.0);
+    }
+
+    @Test
+    void longHorizonsKeepBalancesOfASampleButCountEveryTrajectory() {
+        int months = 120;
+        GoalSimulationKernel.Result result = GoalSimulationKernel.simulate(new double[] { -50.0, 150.0 }, 0.0,
+                3_000.0, months, 50_000, 42L, pool, System.nanoTime() + 60_000_000_000L);
+
+        assertThat(result.trajectories()).isEqualTo(50_000);
+        assertThat(result.sampled()).isEqualTo(GoalSimulationKernel.sampledTrajectories(months, 50_000));
+        assertThat((long) result.sampled() * months).isLessThanOrEqualTo(GoalSimulationKernel.MAX_SAMPLED_BALANCES);
+        // Mean monthly net of 50 over 120 months
+        assertThat(result.p50()[months - 1]).isBetween(5_000.0, 7_000.0);
+        assertThat(result.probability()).isGreaterThan(0.9);
+    }
+
+}
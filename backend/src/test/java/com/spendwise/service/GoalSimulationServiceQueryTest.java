@@ -0,0 +1,27 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.GoalSimulationDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoalSimulationServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private GoalSimulationService goalSimulationService;
+
+    @Test
+    void simulationReadsMonthlyContributionTotals() {
+        Long goalId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM savings_goals WHERE user_id = ?", Long.class, seedUserId());
+        try (SqlCapture sql = SqlCapture.start()) {
+            GoalSimulationDTO simulation = goalSimulationService.simulate(goalId, 1000);
+            assertThat(simulation.getHistoryMonths()).isGreaterThan(12);
+            sql.assertAtMost(4, 50);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.spendwise.service;
+
+import com.spendwise.resilience.AdaptiveConcurrencyLimiter;
+import com.spendwise.resilience.ConcurrencyLimits;
+import com.spendwise.resilience.RouteGroup;
+import com.spendwise.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Only a CRUD limit saturated past the grace period takes the instance out
+ * of service; other saturated groups degrade it.
+ */
+@TestPropertySource(properties = "health.saturation-grace-ms=" + HealthServiceTest.GRACE_MS)
+class HealthServiceTest extends PostgresIntegrationTest {
+
+    static final long GRACE_MS = 300;
+
+    @Autowired
+    private HealthService healthService;
+
+    @Autowired
+    private ConcurrencyLimits concurrencyLimits;
+
+    private final List<Runnable> releases = new ArrayList<>();
+
+    @AfterEach
+    void releaseSlots() {
+        releases.forEach(Runnable::run);
+        releases.clear();
+        healthService.getHealth();
+    }
+
+    @Test
+    void saturatedAILimitOnlyDegrades() {
+        saturate(RouteGroup.AI);
+
+        assertThat(healthService.getHealth()).containsEntry("status", HealthService.DEGRADED);
+    }
+
+    @Test
+    void saturatedCrudLimitTakesTheInstanceOutOfServiceAfterTheGracePeriod() throws InterruptedException {
+        saturate(RouteGroup.CRUD);
+        assertThat(healthService.getHealth()).containsEntry("status", HealthService.DEGRADED);
+
+        Thread.sleep(GRACE_MS + 100);
+        assertThat(healthService.getHealth()).containsEntry("status", HealthService.OUT_OF_SERVICE);
+
+        releases.forEach(Runnable::run);
+        releases.clear();
+        assertThat(healthService.getHealth()).containsEntry("status", HealthService.UP);
+    }
+
+    private void saturate(RouteGroup group) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimits.get(group);
+        int inFlight;
+        while ((inFlight = limiter.tryAcquire()) > 0) {
+            int acquired = inFlight;
+            releases.add(() -> limiter.release(acquired, 1_000_000, false));
+        }
+        assertThat(limiter.isSaturated()).isTrue();
+    }
+
+}
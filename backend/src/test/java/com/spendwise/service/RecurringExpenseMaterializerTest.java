@@ -0,0 +1,52 @@
+package com.spendwise.service;
+
+import com.spendwise.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A subscription further behind than one chunk may generate catches up in
+ * the same run, over several chunks.
+ */
+@TestPropertySource(properties = {
+        "recurring.materializer.enabled=true",
+        "recurring.materializer.initial-delay-ms=3600000",
+        "recurring.materializer.max-occurrences=10" })
+class RecurringExpenseMaterializerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RecurringExpenseMaterializer materializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void subscriptionBehindMoreThanTheCapCatchesUpInOneRun() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusWeeks(30);
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (created_at, updated_at, data_version, email, "
+                + "enabled, password, username) VALUES (?, ?, 0, 'materializer@example.com', TRUE, 'not-a-hash', "
+                + "'materializer.user') RETURNING id", Long.class, now, now);
+        Long subscriptionId = jdbcTemplate.queryForObject("INSERT INTO recurring_expenses (created_at, updated_at, "
+                + "active, amount, category, description, frequency, next_due_date, start_date, user_id) "
+                + "VALUES (?, ?, TRUE, 50.0, 'Health', 'Gym', 'WEEKLY', ?, ?, ?) RETURNING id",
+                Long.class, now, now, start, start, userId);
+
+        materializer.materializeDue();
+
+        // Weeks 0 to 30, four chunks at ten occurrences each
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE user_id = ?",
+                Long.class, userId)).isEqualTo(31);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_due_date FROM recurring_expenses WHERE id = ?",
+                LocalDate.class, subscriptionId)).isEqualTo(start.plusWeeks(31));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.UpcomingChargeDTO;
+import com.spendwise.entity.RecurringExpense;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurringExpenseServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Test
+    void getAllRecurringExpensesIsOneQuery() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            assertThat(recurringExpenseService.getAllRecurringExpenses()).hasSizeGreaterThanOrEqualTo(4);
+            sql.assertAtMost(3, 20);
+        }
+    }
+
+    @Test
+    void getTimelineExpandsSchedulesInMemory() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            List<UpcomingChargeDTO> timeline = recurringExpenseService.getTimeline(365, 100);
+            assertThat(timeline).isNotEmpty();
+            sql.assertAtMost(3, 20);
+        }
+    }
+
+    @Test
+    void addAndDeleteRecurringExpense() {
+        RecurringExpense saved;
+        try (SqlCapture sql = SqlCapture.start()) {
+            saved = recurringExpenseService.addRecurringExpense(RecurringExpense.builder()
+                    .description("Music")
+                    .amount(199.0)
+                    .category("Entertainment")
+                    .frequency(RecurringExpense.Frequency.MONTHLY)
+                    .startDate(LocalDate.now())
+                    .nextDueDate(LocalDate.now())
+                    .build());
+            sql.assertAtMost(4, 5);
+        }
+        try (SqlCapture sql = SqlCapture.start()) {
+            recurringExpenseService.deleteRecurringExpense(saved.getId());
+            sql.assertAtMost(5, 5);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.spendwise.service;
+
+import com.spendwise.dto.GoalContributionDTO;
+import com.spendwise.dto.SavingsGoalDTO;
+import com.spendwise.instrumentation.SqlCapture;
+import com.spendwise.support.SeededDatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SavingsGoalServiceQueryTest extends SeededDatabaseTest {
+
+    @Autowired
+    private SavingsGoalService savingsGoalService;
+
+    @Test
+    void createGoalWithOpeningBalance() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            savingsGoalService.createGoal(goal(1_000.0));
+            sql.assertAtMost(4, 5);
+        }
+    }
+
+    @Test
+    void getAllGoalsComputesProjectionsFromGoalRows() {
+        try (SqlCapture sql = SqlCapture.start()) {
+            assertThat(savingsGoalService.getAllGoals()).hasSizeGreaterThanOrEqualTo(2);
+            sql.assertAtMost(3, 20);
+        }
+    }
+
+    @Test
+    void updateGoal() {
+        SavingsGoalDTO created = savingsGoalService.createGoal(goal(0.0));
+        created.setName("Renamed");
+        try (SqlCapture sql = SqlCapture.start()) {
+            savingsGoalService.updateGoal(created.getId(), created);
+            sql.assertAtMost(4, 5);
+        }
+    }
+
+    @Test
+    void addContributionIsAnAtomicIncrement() {
+        SavingsGoalDTO created = savingsGoalService.createGoal(goal(0.0));
+        try (SqlCapture sql = SqlCapture.start()) {
+            SavingsGoalDTO updated = savingsGoalService.addContribution(created.getId(),
+                    GoalContributionDTO.builder().amount(500.0).note("Bonus").build());
+            assertThat(updated.getCurrentAmount()).isEqualTo(500.0);
+            sql.assertAtMost(5, 5);
+        }
+    }
+
+    @Test
+    void getContributionsReadsOnePage() {
+        Long goalId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM savings_goals WHERE user_id = ?", Long.class, seedUserId());
+        try (SqlCapture sql = SqlCapture.start()) {
+            assertThat(savingsGoalService.getContributions(goalId)).hasSizeGreaterThan(10);
+            sql.assertAtMost(4, 110);
+        }
+    }
+
+    @Test
+    void deleteGoalDeletesItsLedgerInOneStatement() {
+        SavingsGoalDTO created = savingsGoalService.createGoal(goal(1_000.0));
+        savingsGoalService.addContribution(created.getId(), GoalContributionDTO.builder().amount(100.0).build());
+        try (SqlCapture sql = SqlCapture.start()) {
+            savingsGoalService.deleteGoal(created.getId());
+            sql.assertAtMost(5, 5);
+        }
+    }
+
+    private static SavingsGoalDTO goal(double currentAmount) {
+        return SavingsGoalDTO.builder()
+                .name("Laptop")
+                .targetAmount(90_000.0)
+                .currentAmount(currentAmount)
+                .deadline(LocalDate.now().plusMonths(8))
+                .icon("laptop")
+                .build();
+    }
+
+}
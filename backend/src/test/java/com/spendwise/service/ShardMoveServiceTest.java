@@ -0,0 +1,25 @@
+package com.spendwise.service;
+
+import com.spendwise.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The tables a user move copies are found from the entity mappings.
+ */
+class ShardMoveServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void userOwnedTablesFollowAssociationsAndElementCollections() {
+        assertThat(ShardMoveService.userOwnedTables(entityManagerFactory.getMetamodel())).containsExactlyInAnyOrder(
+                "users", "user_roles", "savings_goals", "goal_contributions", "expenses", "recurring_expenses",
+                "budgets", "category_budgets", "ai_insights", "ai_usage");
+    }
+
+}
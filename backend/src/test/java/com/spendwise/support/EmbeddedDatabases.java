@@ -0,0 +1,55 @@
+package com.spendwise.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PostgreSQL servers started in-process for the tests, one per name and
+ * shared by every test using that name. They live until the JVM exits.
+ */
+public final class EmbeddedDatabases {
+
+    private static final Map<String, EmbeddedPostgres> SERVERS = new HashMap<>();
+
+    private EmbeddedDatabases() {
+    }
+
+    /**
+     * Server of the given name, started on first use.
+     *
+     * @param name e.g. "primary" or "shard-1"
+     * @return the running server
+     */
+    public static synchronized EmbeddedPostgres get(String name) {
+        return SERVERS.computeIfAbsent(name, key -> {
+            try {
+                EmbeddedPostgres server = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> close(server)));
+                return server;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded PostgreSQL " + key, e);
+            }
+        });
+    }
+
+    /**
+     * @param name server name
+     * @return JDBC URL of the server's default database
+     */
+    public static String url(String name) {
+        return get(name).getJdbcUrl("postgres", "postgres");
+    }
+
+    private static void close(EmbeddedPostgres server) {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Shutting down anyway
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.spendwise.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible dataset of realistic size: the user {@link #USERNAME} with
+ * two years of daily expenses, monthly and category budgets, subscriptions
+ * and savings goals with a contribution history, next to other users whose
+ * rows must never be read for them. Loaded once per database with batched
+ * JDBC inserts.
+ */
+public final class SeedData {
+
+    public static final String USERNAME = "seed.user";
+
+    public static final int MONTHS = 24;
+
+    public static final int EXPENSES_PER_DAY = 4;
+
+    private static final int OTHER_USERS = 20;
+
+    private static final int OTHER_USER_EXPENSES = 400;
+
+    private static final String[] CATEGORIES = {
+            "Food", "Transport", "Shopping", "Bills", "Entertainment", "Health", "Education", "Other" };
+
+    private SeedData() {
+    }
+
+    /**
+     * Load the dataset unless the database already has it.
+     *
+     * @param jdbcTemplate template on the database
+     */
+    public static synchronized void load(JdbcTemplate jdbcTemplate) {
+        Boolean loaded = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE username = ?)", Boolean.class, USERNAME);
+        if (Boolean.TRUE.equals(loaded)) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < OTHER_USERS; i++) {
+            long userId = insertUser(jdbcTemplate, "seed.other" + i);
+            List<Object[]> expenses = new ArrayList<>();
+            for (int e = 0; e < OTHER_USER_EXPENSES; e++) {
+                expenses.add(expense(random, userId, today.minusDays(random.nextInt(MONTHS * 30))));
+            }
+            insertExpenses(jdbcTemplate, expenses);
+        }
+
+        long userId = insertUser(jdbcTemplate, USERNAME);
+        List<Object[]> expenses = new ArrayList<>();
+        Map<YearMonth, Double> monthTotals = new HashMap<>();
+        Map<YearMonth, Map<String, Double>> categoryTotals = new HashMap<>();
+        for (LocalDate date = today.minusMonths(MONTHS); !date.isAfter(today); date = date.plusDays(1)) {
+            for (int e = 0; e < EXPENSES_PER_DAY; e++) {
+                Object[] expense = expense(random, userId, date);
+                expenses.add(expense);
+                YearMonth month = YearMonth.from(date);
+                monthTotals.merge(month, (Double) expense[2], Double::sum);
+                categoryTotals.computeIfAbsent(month, k -> new HashMap<>())
+                        .merge((String) expense[3], (Double) expense[2], Double::sum);
+            }
+        }
+        insertExpenses(jdbcTemplate, expenses);
+
+        // Budgets for the last year, with running totals; category budgets for the last quarter
+        List<Object[]> budgets = new ArrayList<>();
+        List<Object[]> categoryBudgets = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 11; i >= 0; i--) {
+            YearMonth month = YearMonth.from(today).minusMonths(i);
+            double spent = monthTotals.getOrDefault(month, 0.0);
+            budgets.add(new Object[] { now, now, month.getMonthValue(), month.getYear(),
+                    Math.ceil(spent * 1.1 / 100) * 100, spent, userId });
+            if (i < 3) {
+                for (String category : new String[] { "Food", "Shopping" }) {
+                    double categorySpent = categoryTotals.get(month).getOrDefault(category, 0.0);
+                    categoryBudgets.add(new Object[] { now, now, category, month.getMonthValue(), month.getYear(),
+                            Math.ceil(categorySpent * 1.2 / 100) * 100, categorySpent, userId });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO budgets (created_at, updated_at, alerted_threshold, carry_in, "
+                + "budget_month, budget_year, monthly_limit, rollover_enabled, spent_amount, version, user_id) "
+                + "VALUES (?, ?, 0, 0, ?, ?, ?, FALSE, ?, 0, ?)", budgets);
+        jdbcTemplate.batchUpdate("INSERT INTO category_budgets (created_at, updated_at, alerted_threshold, "
+                + "category, budget_month, budget_year, monthly_limit, spent_amount, user_id) "
+                + "VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)", categoryBudgets);
+
+        LocalDate start = today.minusMonths(MONTHS);
+        List<Object[]> subscriptions = new ArrayList<>();
+        subscriptions.add(new Object[] { now, now, 499.0, "Entertainment", "Streaming", "MONTHLY",
+                start.plusMonths(MONTHS + 1L), start, userId });
+        subscriptions.add(new Object[] { now, now, 15000.0, "Bills", "Rent", "MONTHLY",
+                start.plusMonths(MONTHS + 1L), start, userId });
+        subscriptions.add(new Object[] { now, now, 1200.0, "Health", "Gym", "WEEKLY",
+                today.plusDays(3), start, userId });
+        subscriptions.add(new Object[] { now, now, 9000.0, "Bills", "Insurance", "YEARLY",
+                start.plusYears(3), start, userId });
+        jdbcTemplate.batchUpdate("INSERT INTO recurring_expenses (created_at, updated_at, active, amount, category, "
+                + "description, frequency, next_due_date, start_date, user_id) "
+                + "VALUES (?, ?, TRUE, ?, ?, ?, ?, ?, ?, ?)", subscriptions);
+
+        insertGoal(jdbcTemplate, random, userId, "Emergency fund", 200_000, today.plusMonths(18));
+        insertGoal(jdbcTemplate, random, userId, "Vacation", 80_000, today.plusMonths(6));
+    }
+
+    private static long insertUser(JdbcTemplate jdbcTemplate, String username) {
+        LocalDateTime created = LocalDateTime.now().minusMonths(MONTHS);
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (created_at, updated_at, data_version, email, "
+                + "enabled, password, username) VALUES (?, ?, 0, ?, TRUE, 'not-a-hash', ?) RETURNING id",
+                Long.class, created, created, username + "@seed.local", username);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", userId);
+        return userId;
+    }
+
+    private static Object[] expense(SplittableRandom random, long userId, LocalDate date) {
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        double amount = Math.round(50 + random.nextDouble() * 2000) / 1.0;
+        LocalDateTime at = date.atTime(random.nextInt(8, 22), random.nextInt(60));
+        return new Object[] { at, at, amount, category, date, category + " expense", userId };
+    }
+
+    private static void insertExpenses(JdbcTemplate jdbcTemplate, List<Object[]> expenses) {
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (created_at, updated_at, amount, category, date, "
+                + "description, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)", expenses);
+    }
+
+    private static void insertGoal(JdbcTemplate jdbcTemplate, SplittableRandom random, long userId, String name,
+            double target, LocalDate deadline) {
+        LocalDateTime created = LocalDateTime.now().minusMonths(MONTHS);
+        List<Object[]> contributions = new ArrayList<>();
+        contributions.add(new Object[] { created, created, target * 0.1, "Opening balance", true });
+        double saved = target * 0.1;
+        for (int month = 1; month < MONTHS; month++) {
+            double amount = Math.round(target / 40 * (0.5 + random.nextDouble()));
+            LocalDateTime at = created.plusMonths(month);
+            contributions.add(new Object[] { at, at, amount, null, false });
+            saved += amount;
+        }
+        Long goalId = jdbcTemplate.queryForObject("INSERT INTO savings_goals (created_at, updated_at, "
+                + "contributed_amount, current_amount, deadline, icon, name, target_amount, version, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, 'piggy', ?, ?, 0, ?) RETURNING id", Long.class,
+                created, created, saved - target * 0.1, saved, deadline, name, target, userId);
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] contribution : contributions) {
+            rows.add(new Object[] { contribution[0], contribution[1], contribution[2], contribution[3],
+                    contribution[4], goalId });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO goal_contributions (created_at, updated_at, amount, note, "
+                + "opening_balance, goal_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+}
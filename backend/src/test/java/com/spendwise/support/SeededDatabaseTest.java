@@ -0,0 +1,27 @@
+package com.spendwise.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+/**
+ * Base of tests calling services as the {@link SeedData} user, on the
+ * primary database loaded with the seed dataset.
+ */
+@WithMockUser(username = SeedData.USERNAME)
+public abstract class SeededDatabaseTest extends PostgresIntegrationTest {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void loadSeedData() {
+        SeedData.load(jdbcTemplate);
+    }
+
+    protected long seedUserId() {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, SeedData.USERNAME);
+    }
+
+}
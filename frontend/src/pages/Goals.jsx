@@ -56,11 +56,7 @@ const Goals = () => {
         const amount = prompt('Enter amount to add:');
         if (amount && !isNaN(amount)) {
             try {
-                const updatedGoal = {
-                    ...goal,
-                    currentAmount: goal.currentAmount + parseFloat(amount)
-                };
-                await goalsAPI.update(goal.id, updatedGoal);
+                await goalsAPI.contribute(goal.id, { amount: parseFloat(amount) });
                 fetchGoals();
             } catch (error) {
                 console.error('Failed to update goal', error);
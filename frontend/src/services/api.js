@@ -115,6 +115,9 @@ export const goalsAPI = {
     update: (id, data) =>
         api.put(`/goals/${id}`, data),
 
+    contribute: (id, data) =>
+        api.post(`/goals/${id}/contributions`, data),
+
     delete: (id) =>
         api.delete(`/goals/${id}`),
 };